@@ -0,0 +1,60 @@
+package org.gbif.validation.api;
+
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Position, within a normalized tabular file, where a record ends and the next one starts.
+ * A {@link RecordBoundary} can be used as a split point since it is guaranteed to not be inside a record.
+ *
+ * This class is immutable.
+ */
+public class RecordBoundary {
+
+  private final long byteOffset;
+  private final int lineOffset;
+
+  /**
+   *
+   * @param byteOffset number of bytes before the boundary
+   * @param lineOffset number of lines before the boundary
+   */
+  public RecordBoundary(long byteOffset, int lineOffset) {
+    Preconditions.checkArgument(byteOffset >= 0, "byteOffset shall be positive");
+    Preconditions.checkArgument(lineOffset >= 0, "lineOffset shall be positive");
+    this.byteOffset = byteOffset;
+    this.lineOffset = lineOffset;
+  }
+
+  public long getByteOffset() {
+    return byteOffset;
+  }
+
+  public int getLineOffset() {
+    return lineOffset;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RecordBoundary that = (RecordBoundary) o;
+    return byteOffset == that.byteOffset &&
+            lineOffset == that.lineOffset;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(byteOffset, lineOffset);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+            .add("byteOffset", byteOffset)
+            .add("lineOffset", lineOffset)
+            .toString();
+  }
+}
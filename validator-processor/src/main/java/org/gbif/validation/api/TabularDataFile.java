@@ -1,13 +1,17 @@
 package org.gbif.validation.api;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
 import org.gbif.dwc.terms.Term;
 import org.gbif.validation.api.vocabulary.DwcFileType;
 
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -18,6 +22,8 @@ import javax.annotation.Nullable;
 
 /**
  * Represents the workable unit for the validation. It can point to a file or a portion of a bigger file.
+ * A portion of a bigger file is represented by a byte window (startByte inclusive, endByte exclusive) on the
+ * file located at filePath.
  * It can also represent a tabular view of other formats (spreadsheet).
  *
  * Expected  LF (\n) end of line character.
@@ -45,6 +51,28 @@ public class TabularDataFile {
   private final Integer numOfLines;
   private final Integer numOfLinesWithData;
 
+  private final Long startByte;
+  private final Long endByte;
+
+  private final List<RecordBoundary> recordBoundaries;
+
+  /**
+   * Constructor of {@link TabularDataFile} representing an entire file.
+   *
+   * @see #TabularDataFile(Path, String, RowTypeKey, Term[], TermIndex, Map, Integer, boolean, Charset, Character,
+   * Character, Integer, Integer, Long, Long, List)
+   */
+  public TabularDataFile(Path filePath, String sourceFileName,
+                         RowTypeKey rowTypeKey, Term[] columns,
+                         @Nullable TermIndex recordIdentifier,
+                         @Nullable Map<Term, String> defaultValues,
+                         @Nullable Integer fileLineOffset, boolean hasHeaders,
+                         Charset characterEncoding,
+                         Character delimiterChar, Character quoteChar, Integer numOfLines, Integer numOfLinesWithData) {
+    this(filePath, sourceFileName, rowTypeKey, columns, recordIdentifier, defaultValues, fileLineOffset, hasHeaders,
+            characterEncoding, delimiterChar, quoteChar, numOfLines, numOfLinesWithData, null, null, null);
+  }
+
   /**
    * Complete constructor of {@link TabularDataFile}
    *
@@ -61,6 +89,9 @@ public class TabularDataFile {
    * @param quoteChar
    * @param numOfLines
    * @param numOfLinesWithData
+   * @param startByte if the file represents a part of a bigger file, position (inclusive) of the first byte of the part
+   * @param endByte if the file represents a part of a bigger file, position (exclusive) of the last byte of the part
+   * @param recordBoundaries known {@link RecordBoundary} of the file that can be used as split points, in order
    */
   public TabularDataFile(Path filePath, String sourceFileName,
                          RowTypeKey rowTypeKey, Term[] columns,
@@ -68,8 +99,14 @@ public class TabularDataFile {
                          @Nullable Map<Term, String> defaultValues,
                          @Nullable Integer fileLineOffset, boolean hasHeaders,
                          Charset characterEncoding,
-                         Character delimiterChar, Character quoteChar, Integer numOfLines, Integer numOfLinesWithData) {
+                         Character delimiterChar, Character quoteChar, Integer numOfLines, Integer numOfLinesWithData,
+                         @Nullable Long startByte, @Nullable Long endByte,
+                         @Nullable List<RecordBoundary> recordBoundaries) {
     Objects.requireNonNull(rowTypeKey, "rowTypeKey shall be provided");
+    Preconditions.checkArgument((startByte == null) == (endByte == null),
+            "startByte and endByte shall be provided together");
+    Preconditions.checkArgument(startByte == null || (startByte >= 0 && startByte <= endByte),
+            "startByte shall be positive and lower or equal to endByte");
 
     this.filePath = filePath;
     this.sourceFileName = sourceFileName;
@@ -84,6 +121,9 @@ public class TabularDataFile {
     this.quoteChar = quoteChar;
     this.numOfLines = numOfLines;
     this.numOfLinesWithData = numOfLinesWithData;
+    this.startByte = startByte;
+    this.endByte = endByte;
+    this.recordBoundaries = (recordBoundaries != null) ? new ArrayList<>(recordBoundaries) : null;
   }
 
   /**
@@ -166,6 +206,33 @@ public class TabularDataFile {
     return numOfLinesWithData;
   }
 
+  /**
+   * If this {@link DataFile} represents a part of a bigger file, the position (inclusive) of the first byte of
+   * the part within the file located at {@link #getFilePath()}.
+   * @return
+   */
+  public Optional<Long> getStartByte() {
+    return Optional.ofNullable(startByte);
+  }
+
+  /**
+   * If this {@link DataFile} represents a part of a bigger file, the position (exclusive) of the last byte of
+   * the part within the file located at {@link #getFilePath()}.
+   * @return
+   */
+  public Optional<Long> getEndByte() {
+    return Optional.ofNullable(endByte);
+  }
+
+  /**
+   * Get the known {@link RecordBoundary} of the file located at {@link #getFilePath()} (if computed).
+   * Those boundaries can be used as split points.
+   * @return
+   */
+  public Optional<List<RecordBoundary>> getRecordBoundaries() {
+    return Optional.ofNullable(recordBoundaries).map(Collections::unmodifiableList);
+  }
+
   /**
    * Get the index of a {@link Term} or OptionalInt.empty if the Term can not be found.
    *
@@ -199,7 +266,10 @@ public class TabularDataFile {
             Objects.equals(sourceFileName, dataFile.sourceFileName) &&
             Objects.equals(numOfLines, dataFile.numOfLines) &&
             Objects.equals(numOfLinesWithData, dataFile.numOfLinesWithData) &&
-            Objects.equals(fileLineOffset, dataFile.fileLineOffset);
+            Objects.equals(fileLineOffset, dataFile.fileLineOffset) &&
+            Objects.equals(startByte, dataFile.startByte) &&
+            Objects.equals(endByte, dataFile.endByte) &&
+            Objects.equals(recordBoundaries, dataFile.recordBoundaries);
   }
 
   @Override
@@ -217,7 +287,10 @@ public class TabularDataFile {
             numOfLines,
             numOfLinesWithData,
             fileLineOffset,
-            hasHeaders);
+            hasHeaders,
+            startByte,
+            endByte,
+            recordBoundaries);
   }
 
   @Override
@@ -236,6 +309,9 @@ public class TabularDataFile {
       .add("quoteChar", quoteChar)
       .add("numOfLines", numOfLines)
       .add("numOfLinesWithData", numOfLinesWithData)
+      .add("startByte", startByte)
+      .add("endByte", endByte)
+      .add("numOfRecordBoundaries", recordBoundaries == null ? null : recordBoundaries.size())
       .toString();
   }
 }
@@ -5,6 +5,7 @@ import org.gbif.dwc.terms.Term;
 import org.gbif.validation.api.model.EvaluationCategory;
 import org.gbif.validation.api.model.EvaluationType;
 import org.gbif.validation.api.vocabulary.DwcFileType;
+import org.gbif.validation.api.vocabulary.InterpretationLookup;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -45,6 +46,7 @@ public class ValidationResultElement implements Serializable {
 
   private final List<Map.Entry<Term, Integer>> termsFrequency;
   private final Map<Term, Long> interpretedValueCounts;
+  private final Set<InterpretationLookup> interpretationLookups;
 
   private final List<ValidationDataOutput.Type> availableDataOutput;
 
@@ -137,8 +139,31 @@ public class ValidationResultElement implements Serializable {
                                  Map<EvaluationType, List<ValidationResultDetails>> issueSampling,
                                  List<Map.Entry<Term, Integer>> termsFrequency,
                                  Map<Term, Long> interpretedValueCounts, List<ValidationDataOutput> dataOutput) {
+    this(fileName, numberOfLines, numberOfLinesWithData, fileType, rowType, idTerm, issueCounter, issueSampling,
+            termsFrequency, interpretedValueCounts, null, dataOutput);
+  }
+
+  /**
+   *
+   * @param fileName
+   * @param numberOfLines total number of line, including the header line
+   * @param fileType
+   * @param rowType
+   * @param issueCounter
+   * @param issueSampling
+   * @param termsFrequency ordered list of key/value pairs
+   * @param interpretedValueCounts
+   * @param interpretationLookups remote lookups performed by the interpretation, null if not interpreted
+   */
+  public ValidationResultElement(String fileName, Long numberOfLines, Long numberOfLinesWithData, DwcFileType fileType, Term rowType, Term idTerm,
+                                 Map<EvaluationType, Long> issueCounter,
+                                 Map<EvaluationType, List<ValidationResultDetails>> issueSampling,
+                                 List<Map.Entry<Term, Integer>> termsFrequency,
+                                 Map<Term, Long> interpretedValueCounts,
+                                 Set<InterpretationLookup> interpretationLookups,
+                                 List<ValidationDataOutput> dataOutput) {
     this(fileName, numberOfLines, numberOfLinesWithData, fileType, rowType, idTerm, new ArrayList<>(), termsFrequency,
-            interpretedValueCounts, dataOutput);
+            interpretedValueCounts, interpretationLookups, dataOutput);
 
     if (issueCounter != null && issueSampling != null) {
       issueCounter.forEach(
@@ -147,6 +172,27 @@ public class ValidationResultElement implements Serializable {
     }
   }
 
+  /**
+   * Constructor for elements that were not interpreted.
+   *
+   * @param fileName
+   * @param numberOfLines
+   * @param fileType
+   * @param rowType
+   * @param issues
+   * @param termsFrequency
+   * @param interpretedValueCounts
+   */
+  public ValidationResultElement(String fileName, Long numberOfLines, Long numberOfLinesWithData,
+                                 DwcFileType fileType, Term rowType, Term idTerm,
+                                 List<ValidationIssue> issues,
+                                 List<Map.Entry<Term, Integer>> termsFrequency,
+                                 Map<Term, Long> interpretedValueCounts,
+                                 List<ValidationDataOutput> dataOutput) {
+    this(fileName, numberOfLines, numberOfLinesWithData, fileType, rowType, idTerm, issues, termsFrequency,
+            interpretedValueCounts, null, dataOutput);
+  }
+
   /**
    * Full constructor
    *
@@ -157,12 +203,14 @@ public class ValidationResultElement implements Serializable {
    * @param issues
    * @param termsFrequency
    * @param interpretedValueCounts
+   * @param interpretationLookups
    */
   public ValidationResultElement(String fileName, Long numberOfLines, Long numberOfLinesWithData,
                                  DwcFileType fileType, Term rowType, Term idTerm,
                                  List<ValidationIssue> issues,
                                  List<Map.Entry<Term, Integer>> termsFrequency,
                                  Map<Term, Long> interpretedValueCounts,
+                                 Set<InterpretationLookup> interpretationLookups,
                                  List<ValidationDataOutput> dataOutput) {
     this.fileName = fileName;
     this.numberOfLines = numberOfLines;
@@ -173,6 +221,7 @@ public class ValidationResultElement implements Serializable {
     this.issues = issues;
     this.termsFrequency = termsFrequency;
     this.interpretedValueCounts = interpretedValueCounts;
+    this.interpretationLookups = interpretationLookups;
     this.dataOutput = dataOutput;
 
     this.availableDataOutput = dataOutput == null ? Collections.emptyList() :
@@ -216,6 +265,14 @@ public class ValidationResultElement implements Serializable {
     return interpretedValueCounts;
   }
 
+  /**
+   * Remote lookups performed by the interpretation of this element, as chosen from the terms it provides.
+   * @return lookups performed or null if the element was not interpreted
+   */
+  public Set<InterpretationLookup> getInterpretationLookups() {
+    return interpretationLookups;
+  }
+
   public Term getIdTerm() {
     return idTerm;
   }
@@ -276,6 +333,7 @@ public class ValidationResultElement implements Serializable {
             .add("numberOfLinesWithData", numberOfLinesWithData)
             .add("termsFrequency", termsFrequency)
             .add("interpretedValueCounts", interpretedValueCounts)
+            .add("interpretationLookups", interpretationLookups)
             .add("availableDataOutput", availableDataOutput)
             .toString();
   }
@@ -0,0 +1,95 @@
+package org.gbif.validation.api.vocabulary;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.GbifTerm;
+import org.gbif.dwc.terms.Term;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * Remote lookups used by the occurrence interpretation.
+ * A lookup is only performed if the terms available in a file can feed it.
+ */
+public enum InterpretationLookup {
+
+  //any of the names or the classification
+  SPECIES_MATCH(
+          terms(DwcTerm.scientificName), terms(DwcTerm.scientificNameAuthorship), terms(GbifTerm.genericName),
+          terms(DwcTerm.genus), terms(DwcTerm.specificEpithet), terms(DwcTerm.infraspecificEpithet),
+          terms(DwcTerm.kingdom), terms(DwcTerm.phylum), terms(DwcTerm.class_), terms(DwcTerm.order),
+          terms(DwcTerm.family)),
+
+  //a complete pair of coordinates
+  COORDINATE(
+          terms(DwcTerm.decimalLatitude, DwcTerm.decimalLongitude),
+          terms(DwcTerm.verbatimLatitude, DwcTerm.verbatimLongitude),
+          terms(DwcTerm.verbatimCoordinates));
+
+  private final List<Set<Term>> requiredTerms;
+
+  /**
+   *
+   * @param requiredTerms alternative sets of terms, the lookup can be fed if all the terms of one of the sets are
+   *                      available
+   */
+  @SafeVarargs
+  InterpretationLookup(Set<Term>... requiredTerms) {
+    this.requiredTerms = Collections.unmodifiableList(Arrays.asList(requiredTerms));
+  }
+
+  /**
+   * Check if the provided terms can feed this lookup.
+   *
+   * @param availableTerms
+   * @return
+   */
+  public boolean isSupportedBy(Collection<Term> availableTerms) {
+    return requiredTerms.stream().anyMatch(availableTerms::containsAll);
+  }
+
+  /**
+   * Get all the lookups that can be fed by the provided terms.
+   *
+   * @param availableTerms
+   * @return
+   */
+  public static Set<InterpretationLookup> supportedBy(Collection<Term> availableTerms) {
+    Set<Term> terms = new HashSet<>(availableTerms);
+    Set<InterpretationLookup> lookups = EnumSet.noneOf(InterpretationLookup.class);
+    for (InterpretationLookup lookup : values()) {
+      if (lookup.isSupportedBy(terms)) {
+        lookups.add(lookup);
+      }
+    }
+    return lookups;
+  }
+
+  /**
+   * Get all the lookups that can be fed by the columns of a file and its default values.
+   *
+   * @param columns columns of the file, unmapped columns are represented by null
+   * @param defaultValues default values of the file, if any
+   * @return
+   */
+  public static Set<InterpretationLookup> supportedBy(List<Term> columns, @Nullable Map<Term, String> defaultValues) {
+    Set<Term> terms = columns.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    if (defaultValues != null) {
+      terms.addAll(defaultValues.keySet());
+    }
+    return supportedBy(terms);
+  }
+
+  private static Set<Term> terms(Term... terms) {
+    return new HashSet<>(Arrays.asList(terms));
+  }
+}
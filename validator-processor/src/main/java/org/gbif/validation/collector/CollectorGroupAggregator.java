@@ -0,0 +1,230 @@
+package org.gbif.validation.collector;
+
+import org.gbif.dwc.terms.Term;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.api.TermIndex;
+import org.gbif.validation.api.model.EvaluationType;
+import org.gbif.validation.api.result.ValidationDataOutput;
+import org.gbif.validation.api.result.ValidationResultDetails;
+import org.gbif.validation.api.result.ValidationResultElement;
+import org.gbif.validation.api.vocabulary.InterpretationLookup;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Running aggregate of {@link CollectorGroup} results for a single {@link TabularDataFile}.
+ *
+ * {@link CollectorGroup} can be merged one at a time, as soon as they are available, and released after. Only the
+ * merged counts and the samples that can still be part of the final result are kept, so the memory used does not
+ * grow with the number of merged {@link CollectorGroup}.
+ *
+ * Aggregators can also be combined, see {@link #combine(CollectorGroupAggregator)}. Samples are kept sorted by line
+ * number so combining them only walks the first maxNumberOfSample elements of each side.
+ *
+ * Not Thread-Safe.
+ */
+public class CollectorGroupAggregator {
+
+  private final int maxNumberOfSample;
+
+  private final Map<Term, Long> mergedTermFrequency = new HashMap<>();
+  private final Map<EvaluationType, Long> mergedAggregatedCounts = new EnumMap<>(EvaluationType.class);
+  private final Map<EvaluationType, List<ValidationResultDetails>> mergedSamples = new EnumMap<>(EvaluationType.class);
+  private final Map<Term, Long> mergedInterpretedTermsCount = new HashMap<>();
+  private final Map<Long, Map<Term, String>> verbatimRecordSample = new HashMap<>();
+  //null until a CollectorGroup of interpreted records is merged
+  private Set<InterpretationLookup> interpretationLookups;
+
+  private int numOfMergedGroups;
+
+  public CollectorGroupAggregator() {
+    this(RecordEvaluationResultCollector.DEFAULT_MAX_NUMBER_OF_SAMPLE);
+  }
+
+  /**
+   *
+   * @param maxNumberOfSample maximum number of samples kept per {@link EvaluationType}
+   */
+  public CollectorGroupAggregator(int maxNumberOfSample) {
+    this.maxNumberOfSample = maxNumberOfSample;
+  }
+
+  /**
+   * Merge a {@link CollectorGroup} into the aggregate.
+   * The {@link CollectorGroup} is not referenced by the aggregate after this call.
+   *
+   * @param collectorGroup
+   */
+  public void merge(CollectorGroup collectorGroup) {
+    Objects.requireNonNull(collectorGroup, "collectorGroup shall be provided");
+
+    collectorGroup.getMetricsCollector().getTermFrequency()
+            .forEach((k, v) -> mergedTermFrequency.merge(k, v, Long::sum));
+    RecordEvaluationResultCollector resultsCollector = collectorGroup.getResultsCollector();
+    resultsCollector.getAggregatedCounts().forEach((k, v) -> mergedAggregatedCounts.merge(k, v, Long::sum));
+    if (collectorGroup.getInterpretedTermsCountCollector() != null) {
+      collectorGroup.getInterpretedTermsCountCollector().getInterpretedCounts()
+              .forEach((k, v) -> mergedInterpretedTermsCount.merge(k, v, Long::sum));
+    }
+
+    // samples are resampled right away since only the first lines can be part of the final result
+    resultsCollector.getSamples().forEach((k, v) -> mergedSamples.merge(k, resample(v, maxNumberOfSample),
+            (o, n) -> mergeSamples(o, n, maxNumberOfSample)));
+
+    verbatimRecordSample.putAll(resultsCollector.getFullRecordSamples());
+    retainSampledVerbatimRecords();
+    mergeInterpretationLookups(collectorGroup.getInterpretationLookups());
+
+    numOfMergedGroups++;
+  }
+
+  /**
+   * Combine another aggregator into this one.
+   * Used to reduce the aggregators of different {@link CollectorGroup} in parallel.
+   *
+   * @param other aggregator to combine, it should not be used after this call
+   */
+  public void combine(CollectorGroupAggregator other) {
+    Objects.requireNonNull(other, "other shall be provided");
+
+    other.mergedTermFrequency.forEach((k, v) -> mergedTermFrequency.merge(k, v, Long::sum));
+    other.mergedAggregatedCounts.forEach((k, v) -> mergedAggregatedCounts.merge(k, v, Long::sum));
+    other.mergedInterpretedTermsCount.forEach((k, v) -> mergedInterpretedTermsCount.merge(k, v, Long::sum));
+    other.mergedSamples.forEach((k, v) -> mergedSamples.merge(k, v, (o, n) -> mergeSamples(o, n, maxNumberOfSample)));
+
+    verbatimRecordSample.putAll(other.verbatimRecordSample);
+    retainSampledVerbatimRecords();
+    mergeInterpretationLookups(other.interpretationLookups);
+
+    numOfMergedGroups += other.numOfMergedGroups;
+  }
+
+  private void mergeInterpretationLookups(Set<InterpretationLookup> lookups) {
+    if (lookups == null) {
+      return;
+    }
+    if (interpretationLookups == null) {
+      interpretationLookups = EnumSet.noneOf(InterpretationLookup.class);
+    }
+    interpretationLookups.addAll(lookups);
+  }
+
+  /**
+   * Keep only the verbatim records of the current samples.
+   */
+  private void retainSampledVerbatimRecords() {
+    Set<Long> sampledLineNumbers = new HashSet<>();
+    mergedSamples.values().forEach(sample -> sample.forEach(d -> sampledLineNumbers.add(d.getLineNumber())));
+    verbatimRecordSample.keySet().retainAll(sampledLineNumbers);
+  }
+
+  /**
+   * Get the {@link ValidationResultElement} of all the {@link CollectorGroup} merged so far.
+   *
+   * @param dataFile
+   * @param resultingFileName
+   *
+   * @return the {@link ValidationResultElement} or null if no {@link CollectorGroup} was merged
+   */
+  public ValidationResultElement getResult(TabularDataFile dataFile, String resultingFileName) {
+    if (numOfMergedGroups == 0) {
+      return null;
+    }
+
+    // transform the term frequency into an ordered list of key/value pairs
+    List<Map.Entry<Term, Integer>> termFrequency = Arrays.stream(dataFile.getColumns())
+            .filter(Objects::nonNull)
+            .map(t -> new AbstractMap.SimpleImmutableEntry<>(t, mergedTermFrequency.getOrDefault(t, -1L).intValue()))
+            .collect(Collectors.toList());
+
+    Map<Long, List<String>> orderedVerbatimRecords = new TreeMap<>();
+    verbatimRecordSample.forEach((lineNumber, verbatimData) ->
+            orderedVerbatimRecords.put(lineNumber, toOrderedVerbatimValues(dataFile.getColumns(), verbatimData)));
+    List<ValidationDataOutput> dataOutput =
+            Collections.singletonList(ValidationDataOutput.verbatimRecordSample(dataFile.getColumns(),
+                    orderedVerbatimRecords));
+
+    return new ValidationResultElement(resultingFileName,
+            dataFile.getNumOfLines().longValue(),
+            dataFile.getNumOfLinesWithData().longValue(),
+            dataFile.getDwcFileType(),
+            dataFile.getRowTypeKey().getRowType(),
+            dataFile.getRecordIdentifier().map(TermIndex::getTerm).orElse(null),
+            CollectorUtils.newEvaluationTypeEnumMap(mergedAggregatedCounts),
+            CollectorUtils.newEvaluationTypeEnumMap(mergedSamples),
+            termFrequency,
+            CollectorUtils.newHashMapInit(mergedInterpretedTermsCount),
+            interpretationLookups == null ? null : EnumSet.copyOf(interpretationLookups),
+            dataOutput);
+  }
+
+  private static List<String> toOrderedVerbatimValues(Term[] headers, Map<Term, String> verbatimData) {
+    List<String> orderedValues = new ArrayList<>(headers.length);
+    Arrays.stream(headers)
+            .forEach(t -> orderedValues.add(verbatimData.get(t)));
+    return orderedValues;
+  }
+
+  /**
+   * Take a list of {@link ValidationResultDetails} and make sure the sample size is not greater than
+   * maxSample.
+   *
+   * @param resultDetails
+   * @param maxSample
+   *
+   * @return new list sorted by line number
+   */
+  private static List<ValidationResultDetails> resample(List<ValidationResultDetails> resultDetails,
+                                                        int maxSample) {
+    return resultDetails.stream()
+            .sorted(CollectorGroupAggregator::compareLineNumber)
+            .limit(maxSample)
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Merge 2 samples sorted by line number into a new sorted sample of at most maxSample elements.
+   *
+   * @param sample1
+   * @param sample2
+   * @param maxSample
+   *
+   * @return new list sorted by line number
+   */
+  static List<ValidationResultDetails> mergeSamples(List<ValidationResultDetails> sample1,
+                                                    List<ValidationResultDetails> sample2, int maxSample) {
+    List<ValidationResultDetails> merged = new ArrayList<>(Math.min(maxSample, sample1.size() + sample2.size()));
+    int idx1 = 0;
+    int idx2 = 0;
+    while (merged.size() < maxSample && (idx1 < sample1.size() || idx2 < sample2.size())) {
+      if (idx2 >= sample2.size() ||
+          (idx1 < sample1.size() && compareLineNumber(sample1.get(idx1), sample2.get(idx2)) <= 0)) {
+        merged.add(sample1.get(idx1++));
+      } else {
+        merged.add(sample2.get(idx2++));
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Compare by line number, details without line number come last.
+   */
+  private static int compareLineNumber(ValidationResultDetails details1, ValidationResultDetails details2) {
+    return Long.compare(details1.getLineNumber() == null ? Long.MAX_VALUE : details1.getLineNumber(),
+            details2.getLineNumber() == null ? Long.MAX_VALUE : details2.getLineNumber());
+  }
+}
@@ -23,12 +23,25 @@ public class CollectorGroupProvider {
   }
 
   /**
-   * Get a new {@link CollectorGroup} instance
+   * Get a new {@link CollectorGroup} instance that can be shared between threads.
    * @return
    */
   public CollectorGroup newCollectorGroup() {
+    return newCollectorGroup(true);
+  }
+
+  /**
+   * Get a new {@link CollectorGroup} instance.
+   * Results of groups created per worker (e.g. one per split) are merged with
+   * {@link CollectorGroup#mergeAndGetResult} so they do not need to be thread-safe.
+   *
+   * @param useConcurrentMap false if the group will only be used by a single thread at a time
+   * @return
+   */
+  public CollectorGroup newCollectorGroup(boolean useConcurrentMap) {
     return new CollectorGroup(columns,
-            CollectorFactory.createInterpretedTermsCountCollector(rowType, true).orElse(null));
+            CollectorFactory.createInterpretedTermsCountCollector(rowType, useConcurrentMap).orElse(null),
+            useConcurrentMap);
   }
 
 }
@@ -0,0 +1,36 @@
+package org.gbif.validation.collector;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed number of long counters addressed by index (e.g. column position).
+ * Incrementing a counter does not allocate.
+ */
+class IndexedCounters implements Serializable {
+
+  private final long[] counters;
+  private final AtomicLongArray concurrentCounters;
+
+  /**
+   *
+   * @param size number of counters
+   * @param concurrent if the counters will be incremented from multiple threads
+   */
+  IndexedCounters(int size, boolean concurrent) {
+    counters = concurrent ? null : new long[size];
+    concurrentCounters = concurrent ? new AtomicLongArray(size) : null;
+  }
+
+  void increment(int idx) {
+    if (concurrentCounters != null) {
+      concurrentCounters.incrementAndGet(idx);
+    } else {
+      counters[idx]++;
+    }
+  }
+
+  long get(int idx) {
+    return concurrentCounters != null ? concurrentCounters.get(idx) : counters[idx];
+  }
+}
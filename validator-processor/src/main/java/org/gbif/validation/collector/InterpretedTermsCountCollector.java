@@ -7,20 +7,18 @@ import org.gbif.validation.api.model.RecordEvaluationResult;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.BiConsumer;
 
 import org.apache.commons.lang3.Validate;
 
 /**
  * Simple collector to count interpreted data from a predefined list of terms.
- *
+ * Counts are kept per position of the term in the list and only turned into a Map when requested.
  */
 public class InterpretedTermsCountCollector implements ResultsCollector, Serializable {
 
-  private final List<Term> targetedTerms;
-
-  private final Map<Term, Long> interpretedValueCounter;
+  private final Term[] targetedTerms;
+  private final boolean useConcurrentMap;
+  private final IndexedCounters termCounters;
 
   //private static final MAX_DISTINCT_COUNT
   //private final Map<Term, Map<Object, Long>> interpretedValueDistinctCounter;
@@ -33,20 +31,35 @@ public class InterpretedTermsCountCollector implements ResultsCollector, Seriali
   public InterpretedTermsCountCollector(List<Term> targetedTerms, boolean useConcurrentMap) {
     Validate.notNull(targetedTerms, "targetedTerms must not be null");
 
-    this.targetedTerms = targetedTerms;
-    interpretedValueCounter = CollectorUtils.getZeroTermFrequency(targetedTerms, useConcurrentMap);
+    this.targetedTerms = targetedTerms.toArray(new Term[targetedTerms.size()]);
+    this.useConcurrentMap = useConcurrentMap;
+    termCounters = new IndexedCounters(this.targetedTerms.length, useConcurrentMap);
   }
 
+  /**
+   *
+   * @return new Map of the number of records with an interpreted value for each targeted term
+   */
   public Map<Term, Long> getInterpretedCounts() {
-    return interpretedValueCounter;
+    Map<Term, Long> interpretedCounts = CollectorUtils.getZeroTermFrequency(targetedTerms, useConcurrentMap);
+    for (int i = 0; i < targetedTerms.length; i++) {
+      if (targetedTerms[i] != null) {
+        interpretedCounts.merge(targetedTerms[i], termCounters.get(i), Long::sum);
+      }
+    }
+    return interpretedCounts;
   }
 
   @Override
   public void collect(RecordEvaluationResult result) {
-    BiConsumer<Term,Map<Term, Object>> increment = (term, terms) -> interpretedValueCounter.compute(term, (k, v) ->
-                                                                    terms.get(term) != null ? ++v : v);
-    Optional.ofNullable(result)
-      .ifPresent(r -> Optional.ofNullable(r.getInterpretedData())
-        .ifPresent(terms -> targetedTerms.stream().forEach(term -> increment.accept(term,terms))));
+    Map<Term, Object> interpretedData = result == null ? null : result.getInterpretedData();
+    if (interpretedData == null) {
+      return;
+    }
+    for (int i = 0; i < targetedTerms.length; i++) {
+      if (interpretedData.get(targetedTerms[i]) != null) {
+        termCounters.increment(i);
+      }
+    }
   }
 }
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -27,7 +28,10 @@ import java.util.stream.Collectors;
  *
  * The sampling is based on the key defined by {@link RecordEvaluationResultDetails#computeInputValuesKey()}.
  * We also keep a list of non-distinct sample in case we can not find enough distinct entries to match
- * the wanted size of the sample.
+ * the wanted size of the sample. That list is capped since it is only used to complete the sample.
+ *
+ * Once the distinct sample of an {@link EvaluationType} is full, collecting a result of that type only increments
+ * its counter.
  */
 public class RecordEvaluationResultCollector implements ResultsCollector, Serializable {
 
@@ -49,34 +53,53 @@ public class RecordEvaluationResultCollector implements ResultsCollector, Serial
 
   @Override
   public void collect(RecordEvaluationResult result) {
-    if (result != null && result.getDetails() != null) {
-      result.getDetails().forEach(detail -> {
-        innerImpl.countAndPrepare(detail.getEvaluationType());
-        innerImpl.computeSampling(detail.getEvaluationType(), (type, currSample) -> {
-          if (currSample.size() < maxNumberOfSample) {
-            String key = detail.computeInputValuesKey();
-            if (!currSample.containsKey(key)) {
-              currSample.put(key, toValidationResultDetails(result, detail));
-              if(result.getLineNumber() != null && result.getVerbatimData() != null) {
-                innerImpl.putVerbatimRecord(result.getLineNumber(), result.getVerbatimData());
-              }
-            } else {
-              innerImpl.putNonDistinct(detail.getEvaluationType(), toValidationResultDetails(result, detail));
-            }
-          }
-          return currSample;
-        });
-      });
+    if (result == null || result.getDetails() == null) {
+      return;
     }
+    for (RecordEvaluationResultDetails detail : result.getDetails()) {
+      EvaluationType evaluationType = detail.getEvaluationType();
+      innerImpl.count(evaluationType);
+      //fast path, nothing else to do once the sample is full
+      if (!innerImpl.isSampleFull(evaluationType)) {
+        sample(result, detail);
+      }
+    }
+  }
+
+  private void sample(RecordEvaluationResult result, RecordEvaluationResultDetails detail) {
+    innerImpl.computeSampling(detail.getEvaluationType(), (type, currSample) -> {
+      if (currSample.size() < maxNumberOfSample) {
+        String key = detail.computeInputValuesKey();
+        if (!currSample.containsKey(key)) {
+          currSample.put(key, toValidationResultDetails(result, detail));
+          if(result.getLineNumber() != null && result.getVerbatimData() != null) {
+            innerImpl.putVerbatimRecord(result.getLineNumber(), result.getVerbatimData());
+          }
+        } else if (innerImpl.getNonDistinctSize(type) < maxNumberOfSample - 1) {
+          //at least one distinct element is always part of the sample
+          innerImpl.putNonDistinct(type, toValidationResultDetails(result, detail));
+        }
+      }
+      if (currSample.size() >= maxNumberOfSample) {
+        innerImpl.setSampleFull(type);
+      }
+      return currSample;
+    });
   }
 
   /**
    * Internal interface that defined the behavior of an internal RecordEvaluationResultCollector.
    */
   private interface InnerRecordEvaluationResultCollector extends Serializable {
-    void countAndPrepare(EvaluationType type);
+    void count(EvaluationType type);
+    boolean isSampleFull(EvaluationType type);
+    void setSampleFull(EvaluationType type);
+    /**
+     * Apply the samplingFunction on the sample of the type, an empty sample is created if required.
+     */
     void computeSampling(EvaluationType type, BiFunction<EvaluationType, Map<String, ValidationResultDetails>,
             Map<String, ValidationResultDetails>> samplingFunction);
+    int getNonDistinctSize(EvaluationType type);
     void putNonDistinct(EvaluationType type, ValidationResultDetails validationResultDetails);
     void putVerbatimRecord(Long recordNumber, Map<Term, String> verbatimRecord);
 
@@ -90,37 +113,52 @@ public class RecordEvaluationResultCollector implements ResultsCollector, Serial
    * InnerRecordEvaluationResultCollector implementation with support for single-thread access.
    */
   private static class RecordEvaluationResultCollectorSingleThread implements InnerRecordEvaluationResultCollector {
-    private final Map<EvaluationType, Long> issueCounter;
+    //indexed by EvaluationType ordinal
+    private final long[] issueCounter;
+    private final boolean[] sampleFull;
     private final Map<EvaluationType, Map<String, ValidationResultDetails>> issueSampling;
     private final Map<EvaluationType, Collection<ValidationResultDetails>> nonDistinctSample;
     private final Map<Long, Map<Term, String>> fullRecordSample;
 
     RecordEvaluationResultCollectorSingleThread() {
-      issueCounter = new EnumMap<>(EvaluationType.class);
+      issueCounter = new long[EvaluationType.values().length];
+      sampleFull = new boolean[EvaluationType.values().length];
       issueSampling = new EnumMap<>(EvaluationType.class);
       nonDistinctSample = new EnumMap<>(EvaluationType.class);
       fullRecordSample = new HashMap<>();
     }
 
     @Override
-    public void countAndPrepare(EvaluationType type) {
-      issueCounter.compute(type, (k, v) -> (v == null) ? 1 : ++v);
-      issueSampling.putIfAbsent(type, new HashMap<>());
+    public void count(EvaluationType type) {
+      issueCounter[type.ordinal()]++;
+    }
+
+    @Override
+    public boolean isSampleFull(EvaluationType type) {
+      return sampleFull[type.ordinal()];
+    }
+
+    @Override
+    public void setSampleFull(EvaluationType type) {
+      sampleFull[type.ordinal()] = true;
     }
 
     @Override
     public void computeSampling(EvaluationType type, BiFunction<EvaluationType, Map<String, ValidationResultDetails>,
             Map<String, ValidationResultDetails>> samplingFunction) {
+      issueSampling.computeIfAbsent(type, k -> new HashMap<>());
       issueSampling.compute(type, samplingFunction);
     }
 
+    @Override
+    public int getNonDistinctSize(EvaluationType type) {
+      Collection<ValidationResultDetails> nonDistinct = nonDistinctSample.get(type);
+      return nonDistinct == null ? 0 : nonDistinct.size();
+    }
+
     @Override
     public void putNonDistinct(EvaluationType type, ValidationResultDetails validationResultDetails) {
-      nonDistinctSample.putIfAbsent(type, new ArrayList<>());
-      nonDistinctSample.compute(type, (k, l) -> {
-        l.add(validationResultDetails);
-        return l;
-      });
+      nonDistinctSample.computeIfAbsent(type, k -> new ArrayList<>()).add(validationResultDetails);
     }
 
     @Override
@@ -141,8 +179,13 @@ public class RecordEvaluationResultCollector implements ResultsCollector, Serial
 
     @Override
     public Map<EvaluationType, Long> getAggregatedCounts() {
-      return issueCounter.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
-              Map.Entry::getValue));
+      Map<EvaluationType, Long> aggregatedCounts = new EnumMap<>(EvaluationType.class);
+      for (EvaluationType type : EvaluationType.values()) {
+        if (issueCounter[type.ordinal()] > 0) {
+          aggregatedCounts.put(type, issueCounter[type.ordinal()]);
+        }
+      }
+      return aggregatedCounts;
     }
 
     /**
@@ -159,37 +202,56 @@ public class RecordEvaluationResultCollector implements ResultsCollector, Serial
    * InnerRecordEvaluationResultCollector implementation with support for concurrent access.
    */
   private static class RecordEvaluationResultCollectorConcurrent implements InnerRecordEvaluationResultCollector {
-    private final Map<EvaluationType, LongAdder> issueCounter;
+    //indexed by EvaluationType ordinal
+    private final LongAdder[] issueCounter;
+    private final AtomicIntegerArray sampleFull;
     private final Map<EvaluationType, Map<String, ValidationResultDetails>> issueSampling;
     private final Map<EvaluationType, Collection<ValidationResultDetails>> nonDistinctSample;
     private final Map<Long, Map<Term, String>> fullRecordSample;
 
     RecordEvaluationResultCollectorConcurrent() {
-      issueCounter = new ConcurrentHashMap<>(EvaluationType.values().length);
+      issueCounter = new LongAdder[EvaluationType.values().length];
+      for (int i = 0; i < issueCounter.length; i++) {
+        issueCounter[i] = new LongAdder();
+      }
+      sampleFull = new AtomicIntegerArray(EvaluationType.values().length);
       issueSampling = new ConcurrentHashMap<>(EvaluationType.values().length);
       nonDistinctSample = new ConcurrentHashMap<>(EvaluationType.values().length);
       fullRecordSample = new ConcurrentHashMap<>();
     }
 
     @Override
-    public void countAndPrepare(EvaluationType type) {
-      issueCounter.computeIfAbsent(type, k -> new LongAdder()).increment();
-      issueSampling.putIfAbsent(type, new ConcurrentHashMap<>());
+    public void count(EvaluationType type) {
+      issueCounter[type.ordinal()].increment();
+    }
+
+    @Override
+    public boolean isSampleFull(EvaluationType type) {
+      return sampleFull.get(type.ordinal()) != 0;
+    }
+
+    @Override
+    public void setSampleFull(EvaluationType type) {
+      sampleFull.set(type.ordinal(), 1);
     }
 
     @Override
     public void computeSampling(EvaluationType type, BiFunction<EvaluationType, Map<String,ValidationResultDetails>,
             Map<String,ValidationResultDetails>> samplingFunction) {
+      issueSampling.computeIfAbsent(type, k -> new ConcurrentHashMap<>());
       issueSampling.compute(type, samplingFunction);
     }
 
+    @Override
+    public int getNonDistinctSize(EvaluationType type) {
+      //only called from the samplingFunction so the size can not change concurrently for this type
+      Collection<ValidationResultDetails> nonDistinct = nonDistinctSample.get(type);
+      return nonDistinct == null ? 0 : nonDistinct.size();
+    }
+
     @Override
     public void putNonDistinct(EvaluationType type, ValidationResultDetails validationResultDetails) {
-      nonDistinctSample.putIfAbsent(type, new ConcurrentLinkedQueue<>());
-      nonDistinctSample.compute(type, (k, l) -> {
-        l.add(validationResultDetails);
-        return l;
-      });
+      nonDistinctSample.computeIfAbsent(type, k -> new ConcurrentLinkedQueue<>()).add(validationResultDetails);
     }
 
     @Override
@@ -207,9 +269,14 @@ public class RecordEvaluationResultCollector implements ResultsCollector, Serial
      */
     @Override
     public Map<EvaluationType, Long> getAggregatedCounts() {
-      return issueCounter.entrySet().stream()
-              .collect(Collectors.toMap(Map.Entry::getKey,
-              rec -> rec.getValue().longValue()));
+      Map<EvaluationType, Long> aggregatedCounts = new EnumMap<>(EvaluationType.class);
+      for (EvaluationType type : EvaluationType.values()) {
+        long count = issueCounter[type.ordinal()].sum();
+        if (count > 0) {
+          aggregatedCounts.put(type, count);
+        }
+      }
+      return aggregatedCounts;
     }
 
     /**
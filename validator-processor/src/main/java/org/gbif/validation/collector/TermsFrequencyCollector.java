@@ -8,17 +8,18 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.StringUtils;
 
 /**
  * Simple collector for terms frequency based on raw data.
+ * Counts are kept per column position and only turned into a Map when requested.
  */
 public class TermsFrequencyCollector implements RecordMetricsCollector, Serializable {
 
   private final Term[] columnHeaders;
-  private final Map<Term, Long> termFrequencyCounter;
+  private final boolean useConcurrentMap;
+  private final IndexedCounters columnCounters;
 
   /**
    *
@@ -28,18 +29,33 @@ public class TermsFrequencyCollector implements RecordMetricsCollector, Serializ
   public TermsFrequencyCollector(List<Term> terms, boolean useConcurrentMap) {
     Objects.requireNonNull(terms, "columnHeaders must not be null");
     columnHeaders = terms.toArray(new Term[terms.size()]);
-    termFrequencyCounter = CollectorUtils.getZeroTermFrequency(columnHeaders, useConcurrentMap);
+    this.useConcurrentMap = useConcurrentMap;
+    columnCounters = new IndexedCounters(columnHeaders.length, useConcurrentMap);
   }
 
   @Override
   public void collect(List<String> recordData) {
-    IntStream.range(0, Math.min(recordData.size(), columnHeaders.length))
-      .filter(i -> columnHeaders[i] != null && StringUtils.isNotBlank(recordData.get(i)))
-      .forEach(i -> termFrequencyCounter.compute(columnHeaders[i], (k, v) -> ++v));
+    int numOfColumns = Math.min(recordData.size(), columnHeaders.length);
+    for (int i = 0; i < numOfColumns; i++) {
+      if (columnHeaders[i] != null && StringUtils.isNotBlank(recordData.get(i))) {
+        columnCounters.increment(i);
+      }
+    }
   }
 
+  /**
+   * Get the frequency of each term. Columns mapped to the same term are summed.
+   *
+   * @return new Map of term frequencies
+   */
   @Override
   public Map<Term, Long> getTermFrequency() {
-    return termFrequencyCounter;
+    Map<Term, Long> termFrequency = CollectorUtils.getZeroTermFrequency(columnHeaders, useConcurrentMap);
+    for (int i = 0; i < columnHeaders.length; i++) {
+      if (columnHeaders[i] != null) {
+        termFrequency.merge(columnHeaders[i], columnCounters.get(i), Long::sum);
+      }
+    }
+    return termFrequency;
   }
 }
@@ -3,6 +3,7 @@ package org.gbif.validation.conf;
 import org.gbif.checklistbank.cli.normalizer.NormalizerConfiguration;
 
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Optional;
 
 /**
@@ -20,6 +21,18 @@ public class ValidatorConfiguration {
   private final String gangliaHost;
   private final Integer gangliaPort;
 
+  private final Integer geocodeCachePrecision;
+  private final Integer geocodeCacheTtlMinutes;
+
+  private final Integer lookupCacheMaxSize;
+  private final Integer lookupCacheTtlMinutes;
+  private final Path lookupCacheDirectory;
+
+  private final Path nameIndexDirectory;
+
+  private final Path countryPolygonFile;
+  private final Double countryPolygonSimplificationTolerance;
+
   //eventually we could allow to not run it for very large datasets
   private final boolean runOccurrenceInterpretation = true;
 
@@ -32,6 +45,18 @@ public class ValidatorConfiguration {
     private String gangliaHost;
     private Integer gangliaPort;
 
+    private Integer geocodeCachePrecision;
+    private Integer geocodeCacheTtlMinutes;
+
+    private Integer lookupCacheMaxSize;
+    private Integer lookupCacheTtlMinutes;
+    private Path lookupCacheDirectory;
+
+    private Path nameIndexDirectory;
+
+    private Path countryPolygonFile;
+    private Double countryPolygonSimplificationTolerance;
+
     public Builder setApiUrl(String apiUrl) {
       this.apiUrl = apiUrl;
       return this;
@@ -62,9 +87,52 @@ public class ValidatorConfiguration {
       return this;
     }
 
+    public Builder setGeocodeCachePrecision(Integer geocodeCachePrecision) {
+      this.geocodeCachePrecision = geocodeCachePrecision;
+      return this;
+    }
+
+    public Builder setGeocodeCacheTtlMinutes(Integer geocodeCacheTtlMinutes) {
+      this.geocodeCacheTtlMinutes = geocodeCacheTtlMinutes;
+      return this;
+    }
+
+    public Builder setLookupCacheMaxSize(Integer lookupCacheMaxSize) {
+      this.lookupCacheMaxSize = lookupCacheMaxSize;
+      return this;
+    }
+
+    public Builder setLookupCacheTtlMinutes(Integer lookupCacheTtlMinutes) {
+      this.lookupCacheTtlMinutes = lookupCacheTtlMinutes;
+      return this;
+    }
+
+    public Builder setLookupCacheDirectory(Path lookupCacheDirectory) {
+      this.lookupCacheDirectory = lookupCacheDirectory;
+      return this;
+    }
+
+    public Builder setNameIndexDirectory(Path nameIndexDirectory) {
+      this.nameIndexDirectory = nameIndexDirectory;
+      return this;
+    }
+
+    public Builder setCountryPolygonFile(Path countryPolygonFile) {
+      this.countryPolygonFile = countryPolygonFile;
+      return this;
+    }
+
+    public Builder setCountryPolygonSimplificationTolerance(Double countryPolygonSimplificationTolerance) {
+      this.countryPolygonSimplificationTolerance = countryPolygonSimplificationTolerance;
+      return this;
+    }
+
     public ValidatorConfiguration build(){
       return new ValidatorConfiguration(apiUrl, normalizerConfiguration,
-              extensionListURL, preserveTemporaryFiles , gangliaHost, gangliaPort);
+              extensionListURL, preserveTemporaryFiles , gangliaHost, gangliaPort,
+              geocodeCachePrecision, geocodeCacheTtlMinutes,
+              lookupCacheMaxSize, lookupCacheTtlMinutes, lookupCacheDirectory, nameIndexDirectory,
+              countryPolygonFile, countryPolygonSimplificationTolerance);
     }
   }
 
@@ -75,6 +143,28 @@ public class ValidatorConfiguration {
   public ValidatorConfiguration(String apiUrl, NormalizerConfiguration normalizerConfiguration,
                                 URL extensionListURL,  boolean preserveTemporaryFiles,
                                 String gangliaHost, Integer gangliaPort){
+    this(apiUrl, normalizerConfiguration, extensionListURL, preserveTemporaryFiles, gangliaHost, gangliaPort,
+            null, null, null, null, null, null);
+  }
+
+  public ValidatorConfiguration(String apiUrl, NormalizerConfiguration normalizerConfiguration,
+                                URL extensionListURL,  boolean preserveTemporaryFiles,
+                                String gangliaHost, Integer gangliaPort,
+                                Integer geocodeCachePrecision, Integer geocodeCacheTtlMinutes,
+                                Integer lookupCacheMaxSize, Integer lookupCacheTtlMinutes,
+                                Path lookupCacheDirectory){
+    this(apiUrl, normalizerConfiguration, extensionListURL, preserveTemporaryFiles, gangliaHost, gangliaPort,
+            geocodeCachePrecision, geocodeCacheTtlMinutes, lookupCacheMaxSize, lookupCacheTtlMinutes,
+            lookupCacheDirectory, null, null, null);
+  }
+
+  public ValidatorConfiguration(String apiUrl, NormalizerConfiguration normalizerConfiguration,
+                                URL extensionListURL,  boolean preserveTemporaryFiles,
+                                String gangliaHost, Integer gangliaPort,
+                                Integer geocodeCachePrecision, Integer geocodeCacheTtlMinutes,
+                                Integer lookupCacheMaxSize, Integer lookupCacheTtlMinutes,
+                                Path lookupCacheDirectory, Path nameIndexDirectory,
+                                Path countryPolygonFile, Double countryPolygonSimplificationTolerance){
     this.apiUrl = apiUrl;
     this.normalizerConfiguration = normalizerConfiguration;
     this.extensionListURL = extensionListURL;
@@ -82,6 +172,18 @@ public class ValidatorConfiguration {
 
     this.gangliaHost = gangliaHost;
     this.gangliaPort = gangliaPort;
+
+    this.geocodeCachePrecision = geocodeCachePrecision;
+    this.geocodeCacheTtlMinutes = geocodeCacheTtlMinutes;
+
+    this.lookupCacheMaxSize = lookupCacheMaxSize;
+    this.lookupCacheTtlMinutes = lookupCacheTtlMinutes;
+    this.lookupCacheDirectory = lookupCacheDirectory;
+
+    this.nameIndexDirectory = nameIndexDirectory;
+
+    this.countryPolygonFile = countryPolygonFile;
+    this.countryPolygonSimplificationTolerance = countryPolygonSimplificationTolerance;
   }
 
   public String getApiUrl() {
@@ -117,4 +219,73 @@ public class ValidatorConfiguration {
   public Optional<Integer> getGangliaPort() {
     return Optional.ofNullable(gangliaPort);
   }
+
+  /**
+   * Number of decimals of the latitude and longitude used to cache the reverse geocode lookups.
+   * Coordinate interpretations are always cached by the values as provided. If not provided, the reverse geocode
+   * lookups are not cached on their own.
+   * @return
+   */
+  public Optional<Integer> getGeocodeCachePrecision() {
+    return Optional.ofNullable(geocodeCachePrecision);
+  }
+
+  /**
+   * Number of minutes a coordinate interpretation or a reverse geocode response is kept in the cache.
+   * If not provided, {@link #getLookupCacheTtlMinutes()} is used.
+   * @return
+   */
+  public Optional<Integer> getGeocodeCacheTtlMinutes() {
+    return Optional.ofNullable(geocodeCacheTtlMinutes);
+  }
+
+  /**
+   * Maximum number of entries kept by each lookup cache (species match, coordinate).
+   * @return
+   */
+  public Optional<Integer> getLookupCacheMaxSize() {
+    return Optional.ofNullable(lookupCacheMaxSize);
+  }
+
+  /**
+   * Number of minutes an entry is kept in the lookup caches.
+   * @return
+   */
+  public Optional<Integer> getLookupCacheTtlMinutes() {
+    return Optional.ofNullable(lookupCacheTtlMinutes);
+  }
+
+  /**
+   * Directory where the lookup caches are persisted. If not provided, the lookup caches only live in memory.
+   * @return
+   */
+  public Optional<Path> getLookupCacheDirectory() {
+    return Optional.ofNullable(lookupCacheDirectory);
+  }
+
+  /**
+   * Directory of a local name index (see LocalNameIndex) used to match names instead of the species match API.
+   * If not provided, the species match API is used.
+   * @return
+   */
+  public Optional<Path> getNameIndexDirectory() {
+    return Optional.ofNullable(nameIndexDirectory);
+  }
+
+  /**
+   * File of country polygons (see LocalCountryIndex) used to reverse geocode coordinates instead of the geocode API.
+   * If not provided, the geocode API is used.
+   * @return
+   */
+  public Optional<Path> getCountryPolygonFile() {
+    return Optional.ofNullable(countryPolygonFile);
+  }
+
+  /**
+   * Distance tolerance (in degrees) used to simplify the country polygons. If not provided, they are not simplified.
+   * @return
+   */
+  public Optional<Double> getCountryPolygonSimplificationTolerance() {
+    return Optional.ofNullable(countryPolygonSimplificationTolerance);
+  }
 }
@@ -0,0 +1,123 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.Country;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+import org.gbif.occurrence.processor.interpreting.CoordinateInterpreter;
+import org.gbif.occurrence.processor.interpreting.result.CoordinateResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+import com.sun.jersey.api.client.WebResource;
+import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.node.ObjectNode;
+
+/**
+ * {@link CoordinateInterpreter} memoizing the interpretation (including the reverse geocode lookup) of each
+ * combination of latitude, longitude, datum and country.
+ *
+ * Results are kept in a {@link LookupCache} keyed by the trimmed values, so a cached result is only shared by records
+ * with the same coordinates. Failed interpretations are not cached. To share the reverse geocode lookups of nearby
+ * coordinates, see {@link CachingGeocodeClientHandler}.
+ *
+ * Interpretations go through a {@link RemoteCallGuard} protecting the reverse geocode API: when it is overloaded or
+ * unavailable the interpretation is skipped and reported as {@link OccurrenceIssue#INTERPRETATION_ERROR}.
+ * Interpretations failing because of the API (see {@link RemoteInterpretationResults#isRemoteError}) are reported to
+ * the guard as failures. No guard is used when the reverse geocode is answered locally.
+ *
+ * The same {@link LookupCache} can be shared by multiple instances, so by all the jobs. Hits and misses of each
+ * instance are counted, see {@link #getJobMetrics()}.
+ */
+class CachingCoordinateInterpreter extends CoordinateInterpreter {
+
+  static final String CACHE_NAME = "coordinate";
+  //cache of the interpretations using the local reverse geocode
+  static final String LOCAL_CACHE_NAME = "coordinate-local";
+
+  private static final String LATITUDE_FIELD = "latitude";
+  private static final String LONGITUDE_FIELD = "longitude";
+  private static final String COUNTRY_FIELD = "country";
+
+  static final LookupCache.Codec<OccurrenceParseResult<CoordinateResult>> CODEC =
+          new OccurrenceParseResultCodec<CoordinateResult>() {
+            @Override
+            JsonNode encodePayload(CoordinateResult payload) {
+              ObjectNode node = MAPPER.createObjectNode();
+              if (payload.getLatitude() != null) {
+                node.put(LATITUDE_FIELD, payload.getLatitude());
+              }
+              if (payload.getLongitude() != null) {
+                node.put(LONGITUDE_FIELD, payload.getLongitude());
+              }
+              if (payload.getCountry() != null) {
+                node.put(COUNTRY_FIELD, payload.getCountry().name());
+              }
+              return node;
+            }
+
+            @Override
+            CoordinateResult decodePayload(JsonNode payload) {
+              JsonNode country = payload.get(COUNTRY_FIELD);
+              return new CoordinateResult(decimalOrNull(payload.get(LATITUDE_FIELD)),
+                      decimalOrNull(payload.get(LONGITUDE_FIELD)),
+                      country == null ? null : Country.valueOf(country.getTextValue()));
+            }
+          };
+
+  private final JobLookupCache<OccurrenceParseResult<CoordinateResult>> cache;
+  private final RemoteCallGuard guard;
+
+  /**
+   *
+   * @param apiBaseWs base {@link WebResource} of the API
+   * @param cache cache of the interpretations
+   * @param guard guard of the reverse geocode API, null if the reverse geocode is local
+   */
+  CachingCoordinateInterpreter(WebResource apiBaseWs, LookupCache<OccurrenceParseResult<CoordinateResult>> cache,
+                               @Nullable RemoteCallGuard guard) {
+    super(apiBaseWs);
+    Objects.requireNonNull(cache, "cache shall be provided");
+    this.cache = new JobLookupCache<>(cache);
+    this.guard = guard;
+  }
+
+  @Override
+  public OccurrenceParseResult<CoordinateResult> interpretCoordinate(String latitude, String longitude,
+                                                                     String datum, Country country) {
+    List<String> key = Arrays.asList(StringUtils.trimToNull(latitude), StringUtils.trimToNull(longitude),
+            StringUtils.trimToNull(datum), country == null ? null : country.name());
+    if (guard == null) {
+      return cache.get(key, () -> interpretCoordinateUncached(latitude, longitude, datum, country),
+              ParseResult::isSuccessful);
+    }
+    return cache.get(key, () -> guard.call(() -> interpretCoordinateUncached(latitude, longitude, datum, country),
+            RemoteInterpretationResults::isRemoteError,
+            RemoteInterpretationResults::skipped), ParseResult::isSuccessful);
+  }
+
+  /**
+   * Interpret the coordinates using the reverse geocode API, called on cache misses.
+   */
+  OccurrenceParseResult<CoordinateResult> interpretCoordinateUncached(String latitude, String longitude,
+                                                                      String datum, Country country) {
+    return super.interpretCoordinate(latitude, longitude, datum, country);
+  }
+
+  /**
+   * Get the hits and misses of the lookups of this instance.
+   *
+   * @return
+   */
+  LookupCacheMetrics getJobMetrics() {
+    return cache.getMetrics();
+  }
+
+  private static Double decimalOrNull(JsonNode node) {
+    return node == null ? null : node.getDoubleValue();
+  }
+}
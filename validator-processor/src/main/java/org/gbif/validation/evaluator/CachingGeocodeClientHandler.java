@@ -0,0 +1,134 @@
+package org.gbif.validation.evaluator;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import javax.annotation.Nullable;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import com.google.common.base.Preconditions;
+import com.sun.jersey.api.client.ClientHandler;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.TerminatingClientHandler;
+import com.sun.jersey.api.uri.UriComponent;
+import com.sun.jersey.core.header.InBoundHeaders;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Jersey client handler caching the reverse geocode responses (geocode/reverse?lat=&lng=) of another
+ * {@link ClientHandler} by the latitude and longitude rounded to a number of decimals.
+ *
+ * Only the countries found at the coordinates are shared by the requests falling in the same cell: the
+ * {@link org.gbif.occurrence.processor.interpreting.CoordinateInterpreter} still interprets each record from its own
+ * coordinates. Only successful responses are cached, any other request is forwarded as it is.
+ */
+class CachingGeocodeClientHandler extends TerminatingClientHandler {
+
+  static final String CACHE_NAME = "reverse-geocode";
+  //cache of the responses of the local reverse geocode
+  static final String LOCAL_CACHE_NAME = "reverse-geocode-local";
+
+  //responses are kept as received
+  static final LookupCache.Codec<String> CODEC = new LookupCache.Codec<String>() {
+    @Override
+    public String encode(String value) {
+      return value;
+    }
+
+    @Override
+    public String decode(String value) {
+      return value;
+    }
+  };
+
+  private final ClientHandler delegate;
+  private final LookupCache<String> cache;
+  private final int precision;
+
+  /**
+   *
+   * @param delegate handler answering the requests missing the cache
+   * @param cache cache of the reverse geocode responses
+   * @param precision number of decimals used to build the key from the latitude and longitude
+   */
+  CachingGeocodeClientHandler(ClientHandler delegate, LookupCache<String> cache, int precision) {
+    Objects.requireNonNull(delegate, "delegate shall be provided");
+    Objects.requireNonNull(cache, "cache shall be provided");
+    Preconditions.checkArgument(precision >= 0, "precision can not be negative");
+    this.delegate = delegate;
+    this.cache = cache;
+    this.precision = precision;
+  }
+
+  @Override
+  public ClientResponse handle(ClientRequest request) throws ClientHandlerException {
+    URI uri = request.getURI();
+    if (!HttpMethod.GET.equals(request.getMethod()) || uri.getPath() == null ||
+        !uri.getPath().endsWith(LocalGeocodeClientHandler.REVERSE_GEOCODE_PATH)) {
+      return delegate.handle(request);
+    }
+
+    MultivaluedMap<String, String> params = UriComponent.decodeQuery(uri, true);
+    String latitude = toKey(params.getFirst("lat"));
+    String longitude = toKey(params.getFirst("lng"));
+    if (latitude == null || longitude == null) {
+      return delegate.handle(request);
+    }
+
+    //response of this request if it failed, concurrent requests of the same cell get a failure without it
+    ClientResponse[] failedResponse = new ClientResponse[1];
+    String locations = cache.get(Arrays.asList(latitude, longitude), () -> {
+      ClientResponse response = delegate.handle(request);
+      if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+        failedResponse[0] = response;
+        return null;
+      }
+      return response.getEntity(String.class);
+    }, Objects::nonNull);
+
+    if (locations != null) {
+      return response(Response.Status.OK, locations.getBytes(StandardCharsets.UTF_8));
+    }
+    return failedResponse[0] != null ? failedResponse[0] : response(Response.Status.SERVICE_UNAVAILABLE, null);
+  }
+
+  /**
+   * Get the key representation of a latitude or longitude.
+   *
+   * @return the rounded value or null if the value can not be parsed
+   */
+  @Nullable
+  private String toKey(@Nullable String value) {
+    String trimmed = StringUtils.trimToNull(value);
+    if (trimmed == null) {
+      return null;
+    }
+    try {
+      return new BigDecimal(trimmed).setScale(precision, RoundingMode.HALF_UP).toPlainString();
+    } catch (NumberFormatException nfEx) {
+      return null;
+    }
+  }
+
+  private ClientResponse response(Response.Status status, @Nullable byte[] entity) {
+    InBoundHeaders headers = new InBoundHeaders();
+    if (entity != null) {
+      headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(MediaType.APPLICATION_JSON));
+    }
+    InputStream entityStream = new ByteArrayInputStream(entity != null ? entity :
+            status.getReasonPhrase().getBytes(StandardCharsets.UTF_8));
+    return new ClientResponse(status.getStatusCode(), headers, entityStream, getMessageBodyWorkers());
+  }
+}
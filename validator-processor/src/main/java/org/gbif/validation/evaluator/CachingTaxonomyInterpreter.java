@@ -0,0 +1,107 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+import org.gbif.occurrence.processor.interpreting.TaxonomyInterpreter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.sun.jersey.api.client.WebResource;
+import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.JsonNode;
+
+/**
+ * {@link TaxonomyInterpreter} memoizing the species match of each classification.
+ *
+ * Matches are kept in a {@link LookupCache} keyed by the classification with trimmed and whitespace normalized
+ * values. Concurrent lookups of the same classification only trigger one call to the species match API.
+ * Failed matches are not cached.
+ *
+ * Calls to the species match API go through a {@link RemoteCallGuard}: when the API is overloaded or unavailable the
+ * match is skipped and reported as {@link OccurrenceIssue#INTERPRETATION_ERROR}. Matches failing because of the API
+ * (see {@link RemoteInterpretationResults#isRemoteError}) are reported to the guard as failures.
+ *
+ * The same {@link LookupCache} can be shared by multiple instances, so by all the jobs. Hits and misses of each
+ * instance are counted, see {@link #getJobMetrics()}.
+ */
+class CachingTaxonomyInterpreter extends TaxonomyInterpreter {
+
+  static final String CACHE_NAME = "species-match";
+
+  static final LookupCache.Codec<OccurrenceParseResult<NameUsageMatch>> CODEC =
+          new OccurrenceParseResultCodec<NameUsageMatch>() {
+            @Override
+            JsonNode encodePayload(NameUsageMatch payload) {
+              return MAPPER.valueToTree(payload);
+            }
+
+            @Override
+            NameUsageMatch decodePayload(JsonNode payload) throws IOException {
+              return MAPPER.treeToValue(payload, NameUsageMatch.class);
+            }
+          };
+
+  private final JobLookupCache<OccurrenceParseResult<NameUsageMatch>> cache;
+  private final RemoteCallGuard guard;
+
+  /**
+   *
+   * @param apiBaseWs base {@link WebResource} of the API
+   * @param cache cache of the species matches
+   * @param guard guard of the species match API
+   */
+  CachingTaxonomyInterpreter(WebResource apiBaseWs, LookupCache<OccurrenceParseResult<NameUsageMatch>> cache,
+                             RemoteCallGuard guard) {
+    super(apiBaseWs);
+    Objects.requireNonNull(cache, "cache shall be provided");
+    Objects.requireNonNull(guard, "guard shall be provided");
+    this.cache = new JobLookupCache<>(cache);
+    this.guard = guard;
+  }
+
+  @Override
+  public OccurrenceParseResult<NameUsageMatch> match(String kingdom, String phylum, String clazz, String order,
+                                                     String family, String genus, String scientificName,
+                                                     String authorship, String genericName, String specificEpithet,
+                                                     String infraspecificEpithet, Rank rank) {
+    List<String> key = Arrays.asList(normalize(kingdom), normalize(phylum), normalize(clazz), normalize(order),
+            normalize(family), normalize(genus), normalize(scientificName), normalize(authorship),
+            normalize(genericName), normalize(specificEpithet), normalize(infraspecificEpithet),
+            rank == null ? null : rank.name());
+
+    return cache.get(key, () -> guard.call(() -> matchUncached(kingdom, phylum, clazz, order, family, genus,
+            scientificName, authorship, genericName, specificEpithet, infraspecificEpithet, rank),
+            RemoteInterpretationResults::isRemoteError,
+            RemoteInterpretationResults::skipped), ParseResult::isSuccessful);
+  }
+
+  /**
+   * Match a classification using the species match API, called on cache misses.
+   */
+  OccurrenceParseResult<NameUsageMatch> matchUncached(String kingdom, String phylum, String clazz, String order,
+                                                      String family, String genus, String scientificName,
+                                                      String authorship, String genericName, String specificEpithet,
+                                                      String infraspecificEpithet, Rank rank) {
+    return super.match(kingdom, phylum, clazz, order, family, genus, scientificName, authorship, genericName,
+            specificEpithet, infraspecificEpithet, rank);
+  }
+
+  /**
+   * Get the hits and misses of the lookups of this instance.
+   *
+   * @return
+   */
+  LookupCacheMetrics getJobMetrics() {
+    return cache.getMetrics();
+  }
+
+  private static String normalize(String value) {
+    return StringUtils.trimToNull(StringUtils.normalizeSpace(value));
+  }
+}
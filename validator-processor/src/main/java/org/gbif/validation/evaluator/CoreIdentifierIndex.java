@@ -0,0 +1,477 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.validation.api.DwcDataFile;
+import org.gbif.validation.api.RecordSource;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.source.RecordSourceFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the identifiers of the core {@link TabularDataFile} of a {@link DwcDataFile}.
+ *
+ * The core is read once and the values of its record identifier and occurrenceID (if present) columns are extracted
+ * into a binary side file of (id, occurrenceID) tuples so the core uniqueness, occurrenceID uniqueness and referential
+ * integrity checks can all be served without reading the core again.
+ * Records with an empty id are collected while reading the core.
+ *
+ * For referential integrity checks, a sorted array of the 32-bit fingerprints of the ids, each packed with the number
+ * of its record, is built from the side file on first request and shared by all the {@link IdLookup}. A lookup only
+ * compares the actual id when the fingerprint matches. When the core is too large for the fingerprints, the ids are
+ * sorted externally on first request and the sorted run is shared by all the extensions merged against it.
+ *
+ * The core is read on the first call requiring the index. This class is thread-safe so the evaluators running
+ * concurrently on the same {@link DwcDataFile} can share the same instance. {@link #close()} deletes the side files.
+ */
+class CoreIdentifierIndex implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CoreIdentifierIndex.class);
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final HashFunction FINGERPRINT_FUNCTION = Hashing.murmur3_32();
+
+  static final int ID_COLUMN_INDEX = 0;
+  static final int OCCURRENCE_ID_COLUMN_INDEX = 1;
+
+  private final TabularDataFile coreDataFile;
+  private final Path workingFolder;
+  private final int idColumnIndex;
+  private final OptionalInt occurrenceIdColumnIndex;
+
+  private Path tuplesFile;
+  private Path sortedIdsFile;
+  private List<String[]> emptyIds;
+  private int numOfRecords;
+
+  //sorted fingerprints of the ids packed with the record index, see #pack(int, int)
+  private long[] idFingerprints;
+  //offset of the id in the tuples file, by record index
+  private long[] idOffsets;
+
+  /**
+   *
+   * @param coreDataFile core {@link TabularDataFile}, it shall have a record identifier
+   * @param workingFolder folder where the side files will be written
+   */
+  CoreIdentifierIndex(TabularDataFile coreDataFile, Path workingFolder) {
+    Objects.requireNonNull(coreDataFile, "coreDataFile shall be provided");
+    Objects.requireNonNull(workingFolder, "workingFolder shall be provided");
+    Preconditions.checkArgument(coreDataFile.getRecordIdentifier().isPresent(),
+            "coreDataFile shall have a record identifier");
+
+    this.coreDataFile = coreDataFile;
+    this.workingFolder = workingFolder;
+    this.idColumnIndex = coreDataFile.getRecordIdentifier().get().getIndex();
+    this.occurrenceIdColumnIndex = coreDataFile.getIndexOf(DwcTerm.occurrenceID);
+  }
+
+  TabularDataFile getCoreDataFile() {
+    return coreDataFile;
+  }
+
+  /**
+   *
+   * @return the core contains an occurrenceID column
+   */
+  boolean hasOccurrenceId() {
+    return occurrenceIdColumnIndex.isPresent();
+  }
+
+  /**
+   * Get a new {@link RecordSource} on the (id, occurrenceID) tuples of the core, in the order of the core.
+   * See {@link #ID_COLUMN_INDEX} and {@link #OCCURRENCE_ID_COLUMN_INDEX}. The occurrenceID is an empty string if the
+   * core doesn't contain an occurrenceID column.
+   *
+   * @return new {@link RecordSource}, the caller is responsible to close it
+   *
+   * @throws IOException
+   */
+  RecordSource newRecordSource() throws IOException {
+    ensureIndexed();
+    return new TupleRecordSource(tuplesFile);
+  }
+
+  /**
+   *
+   * @return number of records in the core
+   *
+   * @throws IOException
+   */
+  int getNumOfRecords() throws IOException {
+    ensureIndexed();
+    return numOfRecords;
+  }
+
+  /**
+   * Get a new {@link IdLookup} to check if ids are in the core.
+   * The fingerprints are computed on the first call and shared by all {@link IdLookup}.
+   *
+   * @return new {@link IdLookup}, the caller is responsible to close it
+   *
+   * @throws IOException
+   */
+  IdLookup newIdLookup() throws IOException {
+    ensureFingerprinted();
+    return new IdLookup(tuplesFile, idFingerprints, idOffsets);
+  }
+
+  /**
+   * Get a new {@link ExternalTupleSorter.SortedTuples} on the ids of the core sorted by value.
+   * The ids are sorted on the first call and the sorted run is shared by all {@link ExternalTupleSorter.SortedTuples}.
+   *
+   * @return new {@link ExternalTupleSorter.SortedTuples}, the caller is responsible to close it
+   *
+   * @throws IOException
+   */
+  ExternalTupleSorter.SortedTuples newSortedIds() throws IOException {
+    ensureSorted();
+    return ExternalTupleSorter.readRun(sortedIdsFile);
+  }
+
+  /**
+   * Get the records of the core with an empty id as (line number, line) where the line number starts at 1 and
+   * includes the header line.
+   *
+   * @return never null
+   *
+   * @throws IOException
+   */
+  List<String[]> getEmptyIds() throws IOException {
+    ensureIndexed();
+    return emptyIds;
+  }
+
+  /**
+   * Read the core and write the side files if not already done.
+   */
+  private synchronized void ensureIndexed() throws IOException {
+    if (tuplesFile != null) {
+      return;
+    }
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    String baseName = coreDataFile.getFilePath().getFileName().toString();
+    Path newTuplesFile = workingFolder.resolve(baseName + "_id_tuples");
+    List<Long> emptyIdLineNumbers = new ArrayList<>();
+    int lineOffset = coreDataFile.isHasHeaders() ? 1 : 0;
+
+    int count = 0;
+    try (RecordSource recordSource = RecordSourceFactory.fromTabularDataFile(coreDataFile);
+         DataOutputStream tuplesOut = new DataOutputStream(
+                 new BufferedOutputStream(Files.newOutputStream(newTuplesFile), BUFFER_SIZE))) {
+      List<String> record;
+      while ((record = recordSource.read()) != null) {
+        count++;
+        String id = getValue(record, idColumnIndex);
+        String occurrenceId = occurrenceIdColumnIndex.isPresent() ?
+                getValue(record, occurrenceIdColumnIndex.getAsInt()) : "";
+
+        ExternalTupleSorter.writeString(tuplesOut, id);
+        ExternalTupleSorter.writeString(tuplesOut, occurrenceId);
+
+        if (StringUtils.isEmpty(id)) {
+          emptyIdLineNumbers.add((long) count + lineOffset);
+        }
+      }
+    }
+
+    LOG.info("Identifiers of {} records of {} indexed in {} ms", count, coreDataFile.getFilePath(),
+            stopwatch.elapsed(TimeUnit.MILLISECONDS));
+
+    numOfRecords = count;
+    emptyIds = Collections.unmodifiableList(readLines(coreDataFile, emptyIdLineNumbers));
+    tuplesFile = newTuplesFile;
+  }
+
+  /**
+   * Compute the sorted fingerprints of the ids from the tuples file if not already done.
+   */
+  private synchronized void ensureFingerprinted() throws IOException {
+    if (idFingerprints != null) {
+      return;
+    }
+    ensureIndexed();
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    long[] packedFingerprints = new long[numOfRecords];
+    long[] offsets = new long[numOfRecords];
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(tuplesFile), BUFFER_SIZE))) {
+      long offset = 0;
+      for (int i = 0; i < numOfRecords; i++) {
+        byte[] id = readBytes(in);
+        packedFingerprints[i] = pack(fingerprint(id), i);
+        offsets[i] = offset;
+        //skip the occurrenceID
+        int occurrenceIdLength = in.readInt();
+        in.readFully(new byte[occurrenceIdLength]);
+        offset += Integer.BYTES + id.length + Integer.BYTES + occurrenceIdLength;
+      }
+    }
+    Arrays.parallelSort(packedFingerprints);
+
+    LOG.info("Fingerprints of {} ids of {} computed in {} ms", numOfRecords, coreDataFile.getFilePath(),
+            stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    idOffsets = offsets;
+    idFingerprints = packedFingerprints;
+  }
+
+  /**
+   * Sort the ids from the tuples file if not already done.
+   */
+  private synchronized void ensureSorted() throws IOException {
+    if (sortedIdsFile != null) {
+      return;
+    }
+    ensureIndexed();
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    String baseName = coreDataFile.getFilePath().getFileName().toString();
+    Path newSortedIdsFile = workingFolder.resolve(baseName + "_sorted_ids");
+    ExternalTupleSorter tupleSorter = new ExternalTupleSorter(workingFolder, ExternalTupleSorter.DEFAULT_RUN_SIZE,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    try {
+      tupleSorter.sortToRun(this::newRecordSource, baseName, record -> record.get(ID_COLUMN_INDEX), record -> "",
+              newSortedIdsFile);
+    } catch (IOException ioEx) {
+      Files.deleteIfExists(newSortedIdsFile);
+      throw ioEx;
+    }
+
+    LOG.info("Ids of {} records of {} sorted in {} ms", numOfRecords, coreDataFile.getFilePath(),
+            stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    sortedIdsFile = newSortedIdsFile;
+  }
+
+  /**
+   * Delete the side files, the index shall not be used once closed.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      if (sortedIdsFile != null) {
+        Files.deleteIfExists(sortedIdsFile);
+      }
+    } finally {
+      if (tuplesFile != null) {
+        Files.deleteIfExists(tuplesFile);
+      }
+    }
+  }
+
+  private static int fingerprint(byte[] utf8Bytes) {
+    return FINGERPRINT_FUNCTION.hashBytes(utf8Bytes).asInt();
+  }
+
+  /**
+   * Pack a fingerprint in the high bits and a record index in the low bits so sorting the packed values sorts by
+   * fingerprint and keeps track of the record.
+   */
+  private static long pack(int fingerprint, int recordIndex) {
+    return (long) fingerprint << Integer.SIZE | recordIndex;
+  }
+
+  private static int fingerprintOf(long packed) {
+    return (int) (packed >>> Integer.SIZE);
+  }
+
+  private static int recordIndexOf(long packed) {
+    return (int) packed;
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Read the text of some lines of a {@link TabularDataFile}, as the command based evaluation reports them.
+   * Lines are only split on {@link org.gbif.validation.util.FileNormalizer#END_LINE} since the file is normalized.
+   *
+   * @param dataFile
+   * @param lineNumbers ascending line numbers, starting at 1 and including the header line
+   *
+   * @return (line number, line) in the order of lineNumbers
+   *
+   * @throws IOException
+   */
+  static List<String[]> readLines(TabularDataFile dataFile, List<Long> lineNumbers) throws IOException {
+    List<String[]> lines = new ArrayList<>(lineNumbers.size());
+    if (lineNumbers.isEmpty()) {
+      return lines;
+    }
+
+    Iterator<Long> lineNumberIt = lineNumbers.iterator();
+    long wantedLineNumber = lineNumberIt.next();
+    try (BufferedReader reader = Files.newBufferedReader(dataFile.getFilePath(), dataFile.getCharacterEncoding())) {
+      StringBuilder line = new StringBuilder();
+      long lineNumber = 1;
+      int c;
+      while ((c = reader.read()) != -1) {
+        if (c != '\n') {
+          if (lineNumber == wantedLineNumber) {
+            line.append((char) c);
+          }
+          continue;
+        }
+        if (lineNumber == wantedLineNumber) {
+          lines.add(new String[]{Long.toString(lineNumber), line.toString()});
+          line.setLength(0);
+          if (!lineNumberIt.hasNext()) {
+            return lines;
+          }
+          wantedLineNumber = lineNumberIt.next();
+        }
+        lineNumber++;
+      }
+      //last line without line separator
+      if (lineNumber == wantedLineNumber) {
+        lines.add(new String[]{Long.toString(lineNumber), line.toString()});
+      }
+    }
+    return lines;
+  }
+
+  private static String getValue(List<String> record, int index) {
+    if (index >= record.size() || record.get(index) == null) {
+      return "";
+    }
+    return record.get(index);
+  }
+
+  /**
+   * Checks if ids are in the core.
+   * The packed fingerprints are shared, each {@link IdLookup} has its own channel on the tuples file to confirm
+   * matches.
+   * This class is NOT thread-safe.
+   */
+  static class IdLookup implements Closeable {
+
+    private final FileChannel tuplesChannel;
+    private final long[] packedFingerprints;
+    private final long[] offsets;
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+
+    private IdLookup(Path tuplesFile, long[] packedFingerprints, long[] offsets) throws IOException {
+      this.tuplesChannel = FileChannel.open(tuplesFile, StandardOpenOption.READ);
+      this.packedFingerprints = packedFingerprints;
+      this.offsets = offsets;
+    }
+
+    /**
+     *
+     * @param id
+     *
+     * @return the id is in the core
+     *
+     * @throws IOException
+     */
+    boolean contains(String id) throws IOException {
+      byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+      int fingerprint = fingerprint(idBytes);
+      //record indexes are unique so an exact match can only be the first entry with the same fingerprint
+      int idx = Arrays.binarySearch(packedFingerprints, pack(fingerprint, 0));
+      if (idx < 0) {
+        idx = -idx - 1;
+      }
+      for (; idx < packedFingerprints.length && fingerprintOf(packedFingerprints[idx]) == fingerprint; idx++) {
+        if (Arrays.equals(idBytes, readId(offsets[recordIndexOf(packedFingerprints[idx])]))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private byte[] readId(long offset) throws IOException {
+      lengthBuffer.clear();
+      readFully(lengthBuffer, offset);
+      lengthBuffer.flip();
+      ByteBuffer idBuffer = ByteBuffer.allocate(lengthBuffer.getInt());
+      readFully(idBuffer, offset + Integer.BYTES);
+      return idBuffer.array();
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+      long pos = position;
+      while (buffer.hasRemaining()) {
+        int read = tuplesChannel.read(buffer, pos);
+        if (read < 0) {
+          throw new EOFException("Unexpected end of the tuples file at " + pos);
+        }
+        pos += read;
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      tuplesChannel.close();
+    }
+  }
+
+  /**
+   * {@link RecordSource} reading back the (id, occurrenceID) tuples.
+   */
+  private static class TupleRecordSource implements RecordSource {
+
+    private final DataInputStream in;
+
+    TupleRecordSource(Path tuplesFile) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(tuplesFile), BUFFER_SIZE));
+    }
+
+    @Nullable
+    @Override
+    public Term[] getHeaders() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public List<String> read() throws IOException {
+      String id;
+      try {
+        id = ExternalTupleSorter.readString(in);
+      } catch (EOFException eof) {
+        return null;
+      }
+      return Arrays.asList(id, ExternalTupleSorter.readString(in));
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -1,6 +1,5 @@
 package org.gbif.validation.evaluator;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 import g14.com.google.common.collect.ImmutableMap;
 import org.gbif.dwc.terms.DwcTerm;
@@ -12,10 +11,9 @@ import org.gbif.validation.api.TabularDataFile;
 import org.gbif.validation.api.model.EvaluationType;
 import org.gbif.validation.api.model.RecordEvaluationResult;
 import org.gbif.validation.api.model.RecordEvaluationResultDetails;
-import org.gbif.validation.util.FileBashUtilities;
 
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -31,14 +29,22 @@ import java.util.function.Consumer;
  */
 class DataUniquenessEvaluator implements RecordCollectionEvaluator {
 
-  private org.gbif.utils.file.FileUtils GBIF_FILE_UTILS = new org.gbif.utils.file.FileUtils();
-
-  private final Path workingFolder;
+  private final DuplicateFinder duplicateFinder;
+  private final CoreIdentifierIndex coreIdentifierIndex;
 
   public DataUniquenessEvaluator(boolean ignoreCase, Path workingFolder) {
+    this(ignoreCase, workingFolder, null);
+  }
+
+  /**
+   *
+   * @param coreIdentifierIndex if provided, used instead of reading the core
+   */
+  DataUniquenessEvaluator(boolean ignoreCase, Path workingFolder, @Nullable CoreIdentifierIndex coreIdentifierIndex) {
     Preconditions.checkArgument(!ignoreCase, "Case-insensitive check isn't yet supported.");
 
-    this.workingFolder = workingFolder;
+    this.duplicateFinder = new DuplicateFinder(workingFolder);
+    this.coreIdentifierIndex = coreIdentifierIndex;
   }
 
   @Override
@@ -50,7 +56,11 @@ class DataUniquenessEvaluator implements RecordCollectionEvaluator {
       TabularDataFile dataFile = dwcDataFile.getCore();
       OptionalInt index = dataFile.getIndexOf(DwcTerm.occurrenceID);
       if (index.isPresent()) {
-        doEvaluate(DwcTerm.occurrenceID, dataFile, resultConsumer);
+        if (coreIdentifierIndex != null && coreTypeKey.equals(coreIdentifierIndex.getCoreDataFile().getRowTypeKey())) {
+          doEvaluate(DwcTerm.occurrenceID, coreIdentifierIndex, resultConsumer);
+        } else {
+          doEvaluate(DwcTerm.occurrenceID, dataFile, resultConsumer);
+        }
       }
 
     } else if (RowTypeKey.forCore(DwcTerm.Event).equals(coreTypeKey) || RowTypeKey.forCore(DwcTerm.Taxon).equals(coreTypeKey)) {
@@ -72,17 +82,18 @@ class DataUniquenessEvaluator implements RecordCollectionEvaluator {
 
     int keyColumnIndex = dataFile.getRecordIdentifier().get().getIndex();
 
-    File sourceFile = dataFile.getFilePath().toFile();
-    File sortedFile = workingFolder.resolve(sourceFile.getName() + "_sorted").toFile();
-
-    GBIF_FILE_UTILS.sort(sourceFile, sortedFile, Charsets.UTF_8.toString(), termColumnIndex,
-            dataFile.getDelimiterChar().toString(), dataFile.getQuoteChar(), "\n", dataFile.isHasHeaders() ? 1 : 0);
-
     //FIXME doesn't support case insensitive for now
-    List<String[]> result = FileBashUtilities.findDuplicates(sortedFile.getAbsolutePath(), keyColumnIndex + 1,
-      termColumnIndex + 1, dataFile.getDelimiterChar().toString(), dataFile.getQuoteChar(), dataFile.getCharacterEncoding());
+    duplicateFinder.findDuplicates(dataFile, termColumnIndex, keyColumnIndex,
+            (id, value) -> resultConsumer.accept(buildResult(dataFile.getRowTypeKey(), uniqueTerm, id, value)));
+  }
 
-    result.forEach(rec -> resultConsumer.accept(buildResult(dataFile.getRowTypeKey(), uniqueTerm, rec[0], rec[1])));
+  private void doEvaluate(Term uniqueTerm, CoreIdentifierIndex coreIdentifierIndex,
+                          Consumer<RecordEvaluationResult> resultConsumer) throws IOException {
+    TabularDataFile dataFile = coreIdentifierIndex.getCoreDataFile();
+    duplicateFinder.findDuplicates(coreIdentifierIndex::newRecordSource, dataFile.getFilePath().getFileName().toString(),
+            coreIdentifierIndex.getNumOfRecords(), CoreIdentifierIndex.OCCURRENCE_ID_COLUMN_INDEX,
+            CoreIdentifierIndex.ID_COLUMN_INDEX,
+            (id, value) -> resultConsumer.accept(buildResult(dataFile.getRowTypeKey(), uniqueTerm, id, value)));
   }
 
   private static RecordEvaluationResult buildResult(RowTypeKey rowTypeKey, Term fieldType, String id, String nonUniqueValue){
@@ -0,0 +1,232 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.validation.api.RecordSource;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.source.RecordSourceFactory;
+import org.gbif.validation.util.IOSupplier;
+import org.gbif.validation.util.LongHashSet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds duplicated values in a column of a {@link TabularDataFile}.
+ *
+ * A {@link LongHashSet} of the 64-bit hashes of the values is tried first. Hash collisions (including real
+ * duplicates) are confirmed by a second pass limited to the values sharing a hash. If the number of distinct hashes
+ * exceeds maxHashEntries or the number of hashes seen more than once exceeds maxCandidates, the hash strategy is
+ * abandoned and the external merge sort is used instead.
+ *
+ * The external merge sort is done by an {@link ExternalTupleSorter} on the (value, id, line number) tuples, the
+ * duplicates are then streamed from the sorted tuples.
+ *
+ * For each duplicated value, every occurrence except the first one (in line order) is reported.
+ */
+class DuplicateFinder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DuplicateFinder.class);
+
+  static final int DEFAULT_RUN_SIZE = ExternalTupleSorter.DEFAULT_RUN_SIZE;
+  static final int DEFAULT_MAX_HASH_ENTRIES = 5000000;
+  //the values of the candidates are kept in memory during the second pass
+  static final int DEFAULT_MAX_CANDIDATES = 500000;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final ExternalTupleSorter tupleSorter;
+  private final int maxHashEntries;
+  private final int maxCandidates;
+
+  /**
+   * Strategy used to find the duplicates.
+   */
+  enum Strategy {
+    HASH, SORT
+  }
+
+  /**
+   *
+   * @param workingFolder folder where the runs can be written
+   */
+  DuplicateFinder(Path workingFolder) {
+    this(workingFolder, DEFAULT_RUN_SIZE, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_HASH_ENTRIES);
+  }
+
+  /**
+   *
+   * @param workingFolder folder where the runs can be written
+   * @param runSize maximum number of tuples sorted in memory at once
+   * @param numOfThreads number of runs that can be sorted at the same time
+   * @param maxHashEntries maximum number of hashes kept in memory, 0 to always use the external merge sort
+   */
+  DuplicateFinder(Path workingFolder, int runSize, int numOfThreads, int maxHashEntries) {
+    this(workingFolder, runSize, numOfThreads, maxHashEntries, DEFAULT_MAX_CANDIDATES);
+  }
+
+  /**
+   *
+   * @param workingFolder folder where the runs can be written
+   * @param runSize maximum number of tuples sorted in memory at once
+   * @param numOfThreads number of runs that can be sorted at the same time
+   * @param maxHashEntries maximum number of hashes kept in memory, 0 to always use the external merge sort
+   * @param maxCandidates maximum number of hashes seen more than once before falling back to the external merge sort
+   */
+  DuplicateFinder(Path workingFolder, int runSize, int numOfThreads, int maxHashEntries, int maxCandidates) {
+    Preconditions.checkArgument(maxHashEntries >= 0, "maxHashEntries must be positive");
+    Preconditions.checkArgument(maxCandidates >= 0, "maxCandidates must be positive");
+    this.tupleSorter = new ExternalTupleSorter(workingFolder, runSize, numOfThreads);
+    this.maxHashEntries = maxHashEntries;
+    this.maxCandidates = maxCandidates;
+  }
+
+  /**
+   * Find the duplicated values of a column.
+   *
+   * @param dataFile
+   * @param valueColumnIndex index of the column to find duplicates, starting at 0
+   * @param idColumnIndex index of the column used to identify the record, starting at 0
+   * @param duplicateConsumer receives the id and the value of each duplicate
+   *
+   * @return the {@link Strategy} used
+   *
+   * @throws IOException
+   */
+  Strategy findDuplicates(TabularDataFile dataFile, int valueColumnIndex, int idColumnIndex,
+                          BiConsumer<String, String> duplicateConsumer) throws IOException {
+    return findDuplicates(() -> RecordSourceFactory.fromTabularDataFile(dataFile),
+            dataFile.getFilePath().getFileName().toString(),
+            dataFile.getNumOfLines() == null ? 0 : dataFile.getNumOfLines(),
+            valueColumnIndex, idColumnIndex, duplicateConsumer);
+  }
+
+  /**
+   * Find the duplicated values of a column of the records returned by a {@link RecordSource}.
+   * The recordSourceSupplier can be called more than once, each {@link RecordSource} shall return the same records.
+   *
+   * @param recordSourceSupplier supplier of new {@link RecordSource}
+   * @param name name of the source, used for logging and naming the runs
+   * @param expectedNumOfRecords expected number of records, used for sizing
+   * @param valueColumnIndex index of the column to find duplicates, starting at 0
+   * @param idColumnIndex index of the column used to identify the record, starting at 0
+   * @param duplicateConsumer receives the id and the value of each duplicate
+   *
+   * @return the {@link Strategy} used
+   *
+   * @throws IOException
+   */
+  Strategy findDuplicates(IOSupplier<RecordSource> recordSourceSupplier, String name, int expectedNumOfRecords,
+                          int valueColumnIndex, int idColumnIndex,
+                          BiConsumer<String, String> duplicateConsumer) throws IOException {
+    Preconditions.checkArgument(valueColumnIndex >= 0, "Indices are starting at 0");
+    Preconditions.checkArgument(idColumnIndex >= 0, "Indices are starting at 0");
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    Strategy strategy = Strategy.SORT;
+    if (maxHashEntries > 0 && findDuplicatesUsingHashes(recordSourceSupplier, name, expectedNumOfRecords,
+            valueColumnIndex, idColumnIndex, duplicateConsumer)) {
+      strategy = Strategy.HASH;
+    } else {
+      findDuplicatesUsingSort(recordSourceSupplier, name, valueColumnIndex, idColumnIndex, duplicateConsumer);
+    }
+    LOG.info("Duplicates of column {} in {} found using {} in {} ms", valueColumnIndex, name,
+            strategy, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    return strategy;
+  }
+
+  /**
+   * Find duplicates using the hashes of the values.
+   * The first pass only collects the hashes seen more than once, nothing is reported. The second pass confirms the
+   * duplicates on the values sharing those hashes, their values are kept in memory.
+   *
+   * @return false if the number of hashes exceeded maxHashEntries or the number of candidates exceeded maxCandidates,
+   * nothing was reported in that case
+   */
+  private boolean findDuplicatesUsingHashes(IOSupplier<RecordSource> recordSourceSupplier, String name,
+                                            int expectedNumOfRecords, int valueColumnIndex, int idColumnIndex,
+                                            BiConsumer<String, String> duplicateConsumer) throws IOException {
+    LongHashSet hashes = new LongHashSet(Math.min(expectedNumOfRecords, maxHashEntries));
+    LongHashSet candidates = new LongHashSet(0);
+    try (RecordSource recordSource = recordSourceSupplier.get()) {
+      List<String> record;
+      while ((record = recordSource.read()) != null) {
+        long hash = hash(getValue(record, valueColumnIndex));
+        if (!hashes.add(hash)) {
+          if (candidates.add(hash) && candidates.size() > maxCandidates) {
+            LOG.info("More than {} duplicated values in {}, falling back to sort", maxCandidates, name);
+            return false;
+          }
+        } else if (hashes.size() > maxHashEntries) {
+          LOG.info("More than {} values in {}, falling back to sort", maxHashEntries, name);
+          return false;
+        }
+      }
+    }
+
+    if (candidates.isEmpty()) {
+      return true;
+    }
+
+    Set<String> seenValues = new HashSet<>();
+    try (RecordSource recordSource = recordSourceSupplier.get()) {
+      List<String> record;
+      while ((record = recordSource.read()) != null) {
+        String value = getValue(record, valueColumnIndex);
+        if (candidates.contains(hash(value)) && !seenValues.add(value)) {
+          duplicateConsumer.accept(getValue(record, idColumnIndex), value);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Find duplicates using an external merge sort.
+   */
+  private void findDuplicatesUsingSort(IOSupplier<RecordSource> recordSourceSupplier, String name,
+                                       int valueColumnIndex, int idColumnIndex,
+                                       BiConsumer<String, String> duplicateConsumer) throws IOException {
+    try (ExternalTupleSorter.SortedTuples sortedTuples = tupleSorter.sort(recordSourceSupplier, name,
+            record -> getValue(record, valueColumnIndex), record -> getValue(record, idColumnIndex))) {
+      emitDuplicates(sortedTuples, duplicateConsumer);
+    }
+  }
+
+  /**
+   * Report the duplicates from sorted tuples.
+   */
+  private static void emitDuplicates(ExternalTupleSorter.SortedTuples sortedTuples,
+                                     BiConsumer<String, String> duplicateConsumer) throws IOException {
+    String previousValue = null;
+    ExternalTupleSorter.Tuple tuple;
+    while ((tuple = sortedTuples.next()) != null) {
+      if (tuple.getValue().equals(previousValue)) {
+        duplicateConsumer.accept(tuple.getId(), tuple.getValue());
+      }
+      previousValue = tuple.getValue();
+    }
+  }
+
+  private static long hash(String value) {
+    return HASH_FUNCTION.hashString(value, StandardCharsets.UTF_8).asLong();
+  }
+
+  private static String getValue(List<String> record, int index) {
+    if (index >= record.size() || record.get(index) == null) {
+      return "";
+    }
+    return record.get(index);
+  }
+}
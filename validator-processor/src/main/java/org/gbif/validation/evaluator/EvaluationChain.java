@@ -14,6 +14,7 @@ import org.gbif.validation.evaluator.runner.RecordCollectionEvaluatorRunner;
 import org.gbif.validation.evaluator.runner.RecordEvaluatorRunner;
 import org.gbif.validation.util.IOFunction;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,8 +31,10 @@ import com.google.common.base.Preconditions;
 /**
  * The {@link EvaluationChain} is used to build and store the sequence of evaluation that will be performed.
  * An {@link EvaluationChain} is specific to each {@link DataFile} and they should NOT be reused.
+ * {@link #close()} shall be called once all the evaluations are completed to release the files shared by the
+ * evaluators.
  */
-public class EvaluationChain {
+public class EvaluationChain implements Closeable {
 
   private static class TargetedRecordCollectionEvaluator {
     private final RowTypeKey rowTypeKey;
@@ -72,6 +76,11 @@ public class EvaluationChain {
 
     private final EvaluatorFactory factory;
 
+    //shared by the uniqueness and referential integrity evaluators so the core is only read once
+    private CoreIdentifierIndex coreIdentifierIndex;
+    //all the CoreIdentifierIndex created, closed with the EvaluationChain
+    private final List<CoreIdentifierIndex> coreIdentifierIndexes = new CopyOnWriteArrayList<>();
+
 
     public static Builder using(DataFile dataFile, DwcDataFileSupplier dwcDataFileSupplier,
                                 EvaluatorFactory factory, Path workingFolder) {
@@ -124,7 +133,8 @@ public class EvaluationChain {
       recordCollectionEvaluatorFct.add((dwcDataFile) ->
               Collections.singletonList(
                       new TargetedRecordCollectionEvaluator(dwcDataFile.getCore().getRowTypeKey(),
-                      EvaluatorFactory.createUniquenessEvaluator(dwcDataFile.getCore().getRowTypeKey(), false, workingFolder))));
+                      EvaluatorFactory.createUniquenessEvaluator(dwcDataFile.getCore().getRowTypeKey(), false,
+                              workingFolder, getCoreIdentifierIndex(dwcDataFile)))));
       return this;
     }
 
@@ -132,7 +142,8 @@ public class EvaluationChain {
       recordCollectionEvaluatorFct.add((dwcDataFile) ->
         Collections.singletonList(
           new TargetedRecordCollectionEvaluator(dwcDataFile.getCore().getRowTypeKey(),
-            EvaluatorFactory.createDataUniquenessEvaluator(dwcDataFile.getCore().getRowTypeKey(), false, workingFolder))));
+            EvaluatorFactory.createDataUniquenessEvaluator(false, workingFolder,
+                    getCoreIdentifierIndex(dwcDataFile)))));
       return this;
     }
 
@@ -141,7 +152,8 @@ public class EvaluationChain {
         if (dwcDataFile.getExtensions().isPresent()) {
           return dwcDataFile.getExtensions().get().stream()
                   .map(df -> new TargetedRecordCollectionEvaluator(df.getRowTypeKey(),
-                          EvaluatorFactory.createReferentialIntegrityEvaluator(df.getRowTypeKey().getRowType())))
+                          EvaluatorFactory.createReferentialIntegrityEvaluator(df.getRowTypeKey().getRowType(),
+                                  workingFolder, getCoreIdentifierIndex(dwcDataFile))))
                   .collect(Collectors.toList());
         }
         return Collections.emptyList();
@@ -149,6 +161,25 @@ public class EvaluationChain {
       return this;
     }
 
+    /**
+     * Get the {@link CoreIdentifierIndex} of the core of the provided {@link DwcDataFile}, created on first call.
+     *
+     * @param dwcDataFile
+     *
+     * @return the {@link CoreIdentifierIndex} or null if the core has no record identifier
+     */
+    private synchronized CoreIdentifierIndex getCoreIdentifierIndex(DwcDataFile dwcDataFile) {
+      TabularDataFile core = dwcDataFile.getCore();
+      if (core == null || !core.getRecordIdentifier().isPresent()) {
+        return null;
+      }
+      if (coreIdentifierIndex == null || !core.equals(coreIdentifierIndex.getCoreDataFile())) {
+        coreIdentifierIndex = new CoreIdentifierIndex(core, workingFolder);
+        coreIdentifierIndexes.add(coreIdentifierIndex);
+      }
+      return coreIdentifierIndex;
+    }
+
     /**
      * Check the metadata content based on the default evaluator returned by the {@link EvaluatorFactory}.
      *
@@ -176,7 +207,8 @@ public class EvaluationChain {
 
       return new EvaluationChain(dataFile, new ResourceConstitutionEvaluationChain(dataFile, resourceStructureEvaluators,
               dwcDataFileSupplier, preRequisiteEvaluator),
-              dwcDataFileEvaluationEvaluatorFct, recordCollectionEvaluatorFct, recordEvaluatorFct);
+              dwcDataFileEvaluationEvaluatorFct, recordCollectionEvaluatorFct, recordEvaluatorFct,
+              coreIdentifierIndexes);
     }
 
   }
@@ -187,6 +219,9 @@ public class EvaluationChain {
   private final List<Function<DwcDataFile, DwcDataFileEvaluator>> dwcDataFileEvaluationEvaluatorFct;
   private final List<Function<DwcDataFile, List<TargetedRecordCollectionEvaluator>>> recordCollectionEvaluatorFct;
   private final List<Function<DwcDataFile, List<TargetedRecordEvaluator>>> recordEvaluatorFct;
+  private final List<? extends Closeable> sharedResources;
+  //record evaluators given to the RecordEvaluatorRunner
+  private final List<RecordEvaluator> runRecordEvaluators = new CopyOnWriteArrayList<>();
 
   private ResourceConstitutionEvaluationChain.ResourceConstitutionResult resourceConstitutionResult;
   private DwcDataFile dwcDataFile;
@@ -198,12 +233,14 @@ public class EvaluationChain {
   private EvaluationChain(DataFile dataFile, ResourceConstitutionEvaluationChain resourceConstitutionEvaluationChain,
                           List<Function<DwcDataFile, DwcDataFileEvaluator>> dwcDataFileEvaluationEvaluatorFct,
                           List<Function<DwcDataFile, List<TargetedRecordCollectionEvaluator>>> recordCollectionEvaluatorFct,
-                          List<Function<DwcDataFile, List<TargetedRecordEvaluator>>> recordEvaluatorFct) {
+                          List<Function<DwcDataFile, List<TargetedRecordEvaluator>>> recordEvaluatorFct,
+                          List<? extends Closeable> sharedResources) {
     this.dataFile = dataFile;
     this.resourceConstitutionEvaluationChain = resourceConstitutionEvaluationChain;
     this.dwcDataFileEvaluationEvaluatorFct = dwcDataFileEvaluationEvaluatorFct;
     this.recordCollectionEvaluatorFct = recordCollectionEvaluatorFct;
     this.recordEvaluatorFct = recordEvaluatorFct;
+    this.sharedResources = sharedResources;
   }
 
   /**
@@ -254,11 +291,24 @@ public class EvaluationChain {
 
     for(Function<DwcDataFile, List<TargetedRecordEvaluator>> fct : recordEvaluatorFct) {
       for(TargetedRecordEvaluator tre : fct.apply(dwcDataFile)){
+        runRecordEvaluators.add(tre.recordEvaluator);
         runner.run(tre.transform.apply(tre.tabularDataFile), tre.rowTypeKey, tre.recordEvaluator);
       }
     }
   }
 
+  /**
+   * Get the hits and misses of the lookup caches used by the {@link RecordEvaluator} run so far.
+   *
+   * @return metrics of the caches for this evaluation, one per cache of each {@link InterpretingRecordEvaluator}
+   */
+  public List<LookupCacheMetrics> getLookupCacheMetrics() {
+    return runRecordEvaluators.stream()
+            .filter(InterpretingRecordEvaluator.class::isInstance)
+            .flatMap(re -> ((InterpretingRecordEvaluator) re).getLookupCacheMetrics().stream())
+            .collect(Collectors.toList());
+  }
+
   public DataFile getDataFile() {
     return dataFile;
   }
@@ -267,4 +317,28 @@ public class EvaluationChain {
     return dwcDataFile;
   }
 
+  /**
+   * Release the resources shared by the evaluators (e.g. the sorted ids of the core).
+   *
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException {
+    IOException ioException = null;
+    for (Closeable sharedResource : sharedResources) {
+      try {
+        sharedResource.close();
+      } catch (IOException ioEx) {
+        if (ioException == null) {
+          ioException = ioEx;
+        } else {
+          ioException.addSuppressed(ioEx);
+        }
+      }
+    }
+    if (ioException != null) {
+      throw ioException;
+    }
+  }
+
 }
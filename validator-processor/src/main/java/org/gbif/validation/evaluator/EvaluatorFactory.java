@@ -1,6 +1,11 @@
 package org.gbif.validation.evaluator;
 
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.Country;
+import org.gbif.api.vocabulary.Rank;
 import org.gbif.checklistbank.cli.normalizer.NormalizerConfiguration;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
 import org.gbif.dwc.extensions.ExtensionManager;
 import org.gbif.dwc.extensions.ExtensionManagerFactory;
 import org.gbif.dwc.terms.DwcTerm;
@@ -9,6 +14,7 @@ import org.gbif.occurrence.processor.interpreting.CoordinateInterpreter;
 import org.gbif.occurrence.processor.interpreting.LocationInterpreter;
 import org.gbif.occurrence.processor.interpreting.OccurrenceInterpreter;
 import org.gbif.occurrence.processor.interpreting.TaxonomyInterpreter;
+import org.gbif.occurrence.processor.interpreting.result.CoordinateResult;
 import org.gbif.utils.HttpUtil;
 import org.gbif.validation.api.DataFile;
 import org.gbif.validation.api.DwcDataFileEvaluator;
@@ -19,6 +25,7 @@ import org.gbif.validation.api.RowTypeKey;
 import org.gbif.validation.api.TermIndex;
 import org.gbif.validation.api.model.RecordEvaluatorChain;
 import org.gbif.validation.api.vocabulary.FileFormat;
+import org.gbif.validation.api.vocabulary.InterpretationLookup;
 import org.gbif.validation.conf.ValidatorConfiguration;
 import org.gbif.validation.evaluator.record.OccurrenceInterpretationEvaluator;
 import org.gbif.validation.evaluator.record.RecordStructureEvaluator;
@@ -26,14 +33,24 @@ import org.gbif.validation.xml.XMLSchemaValidatorProvider;
 import org.gbif.ws.json.JacksonJsonContextResolver;
 import org.gbif.ws.mixin.Mixins;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
+import com.sun.jersey.api.client.Client;
 import com.sun.jersey.api.client.WebResource;
 import com.sun.jersey.api.client.config.ClientConfig;
 import com.sun.jersey.api.client.config.DefaultClientConfig;
@@ -46,13 +63,16 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Creates instances of mostly all evaluators.
+ * The resources shared by all the jobs (lookup caches, local name index) are released by {@link #close()}.
  */
-public class EvaluatorFactory {
+public class EvaluatorFactory implements Closeable {
 
   private static final Logger LOG = LoggerFactory.getLogger(EvaluatorFactory.class);
   private static final String XML_CATALOG = "xml/xml-catalog.xml";
   private static final XMLSchemaValidatorProvider XML_SCHEMA_VALIDATOR_PROVIDER = createXMLSchemaValidatorProvider();
   private static final int CLIENT_TO = 600000; // registry client default timeout
+  //lookups taking longer are abandoned, RemoteCallGuard backs off well before
+  private static final int LOOKUP_READ_TO = 30000;
 
   private static final ApacheHttpClient HTTP_CLIENT = createHttpClient();
   //FIXME we should refactor the ExtensionManager and reuse the ApacheHttpClient
@@ -61,6 +81,16 @@ public class EvaluatorFactory {
   private final String apiUrl;
   private final NormalizerConfiguration normalizerConfiguration;
   private final ExtensionManager extensionManager;
+  private final LookupCache<OccurrenceParseResult<NameUsageMatch>> speciesMatchCache;
+  private final LookupCache<OccurrenceParseResult<CoordinateResult>> coordinateCache;
+  //only used if a geocode cache precision is configured
+  private final LookupCache<String> reverseGeocodeCache;
+  private final RemoteCallGuard speciesMatchGuard;
+  //null if the reverse geocode is local
+  private final RemoteCallGuard coordinateGuard;
+  private final LocalNameIndex nameIndex;
+  //null to reverse geocode using the API directly
+  private final WebResource geocodeWs;
 
   /**
    * Get a new {@link EvaluatorFactory} instance based on {@link ValidatorConfiguration}.
@@ -84,6 +114,36 @@ public class EvaluatorFactory {
     this.apiUrl = config.getApiUrl();
     this.normalizerConfiguration = config.getNormalizerConfiguration();
     this.extensionManager = extensionManager;
+
+    int lookupCacheMaxSize = config.getLookupCacheMaxSize().orElse(LookupCache.DEFAULT_MAX_SIZE);
+    int lookupCacheTtlMinutes = config.getLookupCacheTtlMinutes().orElse(LookupCache.DEFAULT_TTL_MINUTES);
+    Path lookupCacheDirectory = config.getLookupCacheDirectory().orElse(null);
+    this.speciesMatchCache = new LookupCache<>(CachingTaxonomyInterpreter.CACHE_NAME, lookupCacheMaxSize,
+            lookupCacheTtlMinutes, lookupCacheDirectory, CachingTaxonomyInterpreter.CODEC);
+    int geocodeCacheTtlMinutes = config.getGeocodeCacheTtlMinutes().orElse(lookupCacheTtlMinutes);
+    LocalCountryIndex countryIndex = config.getCountryPolygonFile()
+            .map(file -> openCountryIndex(file, config.getCountryPolygonSimplificationTolerance().orElse(0d)))
+            .orElse(null);
+    if (countryIndex == null) {
+      this.coordinateCache = new LookupCache<>(CachingCoordinateInterpreter.CACHE_NAME, lookupCacheMaxSize,
+              geocodeCacheTtlMinutes, lookupCacheDirectory, CachingCoordinateInterpreter.CODEC);
+      this.reverseGeocodeCache = config.getGeocodeCachePrecision().isPresent() ?
+              new LookupCache<>(CachingGeocodeClientHandler.CACHE_NAME, lookupCacheMaxSize, geocodeCacheTtlMinutes,
+                      lookupCacheDirectory, CachingGeocodeClientHandler.CODEC) : null;
+      this.coordinateGuard = new RemoteCallGuard(CachingCoordinateInterpreter.CACHE_NAME);
+    } else {
+      //results of the local reverse geocode depend on the polygons, they are kept apart and only in memory
+      this.coordinateCache = new LookupCache<>(CachingCoordinateInterpreter.LOCAL_CACHE_NAME, lookupCacheMaxSize,
+              geocodeCacheTtlMinutes);
+      this.reverseGeocodeCache = config.getGeocodeCachePrecision().isPresent() ?
+              new LookupCache<>(CachingGeocodeClientHandler.LOCAL_CACHE_NAME, lookupCacheMaxSize,
+                      geocodeCacheTtlMinutes) : null;
+      //no remote call to guard
+      this.coordinateGuard = null;
+    }
+    this.speciesMatchGuard = new RemoteCallGuard(CachingTaxonomyInterpreter.CACHE_NAME);
+    this.nameIndex = config.getNameIndexDirectory().map(EvaluatorFactory::openNameIndex).orElse(null);
+    this.geocodeWs = createGeocodeWs(countryIndex, config.getGeocodeCachePrecision().orElse(null));
   }
 
   /**
@@ -114,6 +174,16 @@ public class EvaluatorFactory {
     return new UniquenessEvaluator(rowTypeKey, ignoreCase, workingFolder);
   }
 
+  /**
+   * Same as {@link #createUniquenessEvaluator(RowTypeKey, boolean, Path)} but served from a {@link CoreIdentifierIndex}
+   * when rowTypeKey targets the core.
+   */
+  static RecordCollectionEvaluator createUniquenessEvaluator(RowTypeKey rowTypeKey, boolean ignoreCase,
+                                                             Path workingFolder,
+                                                             CoreIdentifierIndex coreIdentifierIndex) {
+    return new UniquenessEvaluator(rowTypeKey, ignoreCase, workingFolder, coreIdentifierIndex);
+  }
+
   /**
    * Creates a {@link RecordCollectionEvaluator} that validates the uniqueness of identifier values.
    *
@@ -126,6 +196,15 @@ public class EvaluatorFactory {
     return new DataUniquenessEvaluator(ignoreCase, workingFolder);
   }
 
+  /**
+   * Same as {@link #createDataUniquenessEvaluator(RowTypeKey, boolean, Path)} but served from a
+   * {@link CoreIdentifierIndex} when the occurrenceID is in the core.
+   */
+  static RecordCollectionEvaluator createDataUniquenessEvaluator(boolean ignoreCase, Path workingFolder,
+                                                                 CoreIdentifierIndex coreIdentifierIndex) {
+    return new DataUniquenessEvaluator(ignoreCase, workingFolder, coreIdentifierIndex);
+  }
+
   /**
    * Creates a {@link RecordCollectionEvaluator} instance for a specific rowType.
    * Given a {@link DataFile} that represents the entire Dwc-A, this {@link RecordCollectionEvaluator} instance
@@ -139,6 +218,17 @@ public class EvaluatorFactory {
     return new ReferentialIntegrityEvaluator(rowType);
   }
 
+  /**
+   * Same as {@link #createReferentialIntegrityEvaluator(Term)} but the ids of the core are taken from a
+   * {@link CoreIdentifierIndex}. workingFolder is used to sort the ids when the core is too large to be checked in
+   * memory.
+   */
+  static RecordCollectionEvaluator createReferentialIntegrityEvaluator(Term rowType, Path workingFolder,
+                                                                       CoreIdentifierIndex coreIdentifierIndex) {
+    Objects.requireNonNull(rowType, "rowType shall be provided");
+    return new ReferentialIntegrityEvaluator(rowType, workingFolder, coreIdentifierIndex);
+  }
+
   /**
    * Creates a {@link RecordCollectionEvaluator} instance for a evaluating checklist.
    * @param workingFolder folder specific to the resource to evaluate where temporary files will be created
@@ -180,6 +270,8 @@ public class EvaluatorFactory {
 
   /**
    * Create an {@link RecordEvaluator} for records.
+   * Occurrence records are interpreted, the returned {@link InterpretingRecordEvaluator} provides the remote lookups
+   * performed.
    *
    * @return new instance
    */
@@ -192,35 +284,185 @@ public class EvaluatorFactory {
     evaluators.add(new RecordStructureEvaluator(rowType, columns));
 
     if (DwcTerm.Occurrence == rowType) {
-      evaluators.add(new OccurrenceInterpretationEvaluator(buildOccurrenceInterpreter(),
+      Set<InterpretationLookup> lookups = InterpretationLookup.supportedBy(columns, defaultValues);
+      LOG.info("Occurrence interpretation will perform the following lookups: {}", lookups);
+      List<Supplier<LookupCacheMetrics>> lookupCacheMetrics = new ArrayList<>();
+      evaluators.add(new OccurrenceInterpretationEvaluator(buildOccurrenceInterpreter(lookups, lookupCacheMetrics),
               columns.toArray(new Term[columns.size()]), defaultValues, recordIdentifier));
+      return new InterpretingRecordEvaluator(new RecordEvaluatorChain(evaluators), lookups,
+              () -> lookupCacheMetrics.stream().map(Supplier::get).collect(Collectors.toList()));
     }
     return new RecordEvaluatorChain(evaluators);
   }
 
+  /**
+   * Get the size and usage of the lookup caches shared by all the jobs.
+   *
+   * @return metrics of the species match and coordinate caches
+   */
+  public List<LookupCacheMetrics> getLookupCacheMetrics() {
+    return getLookupCaches().stream().map(LookupCache::getMetrics).collect(Collectors.toList());
+  }
+
+  /**
+   * Get the concurrency limit, latency and rejections of the remote lookups shared by all the jobs.
+   *
+   * @return metrics of the species match and coordinate endpoints
+   */
+  public List<RemoteCallMetrics> getRemoteCallMetrics() {
+    return coordinateGuard == null ? Collections.singletonList(speciesMatchGuard.getMetrics()) :
+            Arrays.asList(speciesMatchGuard.getMetrics(), coordinateGuard.getMetrics());
+  }
+
+  /**
+   * Write the lookup caches to the configured lookup cache directory, if any.
+   * Also called by {@link #close()}.
+   */
+  public void persistLookupCaches() {
+    for (LookupCache<?> cache : getLookupCaches()) {
+      try {
+        cache.persist();
+      } catch (IOException ioEx) {
+        LOG.error("Can't persist the {} cache", cache.getName(), ioEx);
+      }
+    }
+  }
+
+  private List<LookupCache<?>> getLookupCaches() {
+    List<LookupCache<?>> lookupCaches = new ArrayList<>(Arrays.asList(speciesMatchCache, coordinateCache));
+    if (reverseGeocodeCache != null) {
+      lookupCaches.add(reverseGeocodeCache);
+    }
+    return lookupCaches;
+  }
+
+  /**
+   * Persist the lookup caches and close the local name index, if any.
+   * Evaluators created by this factory shall not be used once closed.
+   *
+   * @throws IOException
+   */
+  @Override
+  public void close() throws IOException {
+    persistLookupCaches();
+    if (nameIndex != null) {
+      nameIndex.close();
+    }
+  }
+
   /**
    * Builds an OccurrenceInterpreter using the current HttpClient instance.
+   * Species matches and coordinate interpretations are cached in {@link LookupCache} shared by all the instances
+   * built by this factory, therefore by all the jobs. Calls missing the caches are throttled by {@link RemoteCallGuard}
+   * shared the same way. If a local name index is configured, it replaces the species match API. If country polygons
+   * are configured, they replace the reverse geocode API and the interpretations are neither throttled nor
+   * persisted.
+   *
+   * @param lookups remote lookups to perform, the others are skipped
+   * @param lookupCacheMetrics receives the hits and misses of the caches used by the returned instance
    */
-  private OccurrenceInterpreter buildOccurrenceInterpreter() {
+  private OccurrenceInterpreter buildOccurrenceInterpreter(Set<InterpretationLookup> lookups,
+                                                           List<Supplier<LookupCacheMetrics>> lookupCacheMetrics) {
     WebResource webResource = HTTP_CLIENT.resource(apiUrl);
-    TaxonomyInterpreter taxonomyInterpreter = new TaxonomyInterpreter(webResource);
-    LocationInterpreter locationInterpreter = new LocationInterpreter(new CoordinateInterpreter(webResource));
+    TaxonomyInterpreter taxonomyInterpreter;
+    if (lookups.contains(InterpretationLookup.SPECIES_MATCH) && nameIndex == null) {
+      CachingTaxonomyInterpreter cachingTaxonomyInterpreter =
+              new CachingTaxonomyInterpreter(webResource, speciesMatchCache, speciesMatchGuard);
+      lookupCacheMetrics.add(cachingTaxonomyInterpreter::getJobMetrics);
+      taxonomyInterpreter = cachingTaxonomyInterpreter;
+    } else {
+      taxonomyInterpreter = lookups.contains(InterpretationLookup.SPECIES_MATCH) ?
+              new LocalTaxonomyInterpreter(webResource, nameIndex) :
+              new TaxonomyInterpreter(webResource) {
+                @Override
+                public OccurrenceParseResult<NameUsageMatch> match(String kingdom, String phylum, String clazz,
+                                                                   String order, String family, String genus,
+                                                                   String scientificName, String authorship,
+                                                                   String genericName, String specificEpithet,
+                                                                   String infraspecificEpithet, Rank rank) {
+                  return new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null, null, null);
+                }
+              };
+    }
+    CoordinateInterpreter coordinateInterpreter;
+    if (lookups.contains(InterpretationLookup.COORDINATE)) {
+      CachingCoordinateInterpreter cachingCoordinateInterpreter =
+              new CachingCoordinateInterpreter(geocodeWs == null ? webResource : geocodeWs, coordinateCache,
+                      coordinateGuard);
+      lookupCacheMetrics.add(cachingCoordinateInterpreter::getJobMetrics);
+      coordinateInterpreter = cachingCoordinateInterpreter;
+    } else {
+      coordinateInterpreter = new CoordinateInterpreter(webResource) {
+        @Override
+        public OccurrenceParseResult<CoordinateResult> interpretCoordinate(String latitude, String longitude,
+                                                                           String datum, Country country) {
+          return new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null, null, null);
+        }
+      };
+    }
+    LocationInterpreter locationInterpreter = new LocationInterpreter(coordinateInterpreter);
     return new OccurrenceInterpreter(taxonomyInterpreter, locationInterpreter);
   }
 
+  /**
+   * Creates the {@link WebResource} used to reverse geocode the coordinates.
+   * The country polygons replace the reverse geocode API if provided. If a precision is provided, the reverse geocode
+   * responses are cached by the coordinates rounded to that number of decimals.
+   *
+   * @return the {@link WebResource} or null if the API shall be used directly
+   */
+  @Nullable
+  private WebResource createGeocodeWs(@Nullable LocalCountryIndex countryIndex, @Nullable Integer precision) {
+    Client client = countryIndex == null ? null : createLocalGeocodeClient(countryIndex);
+    if (precision != null) {
+      client = new Client(new CachingGeocodeClientHandler(client == null ? HTTP_CLIENT : client, reverseGeocodeCache,
+              precision), createClientConfig());
+    }
+    return client == null ? null : client.resource(apiUrl);
+  }
+
+  /**
+   * Creates a client answering the reverse geocode requests from a {@link LocalCountryIndex}.
+   */
+  static Client createLocalGeocodeClient(LocalCountryIndex countryIndex) {
+    return new Client(new LocalGeocodeClientHandler(countryIndex), createClientConfig());
+  }
+
+  private static LocalNameIndex openNameIndex(Path nameIndexDirectory) {
+    try {
+      return new LocalNameIndex(nameIndexDirectory);
+    } catch (IOException ioEx) {
+      throw new UncheckedIOException("Can't open the local name index " + nameIndexDirectory, ioEx);
+    }
+  }
+
+  private static LocalCountryIndex openCountryIndex(Path countryPolygonFile, double simplificationTolerance) {
+    try {
+      return new LocalCountryIndex(countryPolygonFile, simplificationTolerance);
+    } catch (IOException ioEx) {
+      throw new UncheckedIOException("Can't load the country polygons from " + countryPolygonFile, ioEx);
+    }
+  }
+
   /**
    * Creates an HTTP client.
    */
   private static ApacheHttpClient createHttpClient() {
+    return ApacheHttpClient.create(createClientConfig());
+  }
 
+  /**
+   * Creates the configuration of the clients of the API.
+   */
+  private static ClientConfig createClientConfig() {
     ClientConfig cc = new DefaultClientConfig();
     cc.getClasses().add(JacksonJsonContextResolver.class);
     cc.getClasses().add(JacksonJsonProvider.class);
     cc.getFeatures().put(JSONConfiguration.FEATURE_POJO_MAPPING, true);
     cc.getProperties().put(ClientConfig.PROPERTY_CONNECT_TIMEOUT, CLIENT_TO);
+    cc.getProperties().put(ClientConfig.PROPERTY_READ_TIMEOUT, LOOKUP_READ_TO);
     JacksonJsonContextResolver.addMixIns(Mixins.getPredefinedMixins());
-
-    return ApacheHttpClient.create(cc);
+    return cc;
   }
 
   private static HttpClient createPlainHttpClient(int maxConnections, int maxPerRoute) {
@@ -0,0 +1,372 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.utils.file.FileUtils;
+import org.gbif.validation.api.RecordSource;
+import org.gbif.validation.util.IOSupplier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * External merge sort of the (value, id, line number) {@link Tuple} extracted from the records of a
+ * {@link RecordSource}. Only the tuples are sorted, never the complete records.
+ *
+ * Tuples are sorted in memory by runs of runSize tuples. Runs are sorted and written in parallel while the records are
+ * still being read. The {@link SortedTuples} returned is a k-way merge of the runs. If all the tuples fit in a
+ * single run, nothing is written on disk.
+ *
+ * Tuples are ordered by value then by line number.
+ */
+class ExternalTupleSorter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExternalTupleSorter.class);
+
+  static final int DEFAULT_RUN_SIZE = 250000;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  static final Comparator<Tuple> TUPLE_ORDER =
+          Comparator.comparing((Tuple t) -> t.value).thenComparingLong(t -> t.lineNumber);
+
+  private final Path workingFolder;
+  private final int runSize;
+  private final int numOfThreads;
+
+  /**
+   *
+   * @param workingFolder folder where the runs can be written
+   * @param runSize maximum number of tuples sorted in memory at once
+   * @param numOfThreads number of runs that can be sorted at the same time
+   */
+  ExternalTupleSorter(Path workingFolder, int runSize, int numOfThreads) {
+    Preconditions.checkArgument(runSize > 0, "runSize must be greater than 0");
+    Preconditions.checkArgument(numOfThreads > 0, "numOfThreads must be greater than 0");
+    this.workingFolder = workingFolder;
+    this.runSize = runSize;
+    this.numOfThreads = numOfThreads;
+  }
+
+  /**
+   * Read all the records of a {@link RecordSource} and sort the extracted {@link Tuple}.
+   * The line number of a {@link Tuple} is the position of the record in the source, starting at 1.
+   *
+   * @param recordSourceSupplier supplier of the {@link RecordSource} to read
+   * @param name name of the source, used for logging and naming the runs
+   * @param valueExtractor extracts the value used to sort from a record
+   * @param idExtractor extracts the id from a record
+   *
+   * @return {@link SortedTuples}, the caller is responsible to close it
+   *
+   * @throws IOException
+   */
+  SortedTuples sort(IOSupplier<RecordSource> recordSourceSupplier, String name,
+                    Function<List<String>, String> valueExtractor,
+                    Function<List<String>, String> idExtractor) throws IOException {
+    Path runFolder = Files.createTempDirectory(workingFolder, name + "_runs");
+    ExecutorService executor = Executors.newFixedThreadPool(numOfThreads,
+            new ThreadFactoryBuilder().setNameFormat("tuple-sorter-%d").setDaemon(true).build());
+    //bound the number of runs in memory
+    Semaphore runPermits = new Semaphore(numOfThreads);
+    boolean success = false;
+    try (RecordSource recordSource = recordSourceSupplier.get()) {
+      List<Future<Path>> runs = new ArrayList<>();
+      List<Tuple> tuples = new ArrayList<>();
+      long lineNumber = 0;
+      List<String> record;
+      while ((record = recordSource.read()) != null) {
+        lineNumber++;
+        tuples.add(new Tuple(valueExtractor.apply(record), idExtractor.apply(record), lineNumber));
+        if (tuples.size() == runSize) {
+          runs.add(submitRun(executor, runPermits, tuples, runFolder.resolve("run_" + runs.size())));
+          tuples = new ArrayList<>();
+        }
+      }
+
+      SortedTuples sortedTuples;
+      //everything fits in a single run
+      if (runs.isEmpty()) {
+        tuples.sort(TUPLE_ORDER);
+        sortedTuples = new SortedTuples(runFolder, tuples.iterator(), Collections.emptyList());
+      } else {
+        if (!tuples.isEmpty()) {
+          runs.add(submitRun(executor, runPermits, tuples, runFolder.resolve("run_" + runs.size())));
+        }
+
+        List<Path> runFiles = new ArrayList<>(runs.size());
+        for (Future<Path> run : runs) {
+          runFiles.add(run.get());
+        }
+        LOG.debug("{} runs of {} tuples written for {}", runFiles.size(), runSize, name);
+        sortedTuples = new SortedTuples(runFolder, Collections.emptyIterator(), runFiles);
+      }
+      success = true;
+      return sortedTuples;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while sorting " + name);
+    } catch (ExecutionException e) {
+      throw new IOException("Error while sorting " + name, e.getCause());
+    } finally {
+      executor.shutdownNow();
+      if (!success) {
+        FileUtils.deleteDirectoryRecursively(runFolder.toFile());
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #sort(IOSupplier, String, Function, Function)} but the sorted {@link Tuple} are written to a single
+   * run file so they can be read multiple times using {@link #readRun(Path)}.
+   *
+   * @param runFile file where the sorted tuples are written, the caller is responsible to delete it
+   *
+   * @return number of tuples written
+   *
+   * @throws IOException
+   */
+  int sortToRun(IOSupplier<RecordSource> recordSourceSupplier, String name,
+                Function<List<String>, String> valueExtractor,
+                Function<List<String>, String> idExtractor, Path runFile) throws IOException {
+    int count = 0;
+    try (SortedTuples sortedTuples = sort(recordSourceSupplier, name, valueExtractor, idExtractor);
+         FileChannel channel = FileChannel.open(runFile, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+              BUFFER_SIZE));
+      //the number of tuples is only known at the end
+      out.writeInt(0);
+      Tuple tuple;
+      while ((tuple = sortedTuples.next()) != null) {
+        tuple.write(out);
+        count++;
+      }
+      out.flush();
+      ByteBuffer countBuffer = ByteBuffer.allocate(Integer.BYTES).putInt(count);
+      countBuffer.flip();
+      channel.write(countBuffer, 0);
+    }
+    return count;
+  }
+
+  /**
+   * Read back a run written by {@link #sortToRun(IOSupplier, String, Function, Function, Path)}.
+   * Closing the returned {@link SortedTuples} does NOT delete the run.
+   *
+   * @return {@link SortedTuples}, the caller is responsible to close it
+   *
+   * @throws IOException
+   */
+  static SortedTuples readRun(Path runFile) throws IOException {
+    return new SortedTuples(null, Collections.emptyIterator(), Collections.singletonList(runFile));
+  }
+
+  /**
+   * Sort and write a run asynchronously.
+   *
+   * @return {@link Future} of the {@link Path} of the written run
+   */
+  private static Future<Path> submitRun(ExecutorService executor, Semaphore runPermits, List<Tuple> tuples,
+                                        Path runFile) throws InterruptedException {
+    runPermits.acquire();
+    return executor.submit(() -> {
+      try {
+        tuples.sort(TUPLE_ORDER);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(runFile), BUFFER_SIZE))) {
+          out.writeInt(tuples.size());
+          for (Tuple tuple : tuples) {
+            tuple.write(out);
+          }
+        }
+        return runFile;
+      } finally {
+        runPermits.release();
+      }
+    });
+  }
+
+  /**
+   * Write a length-prefixed UTF-8 string.
+   */
+  static void writeString(DataOutputStream out, String str) throws IOException {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Read a string written by {@link #writeString(DataOutputStream, String)}.
+   */
+  static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Value, id and line number of a record.
+   */
+  static class Tuple {
+    private final String value;
+    private final String id;
+    private final long lineNumber;
+
+    Tuple(String value, String id, long lineNumber) {
+      this.value = value;
+      this.id = id;
+      this.lineNumber = lineNumber;
+    }
+
+    String getValue() {
+      return value;
+    }
+
+    String getId() {
+      return id;
+    }
+
+    long getLineNumber() {
+      return lineNumber;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      writeString(out, value);
+      writeString(out, id);
+      out.writeLong(lineNumber);
+    }
+
+    static Tuple read(DataInputStream in) throws IOException {
+      return new Tuple(readString(in), readString(in), in.readLong());
+    }
+  }
+
+  /**
+   * Sorted {@link Tuple}, either from memory or from a k-way merge of the runs.
+   * Closing it deletes the runs, unless it was created by {@link #readRun(Path)}.
+   */
+  static class SortedTuples implements Closeable {
+    private final Path runFolder;
+    private final Iterator<Tuple> inMemoryTuples;
+    private final PriorityQueue<RunReader> queue;
+
+    private SortedTuples(@Nullable Path runFolder, Iterator<Tuple> inMemoryTuples, List<Path> runFiles) throws IOException {
+      this.runFolder = runFolder;
+      this.inMemoryTuples = inMemoryTuples;
+      this.queue = new PriorityQueue<>(Math.max(1, runFiles.size()),
+              (r1, r2) -> TUPLE_ORDER.compare(r1.current, r2.current));
+      try {
+        for (Path runFile : runFiles) {
+          RunReader reader = new RunReader(runFile);
+          if (reader.advance()) {
+            queue.add(reader);
+          } else {
+            reader.close();
+          }
+        }
+      } catch (IOException ioEx) {
+        close();
+        throw ioEx;
+      }
+    }
+
+    /**
+     *
+     * @return the next {@link Tuple} or null if there is no more
+     *
+     * @throws IOException
+     */
+    @Nullable
+    Tuple next() throws IOException {
+      if (inMemoryTuples.hasNext()) {
+        return inMemoryTuples.next();
+      }
+      RunReader reader = queue.poll();
+      if (reader == null) {
+        return null;
+      }
+      Tuple tuple = reader.current;
+      if (reader.advance()) {
+        queue.add(reader);
+      } else {
+        reader.close();
+      }
+      return tuple;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        for (RunReader reader : queue) {
+          reader.close();
+        }
+        queue.clear();
+      } finally {
+        if (runFolder != null) {
+          FileUtils.deleteDirectoryRecursively(runFolder.toFile());
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the tuples of a run, one at a time.
+   */
+  private static class RunReader implements Closeable {
+    private final DataInputStream in;
+    private int remaining;
+    private Tuple current;
+
+    RunReader(Path runFile) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile), BUFFER_SIZE));
+      remaining = in.readInt();
+    }
+
+    /**
+     * Move to the next tuple of the run.
+     * @return false if the end of the run is reached
+     */
+    boolean advance() throws IOException {
+      if (remaining == 0) {
+        current = null;
+        return false;
+      }
+      remaining--;
+      current = Tuple.read(in);
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.validation.api.RecordEvaluator;
+import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.api.vocabulary.InterpretationLookup;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+
+/**
+ * Decorator around a {@link RecordEvaluator} interpreting the records that keeps the {@link InterpretationLookup}
+ * its interpretation performs, as chosen by the {@link EvaluatorFactory}, and reports the usage of the lookup caches
+ * by the records it evaluated.
+ */
+public class InterpretingRecordEvaluator implements RecordEvaluator {
+
+  private final RecordEvaluator recordEvaluator;
+  private final Set<InterpretationLookup> interpretationLookups;
+  private final Supplier<List<LookupCacheMetrics>> lookupCacheMetrics;
+
+  /**
+   *
+   * @param recordEvaluator
+   * @param interpretationLookups lookups performed by the interpretation
+   * @param lookupCacheMetrics hits and misses of the lookup caches used by the interpretation
+   */
+  InterpretingRecordEvaluator(RecordEvaluator recordEvaluator, Set<InterpretationLookup> interpretationLookups,
+                              Supplier<List<LookupCacheMetrics>> lookupCacheMetrics) {
+    Objects.requireNonNull(recordEvaluator, "recordEvaluator shall be provided");
+    Objects.requireNonNull(interpretationLookups, "interpretationLookups shall be provided");
+    Objects.requireNonNull(lookupCacheMetrics, "lookupCacheMetrics shall be provided");
+    this.recordEvaluator = recordEvaluator;
+    this.lookupCacheMetrics = lookupCacheMetrics;
+    this.interpretationLookups = interpretationLookups.isEmpty() ?
+            Collections.emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(interpretationLookups));
+  }
+
+  @Nullable
+  @Override
+  public RecordEvaluationResult evaluate(@Nullable Long lineNumber, @Nullable List<String> record) {
+    return recordEvaluator.evaluate(lineNumber, record);
+  }
+
+  public Set<InterpretationLookup> getInterpretationLookups() {
+    return interpretationLookups;
+  }
+
+  /**
+   * Get the hits and misses of the lookup caches for the records evaluated by this instance so far.
+   *
+   * @return metrics of the caches used, empty if the lookups are not cached
+   */
+  public List<LookupCacheMetrics> getLookupCacheMetrics() {
+    return lookupCacheMetrics.get();
+  }
+
+  /**
+   * Get the {@link InterpretationLookup} performed by a {@link RecordEvaluator}.
+   *
+   * @param recordEvaluator
+   *
+   * @return the lookups or null if the {@link RecordEvaluator} does not interpret the records
+   */
+  @Nullable
+  public static Set<InterpretationLookup> getInterpretationLookups(RecordEvaluator recordEvaluator) {
+    return recordEvaluator instanceof InterpretingRecordEvaluator ?
+            ((InterpretingRecordEvaluator) recordEvaluator).getInterpretationLookups() : null;
+  }
+}
@@ -0,0 +1,52 @@
+package org.gbif.validation.evaluator;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * View of a {@link LookupCache} shared by all the jobs counting the hits and misses of a single job.
+ *
+ * A lookup is a miss when the loader of this view is called, any other lookup (including the ones waiting for a
+ * concurrent load) is a hit.
+ *
+ * @param <V> type of the cached values
+ */
+class JobLookupCache<V> {
+
+  private final LookupCache<V> cache;
+  private final AtomicLong numOfRequests = new AtomicLong();
+  private final AtomicLong numOfMisses = new AtomicLong();
+
+  JobLookupCache(LookupCache<V> cache) {
+    Objects.requireNonNull(cache, "cache shall be provided");
+    this.cache = cache;
+  }
+
+  /**
+   * See {@link LookupCache#get(List, Callable, Predicate)}.
+   */
+  V get(List<String> key, Callable<V> loader, Predicate<V> cacheable) {
+    numOfRequests.incrementAndGet();
+    return cache.get(key, () -> {
+      numOfMisses.incrementAndGet();
+      return loader.call();
+    }, cacheable);
+  }
+
+  /**
+   * Get the hits and misses of this view, the size is the one of the shared {@link LookupCache}.
+   *
+   * @return
+   */
+  LookupCacheMetrics getMetrics() {
+    long misses = numOfMisses.get();
+    long hits = Math.max(0, numOfRequests.get() - misses);
+    return new LookupCacheMetrics(cache.getName(), cache.getMetrics().getSize(),
+            new CacheStats(hits, misses, 0, 0, 0, 0));
+  }
+}
@@ -0,0 +1,145 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.Country;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.Point;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
+import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
+import com.vividsolutions.jts.index.strtree.STRtree;
+import com.vividsolutions.jts.io.ParseException;
+import com.vividsolutions.jts.io.WKTReader;
+import com.vividsolutions.jts.simplify.TopologyPreservingSimplifier;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory spatial index of country polygons answering reverse geocode lookups without calling the geocode API.
+ *
+ * Polygons are read from a tab delimited file without header: ISO 3166-1 alpha-2 country code and geometry in WKT
+ * (WGS84, longitude first). A country can span multiple lines. Such a file can be produced from a shapefile with
+ * ogr2ogr (CSV driver, GEOMETRY=AS_WKT).
+ *
+ * Polygons are optionally simplified, split in their components and kept in a {@link STRtree}. A lookup queries the
+ * tree with the point and tests the candidates against their prepared geometry.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public class LocalCountryIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LocalCountryIndex.class);
+
+  private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
+  private final STRtree tree;
+
+  /**
+   * Load the country polygons from a file.
+   *
+   * @param polygonFile tab delimited file of country codes and WKT geometries, see class documentation
+   * @param simplificationTolerance distance tolerance (in degrees) used to simplify the polygons, 0 to keep them as
+   *                                provided
+   *
+   * @throws IOException if the file can not be read or if a line can not be parsed
+   */
+  public LocalCountryIndex(Path polygonFile, double simplificationTolerance) throws IOException {
+    Objects.requireNonNull(polygonFile, "polygonFile shall be provided");
+    Preconditions.checkArgument(simplificationTolerance >= 0, "simplificationTolerance can not be negative");
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    tree = new STRtree();
+    WKTReader wktReader = new WKTReader(GEOMETRY_FACTORY);
+    int numOfLines = 0;
+    try (BufferedReader reader = Files.newBufferedReader(polygonFile, StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        numOfLines++;
+        if (StringUtils.isBlank(line)) {
+          continue;
+        }
+        String[] values = line.split("\t", 2);
+        Country country = values.length == 2 ? Country.fromIsoCode(values[0].trim()) : null;
+        if (country == null) {
+          throw new IOException("Can't read country code at line " + numOfLines + " of " + polygonFile);
+        }
+        try {
+          add(country, wktReader.read(StringUtils.strip(values[1].trim(), "\"")), simplificationTolerance);
+        } catch (ParseException pEx) {
+          throw new IOException("Can't read geometry at line " + numOfLines + " of " + polygonFile, pEx);
+        }
+      }
+    }
+    tree.build();
+    LOG.info("{} country polygons from {} indexed in {}", tree.size(), polygonFile, stopwatch);
+  }
+
+  private void add(Country country, Geometry geometry, double simplificationTolerance) {
+    Geometry simplified = simplificationTolerance > 0 ?
+            TopologyPreservingSimplifier.simplify(geometry, simplificationTolerance) : geometry;
+    //each component gets its own envelope, so islands do not make the envelope of a country cover an ocean
+    for (int i = 0; i < simplified.getNumGeometries(); i++) {
+      Geometry component = simplified.getGeometryN(i);
+      if (!component.isEmpty()) {
+        tree.insert(component.getEnvelopeInternal(),
+                new CountryPolygon(country, PreparedGeometryFactory.prepare(component)));
+      }
+    }
+  }
+
+  /**
+   * Get the countries covering a point.
+   *
+   * @param latitude decimal latitude (WGS84)
+   * @param longitude decimal longitude (WGS84)
+   *
+   * @return countries covering the point, empty if none. More than one country can be returned for points on a border.
+   */
+  public Set<Country> lookup(double latitude, double longitude) {
+    Coordinate coordinate = new Coordinate(longitude, latitude);
+    Point point = GEOMETRY_FACTORY.createPoint(coordinate);
+    Set<Country> countries = new LinkedHashSet<>();
+    for (Object item : tree.query(new Envelope(coordinate))) {
+      CountryPolygon polygon = (CountryPolygon) item;
+      if (!countries.contains(polygon.country) && polygon.geometry.covers(point)) {
+        countries.add(polygon.country);
+      }
+    }
+    return countries;
+  }
+
+  /**
+   *
+   * @return number of polygons in the index
+   */
+  public int size() {
+    return tree.size();
+  }
+
+  /**
+   * Component of the polygon of a country.
+   */
+  private static class CountryPolygon {
+    private final Country country;
+    private final PreparedGeometry geometry;
+
+    CountryPolygon(Country country, PreparedGeometry geometry) {
+      this.country = country;
+      this.geometry = geometry;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.Country;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Objects;
+import javax.annotation.Nullable;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.TerminatingClientHandler;
+import com.sun.jersey.api.uri.UriComponent;
+import com.sun.jersey.core.header.InBoundHeaders;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
+
+/**
+ * Jersey client handler answering the reverse geocode requests (geocode/reverse?lat=&lng=) of
+ * {@link org.gbif.occurrence.processor.interpreting.CoordinateInterpreter} from a {@link LocalCountryIndex}.
+ *
+ * The response only contains the fields of the geocode API used by the interpretation: isoCountryCode2Digit and
+ * title. Any other request is answered with 404.
+ */
+class LocalGeocodeClientHandler extends TerminatingClientHandler {
+
+  static final String REVERSE_GEOCODE_PATH = "geocode/reverse";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final LocalCountryIndex countryIndex;
+
+  LocalGeocodeClientHandler(LocalCountryIndex countryIndex) {
+    Objects.requireNonNull(countryIndex, "countryIndex shall be provided");
+    this.countryIndex = countryIndex;
+  }
+
+  @Override
+  public ClientResponse handle(ClientRequest request) throws ClientHandlerException {
+    URI uri = request.getURI();
+    if (!HttpMethod.GET.equals(request.getMethod()) || uri.getPath() == null ||
+        !uri.getPath().endsWith(REVERSE_GEOCODE_PATH)) {
+      return response(Response.Status.NOT_FOUND, null);
+    }
+
+    MultivaluedMap<String, String> params = UriComponent.decodeQuery(uri, true);
+    double latitude;
+    double longitude;
+    try {
+      latitude = Double.parseDouble(params.getFirst("lat"));
+      longitude = Double.parseDouble(params.getFirst("lng"));
+    } catch (NullPointerException | NumberFormatException ex) {
+      return response(Response.Status.BAD_REQUEST, null);
+    }
+
+    ArrayNode locations = MAPPER.createArrayNode();
+    for (Country country : countryIndex.lookup(latitude, longitude)) {
+      ObjectNode location = locations.addObject();
+      location.put("isoCountryCode2Digit", country.getIso2LetterCode());
+      location.put("title", country.getTitle());
+    }
+    try {
+      return response(Response.Status.OK, MAPPER.writeValueAsBytes(locations));
+    } catch (IOException ioEx) {
+      throw new ClientHandlerException(ioEx);
+    }
+  }
+
+  private ClientResponse response(Response.Status status, @Nullable byte[] entity) {
+    InBoundHeaders headers = new InBoundHeaders();
+    if (entity != null) {
+      headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(MediaType.APPLICATION_JSON));
+    }
+    InputStream entityStream = new ByteArrayInputStream(entity != null ? entity :
+            status.getReasonPhrase().getBytes(StandardCharsets.UTF_8));
+    return new ClientResponse(status.getStatusCode(), headers, entityStream, getMessageBodyWorkers());
+  }
+}
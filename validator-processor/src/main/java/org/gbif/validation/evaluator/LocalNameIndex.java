@@ -0,0 +1,322 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.api.vocabulary.TaxonomicStatus;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local name index answering species matches from a Lucene index built from a backbone export.
+ *
+ * The backbone export is a tab delimited file with a header line. Columns are named after the properties of
+ * {@link NameUsageMatch}: usageKey, scientificName and rank are required; acceptedUsageKey, canonicalName, status,
+ * kingdom, kingdomKey, phylum, phylumKey, class, classKey, order, orderKey, family, familyKey, genus, genusKey, species
+ * and speciesKey are optional.
+ *
+ * Names are matched exactly (case and whitespace insensitive) on the scientific or canonical name. Homonyms are
+ * resolved using the provided classification, accepted names and the rank. If the name is not found, the lowest
+ * provided higher taxon found is returned as a {@link NameUsageMatch.MatchType#HIGHERRANK} match.
+ * Fuzzy matching is not supported.
+ *
+ * Instances are thread-safe.
+ */
+public class LocalNameIndex implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LocalNameIndex.class);
+
+  static final String USAGE_KEY = "usageKey";
+  static final String ACCEPTED_USAGE_KEY = "acceptedUsageKey";
+  static final String SCIENTIFIC_NAME = "scientificName";
+  static final String CANONICAL_NAME = "canonicalName";
+  static final String RANK = "rank";
+  static final String STATUS = "status";
+
+  //indexed (not stored) field holding the normalized names of the usage
+  private static final String NAME_FIELD = "_name";
+  private static final int MAX_CANDIDATES = 50;
+
+  private static final List<String> STORED_COLUMNS = Arrays.asList(USAGE_KEY, ACCEPTED_USAGE_KEY, SCIENTIFIC_NAME,
+          CANONICAL_NAME, RANK, STATUS, "kingdom", "kingdomKey", "phylum", "phylumKey", "class", "classKey", "order",
+          "orderKey", "family", "familyKey", "genus", "genusKey", "species", "speciesKey");
+
+  //higher ranks used to resolve homonyms and for higher rank matches, from the lowest
+  private static final List<Rank> HIGHER_RANKS = Arrays.asList(Rank.GENUS, Rank.FAMILY, Rank.ORDER, Rank.CLASS,
+          Rank.PHYLUM, Rank.KINGDOM);
+
+  private static final int CLASSIFICATION_AGREE_SCORE = 10;
+  private static final int CLASSIFICATION_CONFLICT_SCORE = -30;
+  private static final int ACCEPTED_SCORE = 5;
+  private static final int RANK_SCORE = 5;
+  private static final int EXACT_CONFIDENCE = 95;
+  private static final int HIGHERRANK_CONFIDENCE = 90;
+
+  private final Directory directory;
+  private final DirectoryReader reader;
+  private final IndexSearcher searcher;
+
+  /**
+   * Open an index previously built with {@link #build(Path, Path)}.
+   *
+   * @param indexDirectory directory of the index
+   *
+   * @throws IOException
+   */
+  public LocalNameIndex(Path indexDirectory) throws IOException {
+    Objects.requireNonNull(indexDirectory, "indexDirectory shall be provided");
+    directory = FSDirectory.open(indexDirectory);
+    reader = DirectoryReader.open(directory);
+    searcher = new IndexSearcher(reader);
+    LOG.info("Local name index opened from {} with {} name usages", indexDirectory, reader.numDocs());
+  }
+
+  /**
+   * Build (or rebuild) an index from a backbone export.
+   *
+   * @param backboneExport tab delimited backbone export, see class documentation
+   * @param indexDirectory directory where the index is written, existing index is replaced
+   *
+   * @return number of name usages indexed
+   *
+   * @throws IOException
+   */
+  public static long build(Path backboneExport, Path indexDirectory) throws IOException {
+    Objects.requireNonNull(backboneExport, "backboneExport shall be provided");
+    Objects.requireNonNull(indexDirectory, "indexDirectory shall be provided");
+
+    long numOfUsages = 0;
+    IndexWriterConfig writerConfig = new IndexWriterConfig(new KeywordAnalyzer())
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+    try (BufferedReader exportReader = Files.newBufferedReader(backboneExport, StandardCharsets.UTF_8);
+         Directory dir = FSDirectory.open(indexDirectory);
+         IndexWriter writer = new IndexWriter(dir, writerConfig)) {
+
+      String headerLine = exportReader.readLine();
+      if (headerLine == null) {
+        throw new IOException("Backbone export " + backboneExport + " is empty");
+      }
+      Map<String, Integer> header = new HashMap<>();
+      String[] columns = headerLine.split("\t", -1);
+      for (int i = 0; i < columns.length; i++) {
+        header.put(columns[i].trim(), i);
+      }
+      for (String required : Arrays.asList(USAGE_KEY, SCIENTIFIC_NAME, RANK)) {
+        if (!header.containsKey(required)) {
+          throw new IOException("Backbone export " + backboneExport + " has no " + required + " column");
+        }
+      }
+
+      String line;
+      while ((line = exportReader.readLine()) != null) {
+        String[] values = line.split("\t", -1);
+        Document doc = new Document();
+        for (String column : STORED_COLUMNS) {
+          Integer idx = header.get(column);
+          String value = idx == null || idx >= values.length ? null : StringUtils.trimToNull(values[idx]);
+          if (value != null) {
+            doc.add(new StoredField(column, value));
+          }
+        }
+        String scientificName = normalize(doc.get(SCIENTIFIC_NAME));
+        if (scientificName == null) {
+          continue;
+        }
+        doc.add(new StringField(NAME_FIELD, scientificName, Field.Store.NO));
+        String canonicalName = normalize(doc.get(CANONICAL_NAME));
+        if (canonicalName != null && !canonicalName.equals(scientificName)) {
+          doc.add(new StringField(NAME_FIELD, canonicalName, Field.Store.NO));
+        }
+        writer.addDocument(doc);
+        numOfUsages++;
+      }
+      writer.forceMerge(1);
+    }
+    LOG.info("{} name usages from {} indexed in {}", numOfUsages, backboneExport, indexDirectory);
+    return numOfUsages;
+  }
+
+  /**
+   * Match a name against the index.
+   *
+   * @param scientificName name to match, with or without authorship
+   * @param rank rank of the name, if known
+   * @param classification higher taxa names by rank, only the ranks from kingdom to genus are used
+   *
+   * @return the match, never null. If nothing matches the match type is {@link NameUsageMatch.MatchType#NONE}.
+   *
+   * @throws IOException
+   */
+  public NameUsageMatch match(@Nullable String scientificName, @Nullable Rank rank, Map<Rank, String> classification)
+          throws IOException {
+    Document best = bestCandidate(normalize(scientificName), rank, classification);
+    if (best != null) {
+      return toMatch(best, NameUsageMatch.MatchType.EXACT, EXACT_CONFIDENCE);
+    }
+
+    for (Rank higherRank : HIGHER_RANKS) {
+      String higherName = normalize(classification.get(higherRank));
+      if (higherName != null) {
+        best = bestCandidate(higherName, higherRank, classification);
+        if (best != null) {
+          return toMatch(best, NameUsageMatch.MatchType.HIGHERRANK, HIGHERRANK_CONFIDENCE);
+        }
+      }
+    }
+
+    NameUsageMatch none = new NameUsageMatch();
+    none.setMatchType(NameUsageMatch.MatchType.NONE);
+    none.setConfidence(100);
+    return none;
+  }
+
+  /**
+   * Find the usage best matching the name, rank and classification.
+   *
+   * @return the best candidate or null if the name is not in the index or if all candidates conflict with the
+   * classification
+   */
+  @Nullable
+  private Document bestCandidate(@Nullable String normalizedName, @Nullable Rank rank,
+                                 Map<Rank, String> classification) throws IOException {
+    if (normalizedName == null) {
+      return null;
+    }
+
+    Document best = null;
+    int bestScore = Integer.MIN_VALUE;
+    for (ScoreDoc scoreDoc : searcher.search(new TermQuery(new Term(NAME_FIELD, normalizedName)), MAX_CANDIDATES)
+            .scoreDocs) {
+      Document candidate = searcher.doc(scoreDoc.doc);
+      int score = score(candidate, rank, classification);
+      //ties are resolved by the order of the export
+      if (score > bestScore) {
+        best = candidate;
+        bestScore = score;
+      }
+    }
+    return bestScore < 0 ? null : best;
+  }
+
+  private static int score(Document candidate, @Nullable Rank rank, Map<Rank, String> classification) {
+    int score = 0;
+    for (Rank higherRank : HIGHER_RANKS) {
+      String provided = normalize(classification.get(higherRank));
+      String indexed = normalize(candidate.get(toColumn(higherRank)));
+      if (provided != null && indexed != null) {
+        score += provided.equals(indexed) ? CLASSIFICATION_AGREE_SCORE : CLASSIFICATION_CONFLICT_SCORE;
+      }
+    }
+    if (TaxonomicStatus.ACCEPTED == parseEnum(TaxonomicStatus.class, candidate.get(STATUS))) {
+      score += ACCEPTED_SCORE;
+    }
+    if (rank != null && rank == parseEnum(Rank.class, candidate.get(RANK))) {
+      score += RANK_SCORE;
+    }
+    return score;
+  }
+
+  private static NameUsageMatch toMatch(Document doc, NameUsageMatch.MatchType matchType, int confidence) {
+    NameUsageMatch match = new NameUsageMatch();
+    match.setMatchType(matchType);
+    match.setConfidence(confidence);
+    match.setUsageKey(parseInteger(doc.get(USAGE_KEY)));
+    match.setAcceptedUsageKey(parseInteger(doc.get(ACCEPTED_USAGE_KEY)));
+    match.setScientificName(doc.get(SCIENTIFIC_NAME));
+    match.setCanonicalName(doc.get(CANONICAL_NAME));
+    match.setRank(parseEnum(Rank.class, doc.get(RANK)));
+    match.setStatus(parseEnum(TaxonomicStatus.class, doc.get(STATUS)));
+    match.setKingdom(doc.get("kingdom"));
+    match.setKingdomKey(parseInteger(doc.get("kingdomKey")));
+    match.setPhylum(doc.get("phylum"));
+    match.setPhylumKey(parseInteger(doc.get("phylumKey")));
+    match.setClazz(doc.get("class"));
+    match.setClassKey(parseInteger(doc.get("classKey")));
+    match.setOrder(doc.get("order"));
+    match.setOrderKey(parseInteger(doc.get("orderKey")));
+    match.setFamily(doc.get("family"));
+    match.setFamilyKey(parseInteger(doc.get("familyKey")));
+    match.setGenus(doc.get("genus"));
+    match.setGenusKey(parseInteger(doc.get("genusKey")));
+    match.setSpecies(doc.get("species"));
+    match.setSpeciesKey(parseInteger(doc.get("speciesKey")));
+    return match;
+  }
+
+  private static String toColumn(Rank rank) {
+    return rank == Rank.CLASS ? "class" : rank.name().toLowerCase(Locale.ENGLISH);
+  }
+
+  @Nullable
+  static String normalize(@Nullable String name) {
+    String normalized = StringUtils.trimToNull(StringUtils.normalizeSpace(name));
+    return normalized == null ? null : normalized.toLowerCase(Locale.ENGLISH);
+  }
+
+  @Nullable
+  private static Integer parseInteger(@Nullable String value) {
+    try {
+      return value == null ? null : Integer.valueOf(value);
+    } catch (NumberFormatException nfEx) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private static <E extends Enum<E>> E parseEnum(Class<E> enumClass, @Nullable String value) {
+    try {
+      return value == null ? null : Enum.valueOf(enumClass, value.trim().toUpperCase(Locale.ENGLISH));
+    } catch (IllegalArgumentException iaEx) {
+      return null;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+    directory.close();
+  }
+
+  /**
+   * Build a local name index from the command line.
+   *
+   * @param args path of the backbone export and path of the index directory
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: LocalNameIndex <backbone export (tsv)> <index directory>");
+      System.exit(1);
+    }
+    build(Paths.get(args[0]), Paths.get(args[1]));
+  }
+}
@@ -0,0 +1,71 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+import org.gbif.occurrence.processor.interpreting.TaxonomyInterpreter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.sun.jersey.api.client.WebResource;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TaxonomyInterpreter} answering species matches from a {@link LocalNameIndex} instead of the species match
+ * API. No remote call is performed.
+ *
+ * If no scientific name is provided, it is assembled from the generic name and the epithets.
+ */
+class LocalTaxonomyInterpreter extends TaxonomyInterpreter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LocalTaxonomyInterpreter.class);
+
+  private final LocalNameIndex nameIndex;
+
+  /**
+   *
+   * @param apiBaseWs base {@link WebResource} of the API, not used for matching
+   * @param nameIndex index answering the matches
+   */
+  LocalTaxonomyInterpreter(WebResource apiBaseWs, LocalNameIndex nameIndex) {
+    super(apiBaseWs);
+    Objects.requireNonNull(nameIndex, "nameIndex shall be provided");
+    this.nameIndex = nameIndex;
+  }
+
+  @Override
+  public OccurrenceParseResult<NameUsageMatch> match(String kingdom, String phylum, String clazz, String order,
+                                                     String family, String genus, String scientificName,
+                                                     String authorship, String genericName, String specificEpithet,
+                                                     String infraspecificEpithet, Rank rank) {
+    Map<Rank, String> classification = new EnumMap<>(Rank.class);
+    classification.put(Rank.KINGDOM, kingdom);
+    classification.put(Rank.PHYLUM, phylum);
+    classification.put(Rank.CLASS, clazz);
+    classification.put(Rank.ORDER, order);
+    classification.put(Rank.FAMILY, family);
+    classification.put(Rank.GENUS, genus);
+
+    String name = StringUtils.isBlank(scientificName) ?
+            StringUtils.trimToNull(StringUtils.normalizeSpace(String.join(" ", StringUtils.defaultString(genericName),
+                    StringUtils.defaultString(specificEpithet), StringUtils.defaultString(infraspecificEpithet)))) :
+            scientificName;
+    try {
+      return new OccurrenceParseResult<>(ParseResult.STATUS.SUCCESS, ParseResult.CONFIDENCE.DEFINITE,
+              nameIndex.match(name, rank, classification), null);
+    } catch (IOException ioEx) {
+      LOG.error("Can't match {} against the local name index", name, ioEx);
+      OccurrenceParseResult<NameUsageMatch> result = new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null,
+              null, null);
+      result.addIssue(OccurrenceIssue.INTERPRETATION_ERROR);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,297 @@
+package org.gbif.validation.evaluator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded (in size and in time) cache of remote lookups keyed by a list of nullable strings.
+ *
+ * A {@link LookupCache} can be backed by a snapshot file: entries are read from the file on creation and written back
+ * by {@link #persist()} using the provided {@link Codec}. Loaded entries keep their original write time and expired
+ * entries are dropped.
+ *
+ * Instances are thread-safe and expected to be shared by all the jobs.
+ *
+ * @param <V> type of the cached values
+ */
+class LookupCache<V> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(LookupCache.class);
+
+  static final int DEFAULT_MAX_SIZE = 100000;
+  static final int DEFAULT_TTL_MINUTES = 24 * 60;
+
+  private static final int SNAPSHOT_VERSION = 1;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final long STATS_LOG_INTERVAL = 100000;
+
+  /**
+   * Encodes and decodes the values stored in the snapshot file.
+   *
+   * @param <V> type of the values
+   */
+  interface Codec<V> {
+    String encode(V value) throws IOException;
+
+    V decode(String value) throws IOException;
+  }
+
+  private final String name;
+  private final long ttlMillis;
+  private final Cache<List<String>, Entry<V>> cache;
+  private final Path snapshotFile;
+  private final Codec<V> codec;
+  private final AtomicLong numOfRequests = new AtomicLong();
+
+  /**
+   * Creates a {@link LookupCache} living only in memory.
+   *
+   * @param name name of the cache, used for logging
+   * @param maxSize maximum number of entries kept in the cache
+   * @param ttlMinutes number of minutes an entry is kept in the cache
+   */
+  LookupCache(String name, long maxSize, long ttlMinutes) {
+    this(name, maxSize, ttlMinutes, null, null);
+  }
+
+  /**
+   *
+   * @param name name of the cache, used for logging and to name the snapshot file
+   * @param maxSize maximum number of entries kept in the cache
+   * @param ttlMinutes number of minutes an entry is kept in the cache
+   * @param snapshotFolder folder where the snapshot file is read and written, null to disable persistence
+   * @param codec codec used to read and write the values, required if snapshotFolder is provided
+   */
+  LookupCache(String name, long maxSize, long ttlMinutes, @Nullable Path snapshotFolder, @Nullable Codec<V> codec) {
+    Objects.requireNonNull(name, "name shall be provided");
+    Preconditions.checkArgument(maxSize > 0, "maxSize must be greater than 0");
+    Preconditions.checkArgument(ttlMinutes > 0, "ttlMinutes must be greater than 0");
+    Preconditions.checkArgument(snapshotFolder == null || codec != null,
+            "codec shall be provided if snapshotFolder is provided");
+
+    this.name = name;
+    this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+    this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+            .recordStats()
+            .build();
+    this.snapshotFile = snapshotFolder == null ? null : snapshotFolder.resolve(name + ".snapshot");
+    this.codec = codec;
+
+    if (snapshotFile != null && Files.exists(snapshotFile)) {
+      try {
+        load();
+      } catch (IOException ioEx) {
+        LOG.warn("Can't load the snapshot of the {} cache, starting empty", name, ioEx);
+        cache.invalidateAll();
+      }
+    }
+  }
+
+  /**
+   * Get the value associated with the key, calling the loader if the key is not in the cache.
+   * Concurrent calls with the same key only call the loader once.
+   *
+   * @param key key of the lookup, null elements are allowed
+   * @param loader performs the lookup
+   * @param cacheable values not matching the predicate are returned but not kept in the cache
+   *
+   * @return value associated with the key
+   */
+  V get(List<String> key, Callable<V> loader, Predicate<V> cacheable) {
+    Entry<V> entry = getEntry(key, loader);
+    //entries loaded from a snapshot keep their original write time
+    if (entry.isExpired(ttlMillis)) {
+      cache.asMap().remove(key, entry);
+      entry = getEntry(key, loader);
+    }
+
+    if (!cacheable.test(entry.value)) {
+      cache.invalidate(key);
+    }
+
+    if (numOfRequests.incrementAndGet() % STATS_LOG_INTERVAL == 0) {
+      LOG.info("{} cache: {}", name, getMetrics());
+    }
+    return entry.value;
+  }
+
+  private Entry<V> getEntry(List<String> key, Callable<V> loader) {
+    try {
+      return cache.get(key, () -> new Entry<>(loader.call(), System.currentTimeMillis()));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause());
+      throw new IllegalStateException("Lookup failed in the " + name + " cache", e.getCause());
+    }
+  }
+
+  /**
+   *
+   * @return current size and hit/miss/eviction counts of the cache
+   */
+  LookupCacheMetrics getMetrics() {
+    return new LookupCacheMetrics(name, cache.size(), cache.stats());
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /**
+   *
+   * @return the snapshot file backing this cache, if any
+   */
+  Optional<Path> getSnapshotFile() {
+    return Optional.ofNullable(snapshotFile);
+  }
+
+  /**
+   * Write the entries of the cache to the snapshot file, if any.
+   * The snapshot is written to a temporary file first and then moved in place.
+   * Values that can not be encoded are skipped.
+   *
+   * @throws IOException
+   */
+  void persist() throws IOException {
+    if (snapshotFile == null) {
+      return;
+    }
+
+    Files.createDirectories(snapshotFile.getParent());
+    Path tmpFile = Files.createTempFile(snapshotFile.getParent(), name, ".tmp");
+    try {
+      List<Map.Entry<List<String>, Entry<V>>> entries = new ArrayList<>(cache.asMap().entrySet());
+      int numOfSkippedEntries = 0;
+      try (DataOutputStream out = new DataOutputStream(
+              new BufferedOutputStream(Files.newOutputStream(tmpFile), BUFFER_SIZE))) {
+        out.writeInt(SNAPSHOT_VERSION);
+        for (Map.Entry<List<String>, Entry<V>> entry : entries) {
+          String encodedValue;
+          try {
+            encodedValue = codec.encode(entry.getValue().value);
+          } catch (IOException | RuntimeException ex) {
+            LOG.debug("Can't encode a value of the {} cache, skipping it", name, ex);
+            numOfSkippedEntries++;
+            continue;
+          }
+          out.writeBoolean(true);
+          out.writeLong(entry.getValue().writeTime);
+          out.writeInt(entry.getKey().size());
+          for (String keyElement : entry.getKey()) {
+            writeNullableString(out, keyElement);
+          }
+          writeString(out, encodedValue);
+        }
+        out.writeBoolean(false);
+      }
+      Files.move(tmpFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (numOfSkippedEntries > 0) {
+        LOG.warn("{} entries of the {} cache can't be encoded and were skipped", numOfSkippedEntries, name);
+      }
+      LOG.info("{} entries of the {} cache written to {}", entries.size() - numOfSkippedEntries, name, snapshotFile);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+
+  /**
+   * Read the entries of the snapshot file that are not expired.
+   */
+  private void load() throws IOException {
+    long now = System.currentTimeMillis();
+    int numOfEntries = 0;
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(snapshotFile), BUFFER_SIZE))) {
+      int version = in.readInt();
+      if (version != SNAPSHOT_VERSION) {
+        LOG.warn("Ignoring snapshot {} of unsupported version {}", snapshotFile, version);
+        return;
+      }
+      while (in.readBoolean()) {
+        long writeTime = in.readLong();
+        int keySize = in.readInt();
+        List<String> key = new ArrayList<>(keySize);
+        for (int i = 0; i < keySize; i++) {
+          key.add(readNullableString(in));
+        }
+        String encodedValue = readString(in);
+        if (now - writeTime < ttlMillis) {
+          cache.put(key, new Entry<>(codec.decode(encodedValue), writeTime));
+          numOfEntries++;
+        }
+      }
+    }
+    LOG.info("{} entries of the {} cache loaded from {}", numOfEntries, name, snapshotFile);
+  }
+
+  /**
+   * Write a string prefixed by the length of its UTF-8 bytes.
+   */
+  private static void writeString(DataOutputStream out, String str) throws IOException {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeNullableString(DataOutputStream out, @Nullable String str) throws IOException {
+    out.writeBoolean(str != null);
+    if (str != null) {
+      writeString(out, str);
+    }
+  }
+
+  @Nullable
+  private static String readNullableString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  /**
+   * Value and the time it was written in the cache.
+   */
+  private static class Entry<V> {
+    private final V value;
+    private final long writeTime;
+
+    Entry(V value, long writeTime) {
+      this.value = value;
+      this.writeTime = writeTime;
+    }
+
+    boolean isExpired(long ttlMillis) {
+      return System.currentTimeMillis() - writeTime >= ttlMillis;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.gbif.validation.evaluator;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Immutable snapshot of the size and usage of a lookup cache.
+ */
+public class LookupCacheMetrics {
+
+  private final String name;
+  private final long size;
+  private final CacheStats stats;
+
+  LookupCacheMetrics(String name, long size, CacheStats stats) {
+    this.name = name;
+    this.size = size;
+    this.stats = stats;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Approximate number of entries in the cache.
+   *
+   * @return
+   */
+  public long getSize() {
+    return size;
+  }
+
+  public double getHitRate() {
+    return stats.hitRate();
+  }
+
+  public long getHitCount() {
+    return stats.hitCount();
+  }
+
+  public long getMissCount() {
+    return stats.missCount();
+  }
+
+  public long getEvictionCount() {
+    return stats.evictionCount();
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+            .add("name", name)
+            .add("size", size)
+            .add("hitRate", getHitRate())
+            .add("hitCount", getHitCount())
+            .add("missCount", getMissCount())
+            .add("evictionCount", getEvictionCount())
+            .toString();
+  }
+}
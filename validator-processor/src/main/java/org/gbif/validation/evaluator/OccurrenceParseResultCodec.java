@@ -0,0 +1,68 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.io.IOException;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ArrayNode;
+import org.codehaus.jackson.node.ObjectNode;
+
+/**
+ * {@link LookupCache.Codec} writing successful {@link OccurrenceParseResult} as JSON.
+ * Only the confidence, the issues and the payload are kept.
+ *
+ * @param <T> type of the payload
+ */
+abstract class OccurrenceParseResultCodec<T> implements LookupCache.Codec<OccurrenceParseResult<T>> {
+
+  protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final String CONFIDENCE_FIELD = "confidence";
+  private static final String ISSUES_FIELD = "issues";
+  private static final String PAYLOAD_FIELD = "payload";
+
+  abstract JsonNode encodePayload(T payload) throws IOException;
+
+  abstract T decodePayload(JsonNode payload) throws IOException;
+
+  @Override
+  public String encode(OccurrenceParseResult<T> value) throws IOException {
+    if (!value.isSuccessful()) {
+      throw new IOException("Only successful results can be encoded");
+    }
+    ObjectNode root = MAPPER.createObjectNode();
+    if (value.getConfidence() != null) {
+      root.put(CONFIDENCE_FIELD, value.getConfidence().name());
+    }
+    ArrayNode issues = root.putArray(ISSUES_FIELD);
+    for (OccurrenceIssue issue : value.getIssues()) {
+      issues.add(issue.name());
+    }
+    if (value.getPayload() != null) {
+      root.put(PAYLOAD_FIELD, encodePayload(value.getPayload()));
+    }
+    return MAPPER.writeValueAsString(root);
+  }
+
+  @Override
+  public OccurrenceParseResult<T> decode(String value) throws IOException {
+    JsonNode root = MAPPER.readTree(value);
+    JsonNode confidence = root.get(CONFIDENCE_FIELD);
+    JsonNode payload = root.get(PAYLOAD_FIELD);
+    try {
+      OccurrenceParseResult<T> result = new OccurrenceParseResult<>(ParseResult.STATUS.SUCCESS,
+              confidence == null ? null : ParseResult.CONFIDENCE.valueOf(confidence.getTextValue()),
+              payload == null ? null : decodePayload(payload), null);
+      for (JsonNode issue : root.path(ISSUES_FIELD)) {
+        result.addIssue(OccurrenceIssue.valueOf(issue.getTextValue()));
+      }
+      return result;
+    } catch (IllegalArgumentException iaEx) {
+      throw new IOException("Can't decode " + value, iaEx);
+    }
+  }
+}
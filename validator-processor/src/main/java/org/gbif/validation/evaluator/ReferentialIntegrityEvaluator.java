@@ -6,21 +6,27 @@ import org.gbif.dwc.terms.Term;
 import org.gbif.validation.api.DataFile;
 import org.gbif.validation.api.DwcDataFile;
 import org.gbif.validation.api.RecordCollectionEvaluator;
+import org.gbif.validation.api.RecordSource;
 import org.gbif.validation.api.RowTypeKey;
 import org.gbif.validation.api.TabularDataFile;
 import org.gbif.validation.api.model.EvaluationType;
 import org.gbif.validation.api.model.RecordEvaluationResult;
 import org.gbif.validation.api.model.RecordEvaluationResultDetails;
+import org.gbif.validation.source.RecordSourceFactory;
 import org.gbif.validation.util.FileBashUtilities;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,11 +42,45 @@ class ReferentialIntegrityEvaluator implements RecordCollectionEvaluator {
   private static final Logger LOG = LoggerFactory.getLogger(ReferentialIntegrityEvaluator.class);
   private static final int MAX_SAMPLE = 10;
 
+  //16 bytes per id are kept in memory by the CoreIdentifierIndex fingerprints
+  static final int DEFAULT_MAX_IN_MEMORY_IDS = 10000000;
+
   private final Term extensionRowType;
+  private final Path workingFolder;
+  private final CoreIdentifierIndex coreIdentifierIndex;
+  private final int maxInMemoryIds;
 
   ReferentialIntegrityEvaluator(Term extensionRowType) {
+    this(extensionRowType, null, null, DEFAULT_MAX_IN_MEMORY_IDS);
+  }
+
+  /**
+   *
+   * @param extensionRowType
+   * @param workingFolder folder where temporary files can be written, required if coreIdentifierIndex is provided
+   * @param coreIdentifierIndex if provided, the ids of the core are looked up in it instead of reading the core
+   */
+  ReferentialIntegrityEvaluator(Term extensionRowType, @Nullable Path workingFolder,
+                                @Nullable CoreIdentifierIndex coreIdentifierIndex) {
+    this(extensionRowType, workingFolder, coreIdentifierIndex, DEFAULT_MAX_IN_MEMORY_IDS);
+  }
+
+  /**
+   *
+   * @param extensionRowType
+   * @param workingFolder folder where temporary files can be written, required if coreIdentifierIndex is provided
+   * @param coreIdentifierIndex if provided, the ids of the core are looked up in it instead of reading the core
+   * @param maxInMemoryIds above this number of core ids, a sort-merge join is used instead of the in-memory lookup
+   */
+  ReferentialIntegrityEvaluator(Term extensionRowType, @Nullable Path workingFolder,
+                                @Nullable CoreIdentifierIndex coreIdentifierIndex, int maxInMemoryIds) {
     Objects.requireNonNull(extensionRowType, "extensionRowType shall be provided");
+    Preconditions.checkArgument(coreIdentifierIndex == null || workingFolder != null,
+            "workingFolder shall be provided with a coreIdentifierIndex");
     this.extensionRowType = extensionRowType;
+    this.workingFolder = workingFolder;
+    this.coreIdentifierIndex = coreIdentifierIndex;
+    this.maxInMemoryIds = maxInMemoryIds;
   }
 
   /**
@@ -61,6 +101,16 @@ class ReferentialIntegrityEvaluator implements RecordCollectionEvaluator {
     Preconditions.checkState(extDf != null && extDf.getRecordIdentifier().isPresent(),
             "DwcDataFile extension shall have a record identifier");
 
+    if (coreIdentifierIndex != null &&
+            coreDf.getRowTypeKey().equals(coreIdentifierIndex.getCoreDataFile().getRowTypeKey())) {
+      if (coreIdentifierIndex.getNumOfRecords() > maxInMemoryIds) {
+        evaluateUsingSortMerge(extDf, resultConsumer);
+      } else {
+        evaluateUsingIndex(extDf, resultConsumer);
+      }
+      return;
+    }
+
     String[] matchResult = FileBashUtilities.diffOnColumns(
             coreDf.getFilePath().toString(),
             extDf.getFilePath().toString(),
@@ -86,6 +136,93 @@ class ReferentialIntegrityEvaluator implements RecordCollectionEvaluator {
     notEmptyExtensionResult.stream().forEach(rec -> resultConsumer.accept(buildResult2(extensionRowType, rec)));
   }
 
+  /**
+   * Check the extension against the ids of the {@link CoreIdentifierIndex}.
+   * The extension is read once to find both the unlinked and the empty core ids.
+   * Results are reported in the same order as the command based evaluation.
+   */
+  private void evaluateUsingIndex(TabularDataFile extDf, Consumer<RecordEvaluationResult> resultConsumer)
+          throws IOException {
+    int coreIdIndex = extDf.getRecordIdentifier().get().getIndex();
+    int lineOffset = extDf.isHasHeaders() ? 1 : 0;
+    List<Long> emptyExtensionIdLineNumbers = new ArrayList<>();
+
+    try (CoreIdentifierIndex.IdLookup idLookup = coreIdentifierIndex.newIdLookup();
+         RecordSource recordSource = RecordSourceFactory.fromTabularDataFile(extDf)) {
+      int recordNumber = 0;
+      List<String> record;
+      while ((record = recordSource.read()) != null) {
+        recordNumber++;
+        String coreId = getValue(record, coreIdIndex);
+        if (!idLookup.contains(coreId)) {
+          resultConsumer.accept(buildResult(extensionRowType, coreId));
+        }
+        if (coreId.isEmpty()) {
+          emptyExtensionIdLineNumbers.add((long) recordNumber + lineOffset);
+        }
+      }
+    }
+
+    coreIdentifierIndex.getEmptyIds()
+            .forEach(rec -> resultConsumer.accept(buildResult2(ArchiveFile.DEFAULT_ID_TERM, rec)));
+    CoreIdentifierIndex.readLines(extDf, emptyExtensionIdLineNumbers)
+            .forEach(rec -> resultConsumer.accept(buildResult2(extensionRowType, rec)));
+  }
+
+  /**
+   * Check the extension against the ids of the {@link CoreIdentifierIndex} using a sort-merge anti-join.
+   * The core ids of the extension are sorted externally then merged with the sorted ids of the core, shared by all
+   * the extensions, so the memory used stays bounded whatever the size of the core.
+   * Unlinked core ids of the extension are reported in the order of the ids, not of the file, followed by the empty
+   * ones.
+   */
+  private void evaluateUsingSortMerge(TabularDataFile extDf, Consumer<RecordEvaluationResult> resultConsumer)
+          throws IOException {
+    int coreIdIndex = extDf.getRecordIdentifier().get().getIndex();
+    int lineOffset = extDf.isHasHeaders() ? 1 : 0;
+    List<Long> emptyExtensionIdLineNumbers = new ArrayList<>();
+    String coreName = coreIdentifierIndex.getCoreDataFile().getFilePath().getFileName().toString();
+    String extName = extDf.getFilePath().getFileName().toString();
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    ExternalTupleSorter tupleSorter = new ExternalTupleSorter(workingFolder, ExternalTupleSorter.DEFAULT_RUN_SIZE,
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    try (ExternalTupleSorter.SortedTuples extTuples = tupleSorter.sort(
+            () -> RecordSourceFactory.fromTabularDataFile(extDf), extName,
+            record -> getValue(record, coreIdIndex),
+            record -> "");
+         ExternalTupleSorter.SortedTuples coreTuples = coreIdentifierIndex.newSortedIds()) {
+
+      ExternalTupleSorter.Tuple coreTuple = coreTuples.next();
+      ExternalTupleSorter.Tuple extTuple;
+      while ((extTuple = extTuples.next()) != null) {
+        String coreId = extTuple.getValue();
+        while (coreTuple != null && coreTuple.getValue().compareTo(coreId) < 0) {
+          coreTuple = coreTuples.next();
+        }
+        if (coreTuple == null || !coreTuple.getValue().equals(coreId)) {
+          resultConsumer.accept(buildResult(extensionRowType, coreId));
+        }
+        //tuples with the same value are sorted by line number
+        if (coreId.isEmpty()) {
+          emptyExtensionIdLineNumbers.add(extTuple.getLineNumber() + lineOffset);
+        }
+      }
+    }
+    LOG.info("Sort-merge join of {} on {} done in {} ms", extName, coreName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+
+    CoreIdentifierIndex.readLines(extDf, emptyExtensionIdLineNumbers)
+            .forEach(rec -> resultConsumer.accept(buildResult2(extensionRowType, rec)));
+
+    coreIdentifierIndex.getEmptyIds()
+            .forEach(rec -> resultConsumer.accept(buildResult2(ArchiveFile.DEFAULT_ID_TERM, rec)));
+  }
+
+  private static String getValue(List<String> record, int index) {
+    return index < record.size() && record.get(index) != null ? record.get(index) : "";
+  }
+
   private static RecordEvaluationResult buildResult(Term rowType, String unlinkedId){
     List<RecordEvaluationResultDetails>resultDetails = new ArrayList<>(1);
     resultDetails.add(new RecordEvaluationResultDetails(EvaluationType.RECORD_REFERENTIAL_INTEGRITY_VIOLATION,
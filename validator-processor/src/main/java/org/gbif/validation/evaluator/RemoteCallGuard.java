@@ -0,0 +1,228 @@
+package org.gbif.validation.evaluator;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Protects a remote endpoint with an adaptive concurrency limit and a circuit breaker.
+ *
+ * The concurrency limit follows an AIMD (additive increase, multiplicative decrease) strategy: each call answered
+ * within the latency threshold raises the limit by 1/limit (so by one per window of calls), each slow or failed call
+ * multiplies it by {@link #BACKOFF_RATIO}. Calls waiting more than the acquire timeout for a slot are rejected.
+ *
+ * After a number of consecutive slow or failed calls the circuit opens: all calls are rejected for a fixed duration,
+ * then a single trial call is allowed to decide if the circuit closes again.
+ *
+ * Rejected calls and calls throwing an exception return the fallback value instead of waiting on the endpoint.
+ * Instances are thread-safe and expected to be shared by all the jobs.
+ */
+class RemoteCallGuard {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RemoteCallGuard.class);
+
+  static final int DEFAULT_MIN_LIMIT = 1;
+  static final int DEFAULT_MAX_LIMIT = 200;
+  static final long DEFAULT_LATENCY_THRESHOLD_MS = 2000;
+  static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 5000;
+  static final int DEFAULT_FAILURE_THRESHOLD = 20;
+  static final long DEFAULT_OPEN_DURATION_MS = 30000;
+
+  private static final double BACKOFF_RATIO = 0.9;
+
+  /**
+   * Outcome of the request for a slot.
+   */
+  private enum Permit {REJECTED, GRANTED, TRIAL}
+
+  private final String name;
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final long acquireTimeoutMillis;
+  private final int failureThreshold;
+  private final long openDurationMillis;
+
+  //guarded by this
+  private double limit;
+  private int inFlight;
+  private int consecutiveFailures;
+  private long openUntil;
+  private boolean trialInProgress;
+
+  private final AtomicLong callCount = new AtomicLong();
+  private final AtomicLong failureCount = new AtomicLong();
+  private final AtomicLong rejectionCount = new AtomicLong();
+  private final AtomicLong totalLatencyNanos = new AtomicLong();
+  private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+  /**
+   * Creates a {@link RemoteCallGuard} using the default settings.
+   *
+   * @param name name of the protected endpoint, used for logging and metrics
+   */
+  RemoteCallGuard(String name) {
+    this(name, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_LATENCY_THRESHOLD_MS, DEFAULT_ACQUIRE_TIMEOUT_MS,
+            DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION_MS);
+  }
+
+  /**
+   *
+   * @param name name of the protected endpoint, used for logging and metrics
+   * @param minLimit lowest concurrency limit
+   * @param maxLimit highest concurrency limit, also used as initial limit
+   * @param latencyThresholdMillis calls taking longer are considered as a sign of overload
+   * @param acquireTimeoutMillis maximum time a call waits for a slot before being rejected
+   * @param failureThreshold number of consecutive slow or failed calls opening the circuit
+   * @param openDurationMillis time the circuit stays open before a trial call is allowed
+   */
+  RemoteCallGuard(String name, int minLimit, int maxLimit, long latencyThresholdMillis, long acquireTimeoutMillis,
+                  int failureThreshold, long openDurationMillis) {
+    Objects.requireNonNull(name, "name shall be provided");
+    Preconditions.checkArgument(minLimit > 0, "minLimit must be greater than 0");
+    Preconditions.checkArgument(maxLimit >= minLimit, "maxLimit must be greater or equal to minLimit");
+    Preconditions.checkArgument(latencyThresholdMillis > 0, "latencyThresholdMillis must be greater than 0");
+    Preconditions.checkArgument(acquireTimeoutMillis >= 0, "acquireTimeoutMillis can not be negative");
+    Preconditions.checkArgument(failureThreshold > 0, "failureThreshold must be greater than 0");
+    Preconditions.checkArgument(openDurationMillis >= 0, "openDurationMillis can not be negative");
+
+    this.name = name;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+    this.failureThreshold = failureThreshold;
+    this.openDurationMillis = openDurationMillis;
+    this.limit = maxLimit;
+  }
+
+  /**
+   * Run the call if the circuit is closed and a slot is available within the acquire timeout.
+   *
+   * @param call remote call to protect
+   * @param failed results matching the predicate are counted as failures, exceptions always are
+   * @param fallback value returned when the call is rejected or throws an exception
+   *
+   * @return result of the call or the fallback value
+   */
+  <V> V call(Callable<V> call, Predicate<V> failed, Supplier<V> fallback) {
+    Permit permit = acquire();
+    if (permit == Permit.REJECTED) {
+      rejectionCount.incrementAndGet();
+      return fallback.get();
+    }
+
+    long start = System.nanoTime();
+    V result = null;
+    boolean success = false;
+    try {
+      result = call.call();
+      success = !failed.test(result);
+    } catch (InterruptedException iEx) {
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      LOG.debug("Call to {} failed", name, ex);
+    } finally {
+      release(permit, System.nanoTime() - start, success);
+    }
+    return result == null ? fallback.get() : result;
+  }
+
+  /**
+   * Same as {@link #call(Callable, Predicate, Supplier)} for calls only failing by throwing an exception.
+   */
+  <V> V call(Callable<V> call, Supplier<V> fallback) {
+    return call(call, result -> false, fallback);
+  }
+
+  /**
+   * Wait for a slot, or reject the call if the circuit is open or if no slot is available within the acquire timeout.
+   */
+  private synchronized Permit acquire() {
+    long now = System.currentTimeMillis();
+    if (openUntil > 0) {
+      if (now < openUntil || trialInProgress) {
+        return Permit.REJECTED;
+      }
+      //half-open: let one trial call through
+      trialInProgress = true;
+      inFlight++;
+      return Permit.TRIAL;
+    }
+
+    long deadline = now + acquireTimeoutMillis;
+    while (inFlight >= (int) limit) {
+      long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        return Permit.REJECTED;
+      }
+      try {
+        wait(remaining);
+      } catch (InterruptedException iEx) {
+        Thread.currentThread().interrupt();
+        return Permit.REJECTED;
+      }
+    }
+    inFlight++;
+    return Permit.GRANTED;
+  }
+
+  private synchronized void release(Permit permit, long latencyNanos, boolean success) {
+    inFlight--;
+    recordLatency(latencyNanos);
+
+    boolean overloaded = !success || latencyNanos > latencyThresholdNanos;
+    if (overloaded) {
+      limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      consecutiveFailures++;
+      if (!success) {
+        failureCount.incrementAndGet();
+      }
+    } else {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+      consecutiveFailures = 0;
+    }
+
+    if (permit == Permit.TRIAL) {
+      trialInProgress = false;
+      openUntil = overloaded ? System.currentTimeMillis() + openDurationMillis : 0;
+      if (!overloaded) {
+        LOG.info("Circuit of {} closed", name);
+      }
+    } else if (openUntil == 0 && consecutiveFailures >= failureThreshold) {
+      openUntil = System.currentTimeMillis() + openDurationMillis;
+      LOG.warn("Circuit of {} opened for {} ms after {} consecutive slow or failed calls", name, openDurationMillis,
+              consecutiveFailures);
+    }
+    notifyAll();
+  }
+
+  private void recordLatency(long latencyNanos) {
+    callCount.incrementAndGet();
+    totalLatencyNanos.addAndGet(latencyNanos);
+    maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+  }
+
+  String getName() {
+    return name;
+  }
+
+  /**
+   *
+   * @return current limit, latency and rejection counts of the endpoint
+   */
+  synchronized RemoteCallMetrics getMetrics() {
+    long calls = callCount.get();
+    return new RemoteCallMetrics(name, (int) limit, inFlight, openUntil > 0, calls, failureCount.get(),
+            rejectionCount.get(),
+            calls == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.get() / calls),
+            TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+  }
+}
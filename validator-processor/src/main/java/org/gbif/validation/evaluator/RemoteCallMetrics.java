@@ -0,0 +1,98 @@
+package org.gbif.validation.evaluator;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Immutable snapshot of the concurrency limit, latency and rejections of a remote endpoint.
+ */
+public class RemoteCallMetrics {
+
+  private final String name;
+  private final int limit;
+  private final int inFlight;
+  private final boolean circuitOpen;
+  private final long callCount;
+  private final long failureCount;
+  private final long rejectionCount;
+  private final long meanLatencyMillis;
+  private final long maxLatencyMillis;
+
+  RemoteCallMetrics(String name, int limit, int inFlight, boolean circuitOpen, long callCount, long failureCount,
+                    long rejectionCount, long meanLatencyMillis, long maxLatencyMillis) {
+    this.name = name;
+    this.limit = limit;
+    this.inFlight = inFlight;
+    this.circuitOpen = circuitOpen;
+    this.callCount = callCount;
+    this.failureCount = failureCount;
+    this.rejectionCount = rejectionCount;
+    this.meanLatencyMillis = meanLatencyMillis;
+    this.maxLatencyMillis = maxLatencyMillis;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Current number of concurrent calls allowed.
+   *
+   * @return
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight;
+  }
+
+  public boolean isCircuitOpen() {
+    return circuitOpen;
+  }
+
+  /**
+   * Number of calls sent to the endpoint, including the failed ones.
+   *
+   * @return
+   */
+  public long getCallCount() {
+    return callCount;
+  }
+
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  /**
+   * Number of calls not sent to the endpoint because the circuit was open or no slot was available.
+   *
+   * @return
+   */
+  public long getRejectionCount() {
+    return rejectionCount;
+  }
+
+  public long getMeanLatencyMillis() {
+    return meanLatencyMillis;
+  }
+
+  public long getMaxLatencyMillis() {
+    return maxLatencyMillis;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+            .add("name", name)
+            .add("limit", limit)
+            .add("inFlight", inFlight)
+            .add("circuitOpen", circuitOpen)
+            .add("callCount", callCount)
+            .add("failureCount", failureCount)
+            .add("rejectionCount", rejectionCount)
+            .add("meanLatencyMillis", meanLatencyMillis)
+            .add("maxLatencyMillis", maxLatencyMillis)
+            .toString();
+  }
+}
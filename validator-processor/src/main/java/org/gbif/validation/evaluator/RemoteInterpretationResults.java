@@ -0,0 +1,44 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+
+/**
+ * Helpers to handle the {@link OccurrenceParseResult} of interpretations calling a remote API through a
+ * {@link RemoteCallGuard}.
+ *
+ * The interpreters of occurrence-processor catch the errors of the web services themselves and return an error result
+ * instead of throwing an exception. Such results need to be reported to the {@link RemoteCallGuard} as failures while
+ * a legitimate absence of match (e.g. no name found) is a successful call.
+ */
+final class RemoteInterpretationResults {
+
+  private RemoteInterpretationResults() {
+    //static utility class
+  }
+
+  /**
+   * Does the result represent a failure of the remote call (and not of the interpretation of the value).
+   *
+   * @param result
+   *
+   * @return true if the result is null, has the status {@link ParseResult.STATUS#ERROR} or the issue
+   * {@link OccurrenceIssue#INTERPRETATION_ERROR}
+   */
+  static boolean isRemoteError(OccurrenceParseResult<?> result) {
+    return result == null || ParseResult.STATUS.ERROR == result.getStatus() ||
+           (result.getIssues() != null && result.getIssues().contains(OccurrenceIssue.INTERPRETATION_ERROR));
+  }
+
+  /**
+   * Result used when the remote call is skipped by the {@link RemoteCallGuard}.
+   *
+   * @return new failed result with the issue {@link OccurrenceIssue#INTERPRETATION_ERROR}
+   */
+  static <T> OccurrenceParseResult<T> skipped() {
+    OccurrenceParseResult<T> result = new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null, null, null);
+    result.addIssue(OccurrenceIssue.INTERPRETATION_ERROR);
+    return result;
+  }
+}
@@ -7,18 +7,15 @@ import org.gbif.validation.api.TabularDataFile;
 import org.gbif.validation.api.model.EvaluationType;
 import org.gbif.validation.api.model.RecordEvaluationResult;
 import org.gbif.validation.api.model.RecordEvaluationResultDetails;
-import org.gbif.validation.util.FileBashUtilities;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 
-import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
 
 /**
@@ -27,41 +24,51 @@ import com.google.common.base.Preconditions;
  */
 class UniquenessEvaluator implements RecordCollectionEvaluator {
 
-  private org.gbif.utils.file.FileUtils GBIF_FILE_UTILS = new org.gbif.utils.file.FileUtils();
-
   private final RowTypeKey rowTypeKey;
-  private final Path workingFolder;
+  private final DuplicateFinder duplicateFinder;
+  private final CoreIdentifierIndex coreIdentifierIndex;
 
   /**
    *
    * @param rowTypeKey Term used as identifier for the dataFile (start at 1)
    */
   public UniquenessEvaluator(RowTypeKey rowTypeKey, boolean ignoreCase, Path workingFolder) {
+    this(rowTypeKey, ignoreCase, workingFolder, null);
+  }
+
+  /**
+   *
+   * @param rowTypeKey Term used as identifier for the dataFile (start at 1)
+   * @param coreIdentifierIndex if provided, used instead of reading the file when rowTypeKey targets the core
+   */
+  UniquenessEvaluator(RowTypeKey rowTypeKey, boolean ignoreCase, Path workingFolder,
+                      @Nullable CoreIdentifierIndex coreIdentifierIndex) {
     Preconditions.checkArgument(!ignoreCase, "Case-insensitive check isn't yet supported.");
 
     this.rowTypeKey = rowTypeKey;
-    this.workingFolder = workingFolder;
+    this.duplicateFinder = new DuplicateFinder(workingFolder);
+    this.coreIdentifierIndex = coreIdentifierIndex;
   }
 
   @Override
   public void evaluate(@NotNull DwcDataFile dwcDataFile, Consumer<RecordEvaluationResult> resultConsumer) throws IOException {
 
+    if (coreIdentifierIndex != null && rowTypeKey.equals(coreIdentifierIndex.getCoreDataFile().getRowTypeKey())) {
+      duplicateFinder.findDuplicates(coreIdentifierIndex::newRecordSource,
+              coreIdentifierIndex.getCoreDataFile().getFilePath().getFileName().toString(),
+              coreIdentifierIndex.getNumOfRecords(), CoreIdentifierIndex.ID_COLUMN_INDEX,
+              CoreIdentifierIndex.ID_COLUMN_INDEX, (id, value) -> resultConsumer.accept(buildResult(rowTypeKey, id)));
+      return;
+    }
+
     TabularDataFile dataFile = dwcDataFile.getByRowTypeKey(rowTypeKey);
     Preconditions.checkState(dataFile != null && dataFile.getRecordIdentifier().isPresent(),
             "DwcDataFile {} shall have a record identifier", rowTypeKey);
     int idColumnIndex = dataFile.getRecordIdentifier().get().getIndex();
 
-    File sourceFile = dataFile.getFilePath().toFile();
-    File sortedFile = workingFolder.resolve(sourceFile.getName() + "_sorted").toFile();
-
-    GBIF_FILE_UTILS.sort(sourceFile, sortedFile, Charsets.UTF_8.toString(), idColumnIndex,
-            dataFile.getDelimiterChar().toString(), dataFile.getQuoteChar(), "\n", dataFile.isHasHeaders() ? 1 : 0);
-
     //FIXME doesn't support case insensitive for now
-    List<String[]> result = FileBashUtilities.findDuplicates(sortedFile.getAbsolutePath(), idColumnIndex + 1,
-      idColumnIndex + 1, dataFile.getDelimiterChar().toString(), dataFile.getQuoteChar(), dataFile.getCharacterEncoding());
-
-    result.stream().forEach(rec -> resultConsumer.accept(buildResult(rowTypeKey, rec[0])));
+    duplicateFinder.findDuplicates(dataFile, idColumnIndex, idColumnIndex,
+            (id, value) -> resultConsumer.accept(buildResult(rowTypeKey, id)));
   }
 
   private static RecordEvaluationResult buildResult(RowTypeKey rowTypeKey, String nonUniqueId){
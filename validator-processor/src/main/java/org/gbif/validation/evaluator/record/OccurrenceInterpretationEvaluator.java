@@ -12,9 +12,16 @@ import org.gbif.validation.api.TermIndex;
 import org.gbif.validation.api.model.RecordEvaluationResult;
 import org.gbif.validation.util.OccurrenceToTermsHelper;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -24,6 +31,13 @@ import javax.annotation.concurrent.ThreadSafe;
 import javax.validation.constraints.NotNull;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
@@ -33,16 +47,43 @@ import static org.gbif.validation.evaluator.InterpretationRemarkEvaluationTypeMa
 
 /**
  * Class to evaluate an occurrence record using an {@link OccurrenceInterpreter}.
+ *
+ * The outcome of the interpretation (interpreted data and issues) is memoized by a hash of the mapped values the
+ * interpretation depends on: the record identifier and the terms listed in {@link #NON_INTERPRETED_TERMS} are left
+ * out. Records repeating the interpreted values of a previously interpreted record are not interpreted again but keep
+ * their own line number, record identifier and verbatim data.
+ * Interpretations with the issue {@link OccurrenceIssue#INTERPRETATION_ERROR} (e.g. a remote lookup skipped or failed)
+ * are not memoized so the next record with the same values is interpreted again.
  */
 @ThreadSafe
 public class OccurrenceInterpretationEvaluator implements RecordEvaluator {
 
   private static final Term OCC_ROW_TYPE = DwcTerm.Occurrence;
 
+  public static final int DEFAULT_MAX_MEMOIZED_INTERPRETATIONS = 10000;
+  private static final HashFunction KEY_HASH_FUNCTION = Hashing.murmur3_128();
+  private static final long STATS_LOG_INTERVAL = 100000;
+
+  /**
+   * Identifiers and free text terms the {@link OccurrenceInterpreter} does not read to produce the interpreted data
+   * and the issues reported by this evaluator. They usually differ on each record and are only copied to the verbatim
+   * data of the result.
+   */
+  static final Set<Term> NON_INTERPRETED_TERMS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+          DwcTerm.occurrenceID, DwcTerm.catalogNumber, DwcTerm.otherCatalogNumbers, DwcTerm.recordNumber,
+          DwcTerm.recordedBy, DwcTerm.fieldNumber, DwcTerm.fieldNotes, DwcTerm.eventID, DwcTerm.occurrenceRemarks,
+          DwcTerm.eventRemarks, DwcTerm.locationRemarks, DwcTerm.identificationRemarks, DwcTerm.taxonRemarks,
+          DwcTerm.habitat, DwcTerm.preparations, DwcTerm.disposition, DwcTerm.associatedOccurrences,
+          DwcTerm.associatedSequences, DwcTerm.associatedReferences, DwcTerm.dynamicProperties)));
+
   private final OccurrenceInterpreter interpreter;
   private final Term[] columnMapping;
   private final Map<Term, String> defaultValues;
   private final TermIndex recordIdentifier;
+  //columns part of the memoization key
+  private final boolean[] keyColumns;
+  private final Cache<HashCode, Interpretation> interpretations;
+  private final AtomicLong numOfEvaluations = new AtomicLong();
 
   private static final Logger LOG = LoggerFactory.getLogger(OccurrenceInterpretationEvaluator.class);
 
@@ -59,13 +100,37 @@ public class OccurrenceInterpretationEvaluator implements RecordEvaluator {
   public OccurrenceInterpretationEvaluator(OccurrenceInterpreter interpreter,
                                            Term[] columnMapping, Map<Term, String> defaultValues,
                                            TermIndex recordIdentifier) {
+    this(interpreter, columnMapping, defaultValues, recordIdentifier, DEFAULT_MAX_MEMOIZED_INTERPRETATIONS);
+  }
+
+  /**
+   *
+   * @param interpreter occurrence interpreter
+   * @param columnMapping indices based column mapping. Unmapped column are expected to be represented by null
+   * @param defaultValues
+   * @param recordIdentifier
+   * @param maxMemoizedInterpretations maximum number of interpretations memoized, 0 to disable memoization
+   */
+  public OccurrenceInterpretationEvaluator(OccurrenceInterpreter interpreter,
+                                           Term[] columnMapping, Map<Term, String> defaultValues,
+                                           TermIndex recordIdentifier, int maxMemoizedInterpretations) {
     Validate.notNull(interpreter, "OccurrenceInterpreter must not be null");
     Validate.notNull(columnMapping, "columnMapping must not be null");
+    Validate.isTrue(maxMemoizedInterpretations >= 0, "maxMemoizedInterpretations must not be negative");
 
     this.interpreter = interpreter;
     this.columnMapping = columnMapping;
     this.defaultValues = defaultValues;
     this.recordIdentifier = recordIdentifier;
+    int recordIdentifierIdx = recordIdentifier == null || recordIdentifier.getIndex() == null ?
+            -1 : recordIdentifier.getIndex();
+    this.keyColumns = new boolean[columnMapping.length];
+    for (int i = 0; i < columnMapping.length; i++) {
+      keyColumns[i] = columnMapping[i] != null && i != recordIdentifierIdx &&
+              !NON_INTERPRETED_TERMS.contains(columnMapping[i]);
+    }
+    this.interpretations = maxMemoizedInterpretations == 0 ? null :
+            CacheBuilder.newBuilder().maximumSize(maxMemoizedInterpretations).recordStats().build();
   }
 
   @Override
@@ -76,11 +141,70 @@ public class OccurrenceInterpretationEvaluator implements RecordEvaluator {
     }
 
     VerbatimOccurrence verbatimOccurrence = toVerbatimOccurrence(record);
+    if (interpretations == null) {
+      return toEvaluationResult(lineNumber, interpret(verbatimOccurrence));
+    }
+
+    if (numOfEvaluations.incrementAndGet() % STATS_LOG_INTERVAL == 0) {
+      LOG.info("Interpretation memoization: {}", interpretations.stats());
+    }
+
+    HashCode key = toInterpretationKey(record);
+    Interpretation interpretation = interpretations.getIfPresent(key);
+    if (interpretation == null) {
+      OccurrenceInterpretationResult result = interpret(verbatimOccurrence);
+      interpretation = new Interpretation(result);
+      if (!interpretation.interpretationError) {
+        interpretations.put(key, interpretation);
+      }
+      return toEvaluationResult(lineNumber, result.getUpdated().getVerbatimFields(), interpretation);
+    }
+    return toEvaluationResult(lineNumber, verbatimOccurrence.getVerbatimFields(), interpretation);
+  }
+
+  private OccurrenceInterpretationResult interpret(VerbatimOccurrence verbatimOccurrence) {
     String datasetKey = verbatimOccurrence.getVerbatimField(GbifTerm.datasetKey);
     if (datasetKey != null) {
       verbatimOccurrence.setDatasetKey(UUID.fromString(datasetKey));
     }
-    return toEvaluationResult(lineNumber, interpreter.interpret(verbatimOccurrence, null));
+    return interpreter.interpret(verbatimOccurrence, null);
+  }
+
+  /**
+   * Get the hit and miss counts of the memoized interpretations.
+   *
+   * @return statistics of the memoization, empty if the memoization is disabled
+   */
+  public Optional<CacheStats> getMemoizationStats() {
+    return interpretations == null ? Optional.empty() : Optional.of(interpretations.stats());
+  }
+
+  /**
+   * Computes the key used to memoize the interpretation of a record: a hash of all the mapped values except the
+   * record identifier and the {@link #NON_INTERPRETED_TERMS}.
+   * @param record
+   * @return
+   */
+  @VisibleForTesting
+  protected HashCode toInterpretationKey(@NotNull List<String> record) {
+    Hasher hasher = KEY_HASH_FUNCTION.newHasher();
+    int numOfColumns = Math.min(record.size(), columnMapping.length);
+    for (int i = 0; i < numOfColumns; i++) {
+      if (!keyColumns[i]) {
+        continue;
+      }
+      String value = record.get(i);
+      hasher.putInt(i);
+      if (value == null) {
+        hasher.putInt(-1);
+      } else {
+        hasher.putInt(value.length());
+        hasher.putUnencodedChars(value);
+      }
+    }
+    //records shorter than the column mapping have missing values rather than empty ones
+    hasher.putInt(numOfColumns);
+    return hasher.hash();
   }
 
   /**
@@ -117,15 +241,25 @@ public class OccurrenceInterpretationEvaluator implements RecordEvaluator {
   @VisibleForTesting
   protected RecordEvaluationResult toEvaluationResult(Long lineNumber, OccurrenceInterpretationResult result) {
     LOG.debug("Interpretation result original {} result {}", result.getOriginal(), result.getUpdated());
+    return toEvaluationResult(lineNumber, result.getUpdated().getVerbatimFields(), new Interpretation(result));
+  }
+
+  /**
+   * Creates a RecordEvaluationResult from the verbatim data of a record and an {@link Interpretation}.
+   * @param lineNumber
+   * @param verbatimFields verbatim data of the record
+   * @param interpretation
+   * @return
+   */
+  private RecordEvaluationResult toEvaluationResult(Long lineNumber, Map<Term, String> verbatimFields,
+                                                    Interpretation interpretation) {
     RecordEvaluationResult.Builder builder = RecordEvaluationResult.Builder.of(OCC_ROW_TYPE, lineNumber,
-            recordIdentifier == null ? null : result.getUpdated().getVerbatimField(recordIdentifier.getTerm()));
+            recordIdentifier == null ? null : verbatimFields.get(recordIdentifier.getTerm()));
 
-    Map<Term, String> verbatimFields = result.getUpdated().getVerbatimFields();
     builder.withVerbatimData(verbatimFields);
-    builder.withInterpretedData(OccurrenceToTermsHelper.getTermsMap(result.getUpdated()));
+    builder.withInterpretedData(new HashMap<>(interpretation.interpretedData));
 
-    result.getUpdated().getIssues().stream()
-            .filter(IS_MAPPED)
+    interpretation.issues
             .forEach(issue -> {
               Map<Term, String> relatedData = issue.getRelatedTerms()
                       .stream()
@@ -138,4 +272,22 @@ public class OccurrenceInterpretationEvaluator implements RecordEvaluator {
     return builder.build();
   }
 
+  /**
+   * Outcome of the interpretation of a record that can be shared by records with the same values.
+   */
+  private static class Interpretation {
+    private final Map<Term, Object> interpretedData;
+    private final List<OccurrenceIssue> issues;
+    //the outcome depends on the availability of a remote lookup and shall not be shared
+    private final boolean interpretationError;
+
+    Interpretation(OccurrenceInterpretationResult result) {
+      interpretedData = OccurrenceToTermsHelper.getTermsMap(result.getUpdated());
+      interpretationError = result.getUpdated().getIssues().contains(OccurrenceIssue.INTERPRETATION_ERROR);
+      issues = result.getUpdated().getIssues().stream()
+              .filter(IS_MAPPED)
+              .collect(Collectors.toList());
+    }
+  }
+
 }
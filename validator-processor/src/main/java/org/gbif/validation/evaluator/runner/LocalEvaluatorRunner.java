@@ -16,6 +16,7 @@ import org.gbif.validation.collector.CollectorGroup;
 import org.gbif.validation.collector.CollectorGroupProvider;
 import org.gbif.validation.evaluator.EvaluationChain;
 import org.gbif.validation.evaluator.IndexableRules;
+import org.gbif.validation.evaluator.InterpretingRecordEvaluator;
 import org.gbif.validation.evaluator.ResourceConstitutionEvaluationChain;
 import org.gbif.validation.source.RecordSourceFactory;
 
@@ -69,14 +70,14 @@ public class LocalEvaluatorRunner {
     });
     ec.runRecordCollectionEvaluation((dwcDataFile, rowTypeKey, recordCollectionEvaluator) -> {
       rowTypeCollectors.putIfAbsent(rowTypeKey, new CollectorGroupProvider(rowTypeKey.getRowType(),
-              Arrays.asList(dwcDataFile.getByRowTypeKey(rowTypeKey).getColumns())).newCollectorGroup());
+              Arrays.asList(dwcDataFile.getByRowTypeKey(rowTypeKey).getColumns())).newCollectorGroup(false));
       run(dwcDataFile, rowTypeKey, recordCollectionEvaluator, rowTypeCollectors.get(rowTypeKey));
     });
     try {
       ec.runRecordEvaluation((dataFiles, rowTypeKey, recordEvaluator) -> {
         dataFiles.forEach(df -> {
           rowTypeCollectors.putIfAbsent(rowTypeKey, new CollectorGroupProvider(rowTypeKey.getRowType(),
-                  Arrays.asList(df.getColumns())).newCollectorGroup());
+                  Arrays.asList(df.getColumns())).newCollectorGroup(false));
         });
         run(dataFiles, rowTypeKey, recordEvaluator, rowTypeCollectors.get(rowTypeKey));
       });
@@ -145,6 +146,7 @@ public class LocalEvaluatorRunner {
     //add one if there is a header since the source will not send it
     long lineNumber = dataFile.getFileLineOffset().orElse(0) + (dataFile.isHasHeaders() ? + 1 : 0);
     //log().info("Starting to read: " + dataFile.getFilePath());
+    collectors.setInterpretationLookups(InterpretingRecordEvaluator.getInterpretationLookups(recordEvaluator));
     try (RecordSource recordSource = RecordSourceFactory.fromTabularDataFile(dataFile)) {
       List<String> record;
       while ((record = recordSource.read()) != null) {
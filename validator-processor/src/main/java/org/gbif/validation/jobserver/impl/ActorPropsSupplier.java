@@ -4,23 +4,63 @@ import org.gbif.validation.api.DataFile;
 import org.gbif.validation.evaluator.EvaluatorFactory;
 import org.gbif.validation.processor.DataFileProcessorMaster;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 import akka.actor.Props;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * This class implements the factory properties to build Actor instances based on {@link DataFile}.
+ * The records of all the jobs are evaluated on a single pool owned by this class.
+ * {@link #close()} releases the resources shared by all the actors once the job server is stopped.
  */
-public class ActorPropsSupplier implements Supplier<Props> {
+public class ActorPropsSupplier implements Supplier<Props>, Closeable {
 
+  private static final int DEFAULT_NORMALIZER_THREADS = 1;
+  //record evaluations mostly wait on remote lookups so they get more threads than the workers reading the files
+  public static final int DEFAULT_EVALUATION_THREADS = Runtime.getRuntime().availableProcessors() * 50;
+
+  private final EvaluatorFactory evaluatorFactory;
+  private final ExecutorService evaluationExecutor;
   private final Props props;
 
   /**
    * Default constructor, the parameters received are used to build actor instances.
+   * Files are normalized one after the other.
    */
   public ActorPropsSupplier(EvaluatorFactory evaluatorFactory, Integer fileSplitSize, String workingDir,
                             boolean preserveTemporaryFiles) {
-    props =  DataFileProcessorMaster.createProps(evaluatorFactory, fileSplitSize, workingDir, preserveTemporaryFiles);
+    this(evaluatorFactory, fileSplitSize, DEFAULT_NORMALIZER_THREADS, workingDir, preserveTemporaryFiles);
+  }
+
+  /**
+   * Constructor using {@link #DEFAULT_EVALUATION_THREADS} threads to evaluate the records.
+   */
+  public ActorPropsSupplier(EvaluatorFactory evaluatorFactory, Integer fileSplitSize, Integer normalizerThreads,
+                            String workingDir, boolean preserveTemporaryFiles) {
+    this(evaluatorFactory, fileSplitSize, normalizerThreads, DEFAULT_EVALUATION_THREADS, workingDir,
+            preserveTemporaryFiles);
+  }
+
+  /**
+   * Full constructor, the parameters received are used to build actor instances.
+   *
+   * @param evaluationThreads number of threads evaluating the records, shared by all the jobs
+   */
+  public ActorPropsSupplier(EvaluatorFactory evaluatorFactory, Integer fileSplitSize, Integer normalizerThreads,
+                            Integer evaluationThreads, String workingDir, boolean preserveTemporaryFiles) {
+    Preconditions.checkArgument(evaluationThreads != null && evaluationThreads > 0,
+            "evaluationThreads must be greater than 0");
+    this.evaluatorFactory = evaluatorFactory;
+    evaluationExecutor = Executors.newFixedThreadPool(evaluationThreads,
+            new ThreadFactoryBuilder().setNameFormat("record-evaluation-%d").setDaemon(true).build());
+    props =  DataFileProcessorMaster.createProps(evaluatorFactory, fileSplitSize, normalizerThreads,
+            evaluationExecutor, workingDir, preserveTemporaryFiles);
   }
 
   /**
@@ -30,4 +70,17 @@ public class ActorPropsSupplier implements Supplier<Props> {
   public Props get() {
     return props;
   }
+
+  public EvaluatorFactory getEvaluatorFactory() {
+    return evaluatorFactory;
+  }
+
+  /**
+   * Stops the evaluation pool and closes the {@link EvaluatorFactory}, the lookup caches are persisted if configured.
+   */
+  @Override
+  public void close() throws IOException {
+    evaluationExecutor.shutdownNow();
+    evaluatorFactory.close();
+  }
 }
@@ -16,7 +16,7 @@ import org.gbif.validation.api.model.ValidationErrorCode;
 import org.gbif.validation.api.result.ValidationDataOutput;
 import org.gbif.validation.api.result.ValidationResult;
 import org.gbif.validation.api.result.ValidationResultElement;
-import org.gbif.validation.collector.CollectorGroup;
+import org.gbif.validation.collector.CollectorGroupAggregator;
 import org.gbif.validation.collector.CollectorGroupProvider;
 import org.gbif.validation.evaluator.DwcDataFileSupplier;
 import org.gbif.validation.evaluator.EvaluationChain;
@@ -40,6 +40,7 @@ import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -59,11 +60,12 @@ import static akka.japi.pf.ReceiveBuilder.match;
  */
 public class DataFileProcessorMaster extends AbstractLoggingActor {
 
-  private static final int MAX_WORKER = Runtime.getRuntime().availableProcessors() * 50;
+  private static final int MAX_WORKER = Runtime.getRuntime().availableProcessors() * 2;
+  private static final int MAX_IN_FLIGHT_PER_WORKER = 32;
 
   private final Map<RowTypeKey, TabularDataFile> rowTypeDataFile;
   private final Map<RowTypeKey, CollectorGroupProvider> rowTypeCollectorProviders;
-  private final Map<RowTypeKey, List<CollectorGroup>> rowTypeCollectors;
+  private final Map<RowTypeKey, CollectorGroupAggregator> rowTypeCollectors;
   private final Collection<ValidationResultElement> validationResultElements;
   private final boolean preserveTemporaryFiles;
 
@@ -72,6 +74,10 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
   private final AtomicBoolean initCompleted;
 
   private DataJob<DataFile> dataJob;
+  private EvaluationChain evaluationChain;
+
+  //shared by all the jobs, owned by the creator of this actor
+  private final ExecutorService evaluationExecutor;
 
   //current working directory for the current validation
   private File workingDir;
@@ -79,8 +85,8 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
   /**
    * Full constructor.
    */
-  DataFileProcessorMaster(EvaluatorFactory factory, Integer fileSplitSize, String baseWorkingDir,
-                          boolean preserveTemporaryFiles) {
+  DataFileProcessorMaster(EvaluatorFactory factory, Integer fileSplitSize, Integer normalizerThreads,
+                          ExecutorService evaluationExecutor, String baseWorkingDir, boolean preserveTemporaryFiles) {
 
     rowTypeDataFile = new ConcurrentHashMap<>();
     rowTypeCollectorProviders = new ConcurrentHashMap<>();
@@ -89,6 +95,7 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
     numOfWorkers = new AtomicInteger(0);
     initCompleted = new AtomicBoolean(false);
     validationResultElements = new ConcurrentLinkedQueue<>();
+    this.evaluationExecutor = evaluationExecutor;
     this.preserveTemporaryFiles = preserveTemporaryFiles;
 
     receive(
@@ -97,7 +104,7 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
               dataJob = (DataJob<DataFile>) dataJobMessage;
               workingDir = new File(baseWorkingDir, UUID.randomUUID().toString());
               workingDir.mkdir();
-              processDataFile(factory, fileSplitSize);
+              processDataFile(factory, fileSplitSize, normalizerThreads);
             })
                     .match(DataWorkResult.class, this::processRecordBasedResults)
                     .match(MetadataWorkResult.class, this::processMetadataBasedResults)
@@ -109,13 +116,17 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
    * Creates Actor {@link Props}.
    * @param factory
    * @param fileSplitSize
+   * @param normalizerThreads maximum number of files normalized at the same time
+   * @param evaluationExecutor executor used to evaluate the records, the caller is responsible to shut it down
    * @param baseWorkingDir
    * @param preserveTemporaryFiles
    * @return
    */
-  public static Props createProps(EvaluatorFactory factory, Integer fileSplitSize, String baseWorkingDir,
-                            boolean preserveTemporaryFiles) {
-    return Props.create(DataFileProcessorMaster.class, factory, fileSplitSize, baseWorkingDir, preserveTemporaryFiles);
+  public static Props createProps(EvaluatorFactory factory, Integer fileSplitSize, Integer normalizerThreads,
+                                  ExecutorService evaluationExecutor, String baseWorkingDir,
+                                  boolean preserveTemporaryFiles) {
+    return Props.create(DataFileProcessorMaster.class, factory, fileSplitSize, normalizerThreads, evaluationExecutor,
+            baseWorkingDir, preserveTemporaryFiles);
   }
 
   /**
@@ -123,11 +134,15 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
    *
    * @param factory
    * @param fileSplitSize
+   * @param normalizerThreads
    * @throws IOException
    */
-  private void processDataFile(EvaluatorFactory factory, Integer fileSplitSize) throws Exception {
+  private void processDataFile(EvaluatorFactory factory, Integer fileSplitSize, Integer normalizerThreads)
+          throws Exception {
     DataFile dataFile = dataJob.getJobData();
-    DwcDataFileSupplier transformer = () -> DataFileFactory.prepareDataFile(dataFile, workingDir.toPath());
+    //record the split points while normalizing so the splitter doesn't have to read the files again
+    DwcDataFileSupplier transformer = () -> DataFileFactory.prepareDataFile(dataFile, workingDir.toPath(),
+            fileSplitSize, normalizerThreads);
 
    // final MutableInt numOfWorkers = new MutableInt(0);
     EvaluationChain.Builder evaluationChainBuilder =
@@ -138,7 +153,7 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
                     .evaluateReferentialIntegrity()
                     .evaluateRecords(df -> handleSplit(df, fileSplitSize))
                     .evaluateChecklist();
-    EvaluationChain evaluationChain = evaluationChainBuilder.build();
+    evaluationChain = evaluationChainBuilder.build();
 
     ResourceConstitutionEvaluationChain.ResourceConstitutionResult resourceConstitutionResults;
     try {
@@ -181,7 +196,7 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
    */
   private void init(Iterable<TabularDataFile> dataFiles){
     dataFiles.forEach(df -> {
-      rowTypeCollectors.putIfAbsent(df.getRowTypeKey(), new ArrayList<>());
+      rowTypeCollectors.putIfAbsent(df.getRowTypeKey(), new CollectorGroupAggregator());
       rowTypeDataFile.put(df.getRowTypeKey(), df);
       List<Term> columns = Arrays.asList(df.getColumns());
       rowTypeCollectorProviders.put(df.getRowTypeKey(), new CollectorGroupProvider(df.getRowTypeKey().getRowType(), columns));
@@ -199,7 +214,7 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
   private List<TabularDataFile> handleSplit(final TabularDataFile tabularDataFile, final Integer fileSplitSize) throws IOException {
     List<TabularDataFile> splitDataFile;
     try {
-      splitDataFile = DataFileSplitter.splitDataFile(tabularDataFile, fileSplitSize, workingDir.toPath());
+      splitDataFile = DataFileSplitter.splitDataFile(tabularDataFile, fileSplitSize);
     } catch (IOException ioEx) {
       log().error("Failed to split data", ioEx);
       throw ioEx;
@@ -254,7 +269,8 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
     String actorName = "dataFileRouter_" + UUID.randomUUID();
     return getContext().actorOf(
             new RoundRobinPool(poolSize).props(Props.create(DataFileRecordsActor.class,
-                    recordEvaluator, rowTypeCollectorProviders.get(rowTypeKey))),
+                    recordEvaluator, rowTypeCollectorProviders.get(rowTypeKey), evaluationExecutor,
+                    MAX_IN_FLIGHT_PER_WORKER)),
             actorName);
   }
 
@@ -334,10 +350,11 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
 
   /**
    * Collects individual results and aggregates them in the internal data structures.
+   * The collectors of the result are merged right away so they can be released.
    */
   private void collectResult(DataWorkResult result) {
     rowTypeCollectors.compute(result.getRowTypeKey(), (key, val) -> {
-        val.add(result.getCollectors());
+      val.merge(result.getCollectors());
       return val;
     });
   }
@@ -347,11 +364,10 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
    */
   private ValidationResult buildResult() {
     List<ValidationResultElement> resultElements = new ArrayList<>();
-    rowTypeCollectors.forEach((rowTypeKey, collectorList) -> resultElements.add(
-                                                            CollectorGroup.mergeAndGetResult(
+    rowTypeCollectors.forEach((rowTypeKey, aggregator) -> resultElements.add(
+                                                            aggregator.getResult(
                                                             rowTypeDataFile.get(rowTypeKey),
-                                                            rowTypeDataFile.get(rowTypeKey).getSourceFileName(),
-                                                            collectorList)
+                                                            rowTypeDataFile.get(rowTypeKey).getSourceFileName())
     ));
 
     //merge all ValidationResultElement into those collected by rowType
@@ -418,9 +434,19 @@ public class DataFileProcessorMaster extends AbstractLoggingActor {
   }
 
   /**
-   * Deletes the working directory if it exists.
+   * Logs the usage of the lookup caches by the job, releases the resources shared by the evaluators and deletes the
+   * working directory if it exists.
    */
   private void cleanup() {
+    if (evaluationChain != null) {
+      evaluationChain.getLookupCacheMetrics()
+              .forEach(metrics -> log().info("Job {} lookup cache usage: {}", dataJob.getJobId(), metrics));
+      try {
+        evaluationChain.close();
+      } catch (IOException ioEx) {
+        log().warning("Can't release the resources of the evaluation chain: {}", ioEx.getMessage());
+      }
+    }
     if (!preserveTemporaryFiles && workingDir.exists()) {
       FileUtils.deleteDirectoryRecursively(workingDir);
     }
@@ -8,11 +8,21 @@ import org.gbif.validation.api.model.EvaluationType;
 import org.gbif.validation.api.model.RecordEvaluationResult;
 import org.gbif.validation.collector.CollectorGroup;
 import org.gbif.validation.collector.CollectorGroupProvider;
+import org.gbif.validation.evaluator.InterpretingRecordEvaluator;
 import org.gbif.validation.source.RecordSourceFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
 
 import akka.actor.AbstractLoggingActor;
+import akka.event.LoggingAdapter;
+import com.google.common.base.Preconditions;
 
 import static akka.dispatch.Futures.future;
 import static akka.japi.pf.ReceiveBuilder.match;
@@ -27,16 +37,38 @@ class DataFileRecordsActor extends AbstractLoggingActor {
 
   /**
    * Creates a new instance of {@link DataFileRecordsActor} that can receive {@link DataFile} messages.
+   * Records are evaluated one by one on the thread reading them.
    *
    * @param recordEvaluator    {@link RecordEvaluator} to use on each record of the {@link DataFile}
    * @param collectorsProvider provider of {@link CollectorGroup} to get an new instance for each {@link DataFile}
    *                           messages.
    */
   DataFileRecordsActor(RecordEvaluator recordEvaluator, CollectorGroupProvider collectorsProvider) {
+    this(recordEvaluator, collectorsProvider, null, 0);
+  }
+
+  /**
+   * Creates a new instance of {@link DataFileRecordsActor} that can receive {@link DataFile} messages.
+   * If an evaluationExecutor is provided, records are evaluated on it while the next records are read. At most
+   * maxInFlight records of a {@link DataFile} are evaluated at the same time and results are collected in the order of
+   * the records.
+   *
+   * @param recordEvaluator    {@link RecordEvaluator} to use on each record of the {@link DataFile}
+   * @param collectorsProvider provider of {@link CollectorGroup} to get an new instance for each {@link DataFile}
+   *                           messages.
+   * @param evaluationExecutor executor used to evaluate the records, null to evaluate them on the reading thread
+   * @param maxInFlight        maximum number of records of a {@link DataFile} evaluated at the same time
+   */
+  DataFileRecordsActor(RecordEvaluator recordEvaluator, CollectorGroupProvider collectorsProvider,
+                       @Nullable ExecutorService evaluationExecutor, int maxInFlight) {
+    Preconditions.checkArgument(evaluationExecutor == null || maxInFlight > 0,
+            "maxInFlight must be greater than 0 when an evaluationExecutor is provided");
     receive(
             match(TabularDataFile.class, dataFile -> {
+              //the group is only fed by the thread running processDataFile, results are merged by the master
               pipe(
-                      future(() -> processDataFile(dataFile, recordEvaluator, collectorsProvider.newCollectorGroup()),
+                      future(() -> processDataFile(dataFile, recordEvaluator, collectorsProvider.newCollectorGroup(false),
+                              evaluationExecutor, maxInFlight, log()),
                               getContext().dispatcher()),
                       getContext().dispatcher()
               ).to(sender());
@@ -46,6 +78,19 @@ class DataFileRecordsActor extends AbstractLoggingActor {
     );
   }
 
+  /**
+   * Evaluation of a record running on the evaluationExecutor.
+   */
+  private static class InFlightEvaluation {
+    private final long lineNumber;
+    private final Future<RecordEvaluationResult> result;
+
+    InFlightEvaluation(long lineNumber, Future<RecordEvaluationResult> result) {
+      this.lineNumber = lineNumber;
+      this.result = result;
+    }
+  }
+
   /**
    * Process a {@link DataFile} by opening a {@link RecordSource} and evaluating all records
    * using a {@link RecordEvaluator}. All records and evaluation results are also sent to the {@link CollectorGroup}.
@@ -53,12 +98,18 @@ class DataFileRecordsActor extends AbstractLoggingActor {
    * @param dataFile
    * @param recordEvaluator
    * @param collectors
+   * @param log
    * @return
    */
-  private DataWorkResult processDataFile(TabularDataFile dataFile, RecordEvaluator recordEvaluator, CollectorGroup collectors) {
+  static DataWorkResult processDataFile(TabularDataFile dataFile, RecordEvaluator recordEvaluator,
+                                        CollectorGroup collectors, @Nullable ExecutorService evaluationExecutor,
+                                        int maxInFlight, LoggingAdapter log) {
     //add one if there is a header since the source will not send it
     long lineNumber = dataFile.getFileLineOffset().orElse(0) + (dataFile.isHasHeaders() ? + 1 : 0);
-    log().info("Starting to read: " + dataFile.getFilePath());
+    log.info("Starting to read: " + dataFile.getFilePath() + " from line " + lineNumber + " (including offset)");
+    collectors.setInterpretationLookups(InterpretingRecordEvaluator.getInterpretationLookups(recordEvaluator));
+    //the oldest evaluation is only removed once its result is collected
+    Deque<InFlightEvaluation> inFlight = new ArrayDeque<>();
     try (RecordSource recordSource = RecordSourceFactory.fromTabularDataFile(dataFile)) {
       List<String> record;
       while ((record = recordSource.read()) != null) {
@@ -66,18 +117,56 @@ class DataFileRecordsActor extends AbstractLoggingActor {
         //the counter before reporting the line number
         lineNumber++;
         collectors.collectMetrics(record);
-        collectors.collectResult(recordEvaluator.evaluate(lineNumber, record));
+        if (evaluationExecutor == null) {
+          collectors.collectResult(recordEvaluator.evaluate(lineNumber, record));
+        } else {
+          //wait for the oldest evaluation before reading further
+          if (inFlight.size() == maxInFlight) {
+            collectors.collectResult(inFlight.peek().result.get());
+            inFlight.poll();
+          }
+          long recordLineNumber = lineNumber;
+          //the source may reuse the list once the next record is read
+          List<String> recordToEvaluate = new ArrayList<>(record);
+          inFlight.add(new InFlightEvaluation(recordLineNumber,
+                  evaluationExecutor.submit(() -> recordEvaluator.evaluate(recordLineNumber, recordToEvaluate))));
+        }
+      }
+      while (!inFlight.isEmpty()) {
+        collectors.collectResult(inFlight.peek().result.get());
+        inFlight.poll();
       }
-      log().info("Done reading: " + dataFile.getFilePath() + " finished at line " + lineNumber + " (including offset)");
+      log.info("Done reading: " + dataFile.getFilePath() + " finished at line " + lineNumber + " (including offset)");
       return new DataWorkResult(dataFile.getRowTypeKey(), dataFile.getSourceFileName(), DataWorkResult.Result.SUCCESS, collectors);
 
       //TODO
-    } catch (Exception ex) {
-      log().error("Error while evaluating line {} of {}: {} : {}", lineNumber, dataFile.getFilePath(), ex.getClass(), ex.getMessage());
-      collectors.collectResult(RecordEvaluationResult.Builder.of(dataFile.getRowTypeKey().getRowType(), lineNumber)
-              .addBaseDetail(EvaluationType.UNREADABLE_SECTION_ERROR, "", "").build());
+    } catch (InterruptedException ex) {
+      //the job is being stopped, don't wait for the pending evaluations
+      Thread.currentThread().interrupt();
+      inFlight.forEach(e -> e.result.cancel(true));
+      log.warning("Interrupted while evaluating line {} of {}", lineNumber, dataFile.getFilePath());
       return new DataWorkResult(dataFile.getRowTypeKey(), dataFile.getSourceFileName(), DataWorkResult.Result.FAILED, collectors);
+    } catch (ExecutionException ex) {
+      //the evaluation of the oldest record failed
+      InFlightEvaluation failed = inFlight.poll();
+      inFlight.forEach(e -> e.result.cancel(true));
+      return onError(dataFile, collectors, failed.lineNumber, ex.getCause() != null ? ex.getCause() : ex, log);
+    } catch (Exception ex) {
+      inFlight.forEach(e -> e.result.cancel(true));
+      return onError(dataFile, collectors, lineNumber, ex, log);
     }
   }
 
+  /**
+   * Report the line that could not be read or evaluated as {@link EvaluationType#UNREADABLE_SECTION_ERROR}.
+   */
+  private static DataWorkResult onError(TabularDataFile dataFile, CollectorGroup collectors, long lineNumber,
+                                        Throwable error, LoggingAdapter log) {
+    log.error("Error while evaluating line {} of {}: {} : {}", lineNumber, dataFile.getFilePath(), error.getClass(),
+            error.getMessage());
+    collectors.collectResult(RecordEvaluationResult.Builder.of(dataFile.getRowTypeKey().getRowType(), lineNumber)
+            .addBaseDetail(EvaluationType.UNREADABLE_SECTION_ERROR, "", "").build());
+    return new DataWorkResult(dataFile.getRowTypeKey(), dataFile.getSourceFileName(), DataWorkResult.Result.FAILED, collectors);
+  }
+
 }
@@ -1,79 +1,163 @@
 package org.gbif.validation.processor;
 
 import org.gbif.validation.api.DataFile;
+import org.gbif.validation.api.RecordBoundary;
 import org.gbif.validation.api.TabularDataFile;
 import org.gbif.validation.source.DataFileFactory;
-import org.gbif.validation.util.FileBashUtilities;
+import org.gbif.validation.util.FileNormalizer;
+import org.gbif.validation.util.RecordBoundaryScanner;
+import org.gbif.validation.util.RecordFormat;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.IntStream;
 
 /**
  * Class responsible to handle the logic related to the file splitting strategy.
+ *
+ * Splitting is done in-process in a single pass over the normalized file. A {@link RecordBoundaryScanner} is used
+ * to make sure a split is only created on a record boundary so a quoted value containing end line characters is never
+ * cut in 2 splits. Files using a non ASCII delimiter or quote character can not be scanned and are split on lines.
+ *
+ * Splits are virtual: no file is written, each split is a byte window on the normalized file.
+ * If the {@link RecordBoundary} of the file were recorded during normalization, they are used directly and the file
+ * is not read again.
  */
 class DataFileSplitter {
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int LF = FileNormalizer.END_LINE.charAt(0);
+
   /**
    * Split the provided {@link TabularDataFile} into multiple {@link TabularDataFile} if required.
    * If no split is required the returning list will contain the provided {@link TabularDataFile}.
    *
+   * Each split will contain at least fileSplitSize lines, unless it is the last one. A split will contain more lines
+   * than fileSplitSize if the last record of the split spans over multiple lines.
+   *
    * @param dataFile expected to have at least the followings: rowType, filePath, numOfLines, hasHeaders
    * @param fileSplitSize
-   * @param baseDir       Base directory where to store the results. A folder like "Occurrence_split" will be created.
    *
    * @return
    *
    * @throws IOException
    */
-  static List<TabularDataFile> splitDataFile(TabularDataFile dataFile, Integer fileSplitSize, Path baseDir) throws IOException {
+  static List<TabularDataFile> splitDataFile(TabularDataFile dataFile, Integer fileSplitSize) throws IOException {
     Objects.requireNonNull(dataFile.getRowTypeKey(), "DataFile getRowTypeKey shall be provided");
     Objects.requireNonNull(dataFile.getFilePath(), "DataFile filePath shall be provided");
 
     List<TabularDataFile> splitDataFiles = new ArrayList<>();
     if (dataFile.getNumOfLines() <= fileSplitSize) {
       splitDataFiles.add(dataFile);
+    } else if (dataFile.getRecordBoundaries().isPresent()) {
+      splitOnRecordBoundaries(dataFile, dataFile.getRecordBoundaries().get(), fileSplitSize, splitDataFiles);
     } else {
-      String splitFolder = baseDir.resolve(dataFile.getRowTypeKey().name() + "_split").toAbsolutePath().toString();
-      String[] splits = FileBashUtilities.splitFile(dataFile.getFilePath().toString(), fileSplitSize, splitFolder);
-
-      boolean inputHasHeaders = dataFile.isHasHeaders();
-      //number of lines in the last file
-      int remainingLines =  dataFile.getNumOfLines() - ((splits.length - 1) * fileSplitSize);
-      IntStream.range(0, splits.length)
-              .forEach(idx -> splitDataFiles.add(newSplitDataFile(dataFile,
-                      splitFolder,
-                      splits[idx],
-                      inputHasHeaders && (idx == 0),
-                      (idx * fileSplitSize),
-                      idx < splits.length -1 ? fileSplitSize : remainingLines)));
+      splitFile(dataFile, fileSplitSize, splitDataFiles);
     }
     return splitDataFiles;
   }
 
+  /**
+   * Compute the splits from the known {@link RecordBoundary} of the file without reading it.
+   * Boundaries closer than fileSplitSize lines from the previous split point are skipped.
+   *
+   * @param dataFile
+   * @param recordBoundaries
+   * @param fileSplitSize
+   * @param splitDataFiles list where to add the {@link TabularDataFile} of each split
+   *
+   * @throws IOException
+   */
+  private static void splitOnRecordBoundaries(TabularDataFile dataFile, List<RecordBoundary> recordBoundaries,
+                                              int fileSplitSize, List<TabularDataFile> splitDataFiles)
+          throws IOException {
+    long fileSize = Files.size(dataFile.getFilePath());
+    long startByte = 0;
+    int lineOffset = 0;
+    for (RecordBoundary boundary : recordBoundaries) {
+      int numberOfLines = boundary.getLineOffset() - lineOffset;
+      if (numberOfLines >= fileSplitSize && boundary.getByteOffset() < fileSize) {
+        splitDataFiles.add(newSplitDataFile(dataFile, startByte, boundary.getByteOffset(), splitDataFiles.isEmpty(),
+                lineOffset, numberOfLines));
+        startByte = boundary.getByteOffset();
+        lineOffset = boundary.getLineOffset();
+      }
+    }
+
+    //remaining lines
+    if (fileSize > startByte) {
+      splitDataFiles.add(newSplitDataFile(dataFile, startByte, fileSize, splitDataFiles.isEmpty(),
+              lineOffset, dataFile.getNumOfLines() - lineOffset));
+    }
+  }
+
+  /**
+   * Read the file of the provided {@link TabularDataFile} once and compute the byte window of each split while
+   * tracking the record boundaries.
+   *
+   * @param dataFile
+   * @param fileSplitSize
+   * @param splitDataFiles list where to add the {@link TabularDataFile} of each split
+   *
+   * @throws IOException
+   */
+  private static void splitFile(TabularDataFile dataFile, int fileSplitSize,
+                                List<TabularDataFile> splitDataFiles) throws IOException {
+    //null if the format can not be scanned on bytes, in which case we split on lines
+    RecordBoundaryScanner scanner = new RecordFormat(dataFile.getDelimiterChar(), dataFile.getQuoteChar()).newScanner();
+    byte[] buffer = new byte[BUFFER_SIZE];
+
+    long position = 0;
+    long startByte = 0;
+    int lineOffset = 0;
+    int numberOfLines = 0;
+    try (InputStream in = Files.newInputStream(dataFile.getFilePath())) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        for (int i = 0; i < read; i++) {
+          position++;
+          int b = buffer[i] & 0xFF;
+          boolean endOfRecord = scanner == null ? b == LF : scanner.accept(b);
+          if (b == LF) {
+            numberOfLines++;
+          }
+          if (endOfRecord && numberOfLines >= fileSplitSize) {
+            splitDataFiles.add(newSplitDataFile(dataFile, startByte, position, splitDataFiles.isEmpty(),
+                    lineOffset, numberOfLines));
+            startByte = position;
+            lineOffset += numberOfLines;
+            numberOfLines = 0;
+          }
+        }
+      }
+    }
+
+    //remaining lines
+    if (position > startByte) {
+      splitDataFiles.add(newSplitDataFile(dataFile, startByte, position, splitDataFiles.isEmpty(),
+              lineOffset, numberOfLines));
+    }
+  }
+
   /**
    * Get a new {@link DataFile} instance representing a split of the provided {@link DataFile}.
    *
    * @param dataFile
-   * @param baseDir
-   * @param fileName
-   * @param withHeader
+   * @param startByte
+   * @param endByte
+   * @param isFirstSplit
    * @param offset
+   * @param numberOfLines
    *
    * @return new {@link DataFile} representing a portion of the provided dataFile.
    */
-  private static TabularDataFile newSplitDataFile(TabularDataFile dataFile, String baseDir, String fileName,
-                                           boolean withHeader, Integer offset, Integer numberOfLines) {
-    //Creates the file to be used
-    File splitFile = new File(baseDir, fileName);
-    splitFile.deleteOnExit();
-
-    return DataFileFactory.newTabularDataFileSplit(dataFile, Paths.get(splitFile.getAbsolutePath()),
-            offset, numberOfLines, numberOfLines - (withHeader ? 1 : 0) , withHeader);
+  private static TabularDataFile newSplitDataFile(TabularDataFile dataFile, long startByte, long endByte,
+                                                  boolean isFirstSplit, Integer offset, Integer numberOfLines) {
+    boolean withHeader = dataFile.isHasHeaders() && isFirstSplit;
+    return DataFileFactory.newTabularDataFileSplit(dataFile, startByte, endByte,
+            offset, numberOfLines, numberOfLines - (withHeader ? 1 : 0), withHeader);
   }
 }
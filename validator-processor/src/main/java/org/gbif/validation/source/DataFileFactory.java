@@ -8,12 +8,15 @@ import org.gbif.dwc.UnsupportedArchiveException;
 import org.gbif.utils.file.csv.UnknownDelimitersException;
 import org.gbif.validation.api.DataFile;
 import org.gbif.validation.api.DwcDataFile;
+import org.gbif.validation.api.RecordBoundary;
 import org.gbif.validation.api.RowTypeKey;
 import org.gbif.validation.api.TabularDataFile;
 import org.gbif.validation.api.TermIndex;
 import org.gbif.validation.api.vocabulary.DwcFileType;
 import org.gbif.validation.api.vocabulary.FileFormat;
+import org.gbif.validation.util.FileNormalizationResult;
 import org.gbif.validation.util.FileNormalizer;
+import org.gbif.validation.util.RecordFormat;
 import org.gbif.ws.util.ExtraMediaTypes;
 
 import java.io.FileNotFoundException;
@@ -31,6 +34,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.StringUtils;
@@ -87,23 +91,24 @@ public class DataFileFactory {
 
   /**
    * Used to create a new {@link TabularDataFile} representing a portion of a larger {@link TabularDataFile}
-   * after a split.
+   * after a split. The split is a byte window on the file of the provided {@link TabularDataFile}, no copy is made.
    * @param tabDatafile normalized {@link TabularDataFile}
-   * @param splitFilePath
+   * @param startByte position (inclusive) of the first byte of the split
+   * @param endByte position (exclusive) of the last byte of the split
    * @param lineOffset
    * @param numberOfLines
    * @param withHeader
    * @return
    */
-  public static TabularDataFile newTabularDataFileSplit(TabularDataFile tabDatafile, Path splitFilePath,
+  public static TabularDataFile newTabularDataFileSplit(TabularDataFile tabDatafile, long startByte, long endByte,
                                                         Integer lineOffset, Integer numberOfLines,
                                                         Integer numberOfLinesWithData, boolean withHeader) {
-    return new TabularDataFile(splitFilePath,
+    return new TabularDataFile(tabDatafile.getFilePath(),
             tabDatafile.getSourceFileName(),
             tabDatafile.getRowTypeKey(), tabDatafile.getColumns(),
             tabDatafile.getRecordIdentifier().orElse(null), tabDatafile.getDefaultValues().orElse(null),
             lineOffset, withHeader, tabDatafile.getCharacterEncoding(), tabDatafile.getDelimiterChar(),
-            tabDatafile.getQuoteChar(), numberOfLines, numberOfLinesWithData);
+            tabDatafile.getQuoteChar(), numberOfLines, numberOfLinesWithData, startByte, endByte, null);
   }
 
   /**
@@ -120,13 +125,34 @@ public class DataFileFactory {
    */
   public static DwcDataFile prepareDataFile(DataFile dataFile, Path destinationFolder) throws IOException,
           UnsupportedDataFileException {
+    return prepareDataFile(dataFile, destinationFolder, 0, 1);
+  }
+
+  /**
+   * Prepare the {@link DataFile} for evaluation.
+   * See {@link #prepareDataFile(DataFile, Path)}.
+   *
+   * @param dataFile
+   * @param destinationFolder Preparing {@link DataFile} includes rewriting them in a normalized format. This {@link Path}
+   *                          represents the destination of normalized files.
+   * @param recordBoundaryInterval minimum number of lines between 2 {@link RecordBoundary} recorded while normalizing
+   *                               the files. Usually the size of the splits, 0 to not record boundaries.
+   * @param normalizerThreads maximum number of files normalized at the same time
+   * @return unvalidated {@link DwcDataFile}
+   * @throws IOException
+   * @throws UnsupportedDataFileException
+   */
+  public static DwcDataFile prepareDataFile(DataFile dataFile, Path destinationFolder, int recordBoundaryInterval,
+                                            int normalizerThreads)
+          throws IOException, UnsupportedDataFileException {
     Objects.requireNonNull(dataFile.getFilePath(), "filePath shall be provided");
     Objects.requireNonNull(dataFile.getFileFormat(), "fileFormat shall be provided");
     Objects.requireNonNull(destinationFolder, "destinationFolder shall be provided");
     Preconditions.checkState(Files.isDirectory(destinationFolder), "destinationFolder should point to a folder");
 
     DataFilePreview dataFilePreview = DataFilePreview.extractFrom(dataFile);
-    List<TabularDataFile> dataFileList = normalizeAndPrepare(dataFile, destinationFolder, dataFilePreview);
+    List<TabularDataFile> dataFileList = normalizeAndPrepare(dataFile, destinationFolder, dataFilePreview,
+            recordBoundaryInterval, normalizerThreads);
 
     Map<DwcFileType, List<TabularDataFile>> dfPerDwcFileType = dataFileList.stream()
             .collect(Collectors.groupingBy( df -> df.getRowTypeKey().getDwcFileType()));
@@ -151,7 +177,9 @@ public class DataFileFactory {
    * @return list of prepared {@link TabularDataFile}
    */
   private static List<TabularDataFile> normalizeAndPrepare(DataFile dataFile, Path destinationFolder,
-                                                           DataFilePreview dataFilePreview)
+                                                           DataFilePreview dataFilePreview,
+                                                           int recordBoundaryInterval,
+                                                           int normalizerThreads)
           throws IOException, UnsupportedDataFileException {
 
     //Spreadsheet is a special case since the crawling will not take it at the moment
@@ -159,11 +187,21 @@ public class DataFileFactory {
       SpreadsheetConversionResult conversionResult = handleSpreadsheetConversion(dataFile, destinationFolder);
       Map<Path, Integer> pathAndLines = new HashMap<>();
       pathAndLines.put(conversionResult.getResultPath().getFileName(), conversionResult.getNumOfLines());
-      return prepareDwcBased(conversionResult.getResultPath(), dataFile, pathAndLines);
+      return prepareDwcBased(conversionResult.getResultPath(), dataFile, pathAndLines, new HashMap<>());
     } else {
-      Map<Path, Integer> normalizedFiles = FileNormalizer.normalizeTarget(dataFile.getFilePath(),
-              destinationFolder, dataFilePreview.getCharsetsByPath());
-      return prepareDwcBased(destinationFolder, dataFile, normalizedFiles);
+      Map<Path, FileNormalizationResult> normalizedFiles = FileNormalizer.normalizeTarget(dataFile.getFilePath(),
+              destinationFolder, dataFilePreview.getCharsetsByPath(), dataFilePreview.getRecordFormatsByPath(),
+              recordBoundaryInterval, normalizerThreads);
+      Map<Path, Integer> pathAndLines = new HashMap<>();
+      Map<Path, List<RecordBoundary>> pathAndBoundaries = new HashMap<>();
+      normalizedFiles.forEach((path, result) -> {
+        pathAndLines.put(path, result.getNumOfLines());
+        //no boundaries means unknown, the file will be scanned if it needs to be split
+        if (!result.getRecordBoundaries().isEmpty()) {
+          pathAndBoundaries.put(path, result.getRecordBoundaries());
+        }
+      });
+      return prepareDwcBased(destinationFolder, dataFile, pathAndLines, pathAndBoundaries);
     }
   }
 
@@ -174,11 +212,13 @@ public class DataFileFactory {
    * @param pathToOpen       folder of an extracted DarwinCore Archive or a single tabular file
    * @param originalDataFile
    * @param pathAndLines     mapping between all {@link Path} and their number of lines
+   * @param pathAndBoundaries mapping between {@link Path} and their {@link RecordBoundary} (if known)
    *
    * @return
    */
   private static List<TabularDataFile> prepareDwcBased(Path pathToOpen, DataFile originalDataFile,
-                                                       Map<Path, Integer> pathAndLines)
+                                                       Map<Path, Integer> pathAndLines,
+                                                       Map<Path, List<RecordBoundary>> pathAndBoundaries)
           throws IOException, UnsupportedDataFileException {
 
     List<TabularDataFile> dataFileList = new ArrayList<>();
@@ -188,14 +228,16 @@ public class DataFileFactory {
       //add the core first, if there is no core the exception must be handled by the caller
       ArchiveFile core = archive.getCore();
       if (core != null) {
+        Path corePath = Paths.get(safeGetCoreLocation(archive));
         dataFileList.add(createDwcBasedTabularDataFile(core,
                 determineSourceFilename(originalDataFile, core),
-                DwcFileType.CORE, pathAndLines.get(Paths.get(safeGetCoreLocation(archive)))));
+                DwcFileType.CORE, pathAndLines.get(corePath), pathAndBoundaries.get(corePath)));
       }
       for (ArchiveFile ext : archive.getExtensions()) {
+        Path extPath = Paths.get(ext.getLocation());
         dataFileList.add(createDwcBasedTabularDataFile(ext,
                 ext.getLocationFile().getName(), DwcFileType.EXTENSION,
-                pathAndLines.get(Paths.get(ext.getLocation()))));
+                pathAndLines.get(extPath), pathAndBoundaries.get(extPath)));
       }
     } catch (UnknownDelimitersException | UnsupportedArchiveException ex) {
       //re-throw the exception as UnsupportedDataFileException
@@ -211,13 +253,16 @@ public class DataFileFactory {
    * @param sourceFileName
    * @param type
    * @param numberOfLines
+   * @param recordBoundaries
    * @return
    * @throws IOException
    */
   private static TabularDataFile createDwcBasedTabularDataFile(ArchiveFile archiveFile,
                                                                String sourceFileName,
                                                                DwcFileType type,
-                                                               Integer numberOfLines) throws IOException {
+                                                               Integer numberOfLines,
+                                                               @Nullable List<RecordBoundary> recordBoundaries)
+          throws IOException {
     //make sure the file really exists
     if(!archiveFile.getLocationFile().exists()) {
       throw new FileNotFoundException(archiveFile.getLocation());
@@ -245,7 +290,8 @@ public class DataFileFactory {
             ignoreHeaderLines > 0,
             Charset.forName(archiveFile.getEncoding()),
             archiveFile.getFieldsTerminatedBy().charAt(0),
-            archiveFile.getFieldsEnclosedBy(), numberOfLines, numberOfLines - ignoreHeaderLines);
+            archiveFile.getFieldsEnclosedBy(), numberOfLines, numberOfLines - ignoreHeaderLines,
+            null, null, recordBoundaries);
   }
 
   /**
@@ -332,11 +378,14 @@ public class DataFileFactory {
   private static class DataFilePreview {
 
     private final Map<Path, Charset> charsetsByPath;
+    private final Map<Path, RecordFormat> recordFormatsByPath;
     private final Path metadataFilePath;
 
-    private DataFilePreview(Path metadataFilePath, Map<Path, Charset> charsetsByPath) {
+    private DataFilePreview(Path metadataFilePath, Map<Path, Charset> charsetsByPath,
+                            Map<Path, RecordFormat> recordFormatsByPath) {
       this.metadataFilePath = metadataFilePath;
       this.charsetsByPath = charsetsByPath;
+      this.recordFormatsByPath = recordFormatsByPath;
     }
 
     /**
@@ -349,6 +398,7 @@ public class DataFileFactory {
      */
     static DataFilePreview extractFrom(DataFile dataFile) throws IOException, UnsupportedCharsetException, UnsupportedArchiveException {
       Map<Path, Charset> charsetsByPath = new HashMap<>();
+      Map<Path, RecordFormat> recordFormatsByPath = new HashMap<>();
       Path metadataFilePath = null;
 
       if(dataFile.getFileFormat().isTabularBased()) {
@@ -360,17 +410,32 @@ public class DataFileFactory {
 
           ArchiveFile core = archive.getCore();
           if (core != null) {
-            extractCharset(core.getEncoding()).ifPresent(cs -> charsetsByPath.put(Paths.get(safeGetCoreLocation(archive)), cs));
+            Path corePath = Paths.get(safeGetCoreLocation(archive));
+            extractCharset(core.getEncoding()).ifPresent(cs -> charsetsByPath.put(corePath, cs));
+            recordFormatsByPath.put(corePath, extractRecordFormat(core));
           }
           for (ArchiveFile ext : archive.getExtensions()) {
-            extractCharset(ext.getEncoding()).ifPresent(cs -> charsetsByPath.put(Paths.get(safeGetCoreLocation(archive)), cs));
+            Path extPath = Paths.get(ext.getLocation());
+            extractCharset(ext.getEncoding()).ifPresent(cs -> charsetsByPath.put(extPath, cs));
+            recordFormatsByPath.put(extPath, extractRecordFormat(ext));
           }
         } catch (UnknownDelimitersException ignore) {
           //ignore, it is not the purpose of this function
         }
       }
 
-      return new DataFilePreview(metadataFilePath, charsetsByPath);
+      return new DataFilePreview(metadataFilePath, charsetsByPath, recordFormatsByPath);
+    }
+
+    /**
+     * Get the {@link RecordFormat} of an {@link ArchiveFile}.
+     * @param archiveFile
+     * @return
+     */
+    private static RecordFormat extractRecordFormat(ArchiveFile archiveFile) {
+      String delimiter = archiveFile.getFieldsTerminatedBy();
+      return new RecordFormat(StringUtils.isEmpty(delimiter) ? null : delimiter.charAt(0),
+              archiveFile.getFieldsEnclosedBy());
     }
 
     /**
@@ -387,6 +452,10 @@ public class DataFileFactory {
       return charsetsByPath;
     }
 
+    public Map<Path, RecordFormat> getRecordFormatsByPath() {
+      return recordFormatsByPath;
+    }
+
     public Optional<Path> getMetadataFilePath() {
       return Optional.ofNullable(metadataFilePath);
     }
@@ -7,20 +7,32 @@ import org.gbif.validation.api.RecordSource;
 import org.gbif.validation.api.TabularDataFile;
 import org.gbif.validation.util.FileNormalizer;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nullable;
 
+import com.google.common.io.ByteStreams;
+
 /**
  * TabularRecordSource allows to expose the content of a {@link TabularDataFile} as {@link RecordSource}.
  * Warning: this class assumes {@link FileNormalizer#END_LINE} is used as end of line character.
  * Internally it wraps {@link TabularDataFileReader} to ensure compatibility with GBIF crawling.
+ * If the {@link TabularDataFile} represents a split (byte window), only the content of the window is exposed.
  */
 class TabularRecordSource implements RecordSource {
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+
   private final TabularDataFile tabularDataFile;
   private final TabularDataFileReader<List<String>> tabularReader;
 
@@ -28,13 +40,42 @@ class TabularRecordSource implements RecordSource {
     Objects.requireNonNull(tabularDataFile, "tabularDataFile shall be provided");
     this.tabularDataFile = tabularDataFile;
     tabularReader = TabularFiles.newTabularFileReader(
-            Files.newBufferedReader(tabularDataFile.getFilePath(), tabularDataFile.getCharacterEncoding()),
+            newReader(tabularDataFile),
             tabularDataFile.getDelimiterChar(),
             FileNormalizer.END_LINE,
             tabularDataFile.getQuoteChar(),
             tabularDataFile.isHasHeaders());
   }
 
+  /**
+   * Open a {@link Reader} on the content of the {@link TabularDataFile}.
+   * If the {@link TabularDataFile} represents a byte window on a bigger file, the reader will be positioned at the
+   * start of the window and will stop at the end of it.
+   *
+   * @param tabularDataFile
+   *
+   * @return
+   *
+   * @throws IOException
+   */
+  private static Reader newReader(TabularDataFile tabularDataFile) throws IOException {
+    if (!tabularDataFile.getStartByte().isPresent()) {
+      return Files.newBufferedReader(tabularDataFile.getFilePath(), tabularDataFile.getCharacterEncoding());
+    }
+
+    long startByte = tabularDataFile.getStartByte().get();
+    long endByte = tabularDataFile.getEndByte().get();
+    FileChannel channel = FileChannel.open(tabularDataFile.getFilePath(), StandardOpenOption.READ);
+    try {
+      channel.position(startByte);
+    } catch (IOException ioEx) {
+      channel.close();
+      throw ioEx;
+    }
+    InputStream window = ByteStreams.limit(Channels.newInputStream(channel), endByte - startByte);
+    return new BufferedReader(new InputStreamReader(window, tabularDataFile.getCharacterEncoding()), BUFFER_SIZE);
+  }
+
   @Nullable
   @Override
   public Term[] getHeaders() {
@@ -0,0 +1,63 @@
+package org.gbif.validation.util;
+
+import org.gbif.validation.api.RecordBoundary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Contains the result of the normalization of a single file.
+ */
+public class FileNormalizationResult {
+
+  private static final FileNormalizationResult FAILED = new FileNormalizationResult(0, 0, null, false);
+
+  private final int numOfLines;
+  private final int numOfRecords;
+  private final List<RecordBoundary> recordBoundaries;
+  private final boolean alreadyNormalized;
+
+  /**
+   *
+   * @param numOfLines number of lines written in the normalized file
+   * @param numOfRecords number of records (including headers) written in the normalized file. A record can span over
+   *                     multiple lines if a quoted value contains end line characters.
+   * @param recordBoundaries record boundaries that can be used as split points, in order
+   * @param alreadyNormalized was the source file already UTF-8 using {@link FileNormalizer#END_LINE} as end line
+   *                          character (including on the last line)
+   */
+  public FileNormalizationResult(int numOfLines, int numOfRecords, List<RecordBoundary> recordBoundaries,
+                                 boolean alreadyNormalized) {
+    this.numOfLines = numOfLines;
+    this.numOfRecords = numOfRecords;
+    this.recordBoundaries = recordBoundaries == null ? Collections.emptyList() :
+            Collections.unmodifiableList(new ArrayList<>(recordBoundaries));
+    this.alreadyNormalized = alreadyNormalized;
+  }
+
+  /**
+   * Result of a normalization that could not be completed.
+   *
+   * @return
+   */
+  public static FileNormalizationResult failed() {
+    return FAILED;
+  }
+
+  public int getNumOfLines() {
+    return numOfLines;
+  }
+
+  public int getNumOfRecords() {
+    return numOfRecords;
+  }
+
+  public List<RecordBoundary> getRecordBoundaries() {
+    return recordBoundaries;
+  }
+
+  public boolean isAlreadyNormalized() {
+    return alreadyNormalized;
+  }
+}
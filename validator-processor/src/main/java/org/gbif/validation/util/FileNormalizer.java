@@ -1,20 +1,41 @@
 package org.gbif.validation.util;
 
-import java.io.BufferedWriter;
+import org.gbif.validation.api.RecordBoundary;
+
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +50,11 @@ public class FileNormalizer {
   public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
   public static final Charset OUTPUT_FILE_CHARSET = StandardCharsets.UTF_8;
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int SAMPLE_SIZE = 64 * 1024;
+  private static final char LF = END_LINE.charAt(0);
+  private static final char CR = '\r';
+
   /**
    * Write a new file after applying transformations on the source file.
    * Transformations includes: setting the endline characters, character encoding (UTF-8) and that the last line
@@ -43,32 +69,146 @@ public class FileNormalizer {
    */
   public static int normalizeFile(Path sourceFilePath, Path normalizedFilePath,
                                   Charset sourceFilePathCharset) {
+    return normalizeFile(sourceFilePath, normalizedFilePath, sourceFilePathCharset, null, 0).getNumOfLines();
+  }
+
+  /**
+   * Write a new file after applying transformations on the source file.
+   * See {@link #normalizeFile(Path, Path, Charset)}.
+   *
+   * In the same pass, this method also counts the records and records the {@link RecordBoundary} that can be used
+   * as split points.
+   *
+   * If the source file is already normalized (UTF-8, {@link #END_LINE} as end line character including on the
+   * last line) it is not rewritten: the normalized file is created as a hard link to the source file (or a copy if
+   * links are not supported). To decide, a sample of the file is checked first and then the entire file is validated
+   * by decoding it. This validation pass is also used to count the lines and records.
+   *
+   * @param sourceFilePath
+   * @param normalizedFilePath
+   * @param sourceFilePathCharset optionally, the charset of the source file, otherwise UTF-8 will be used
+   * @param recordFormat optionally, the format used to find the records, otherwise each line is considered a record
+   * @param boundaryInterval minimum number of lines between 2 {@link RecordBoundary}, 0 to not record boundaries
+   *
+   * @return result of the normalization, {@link FileNormalizationResult#failed()} if the source file can not be read
+   */
+  public static FileNormalizationResult normalizeFile(Path sourceFilePath, Path normalizedFilePath,
+                                                      @Nullable Charset sourceFilePathCharset,
+                                                      @Nullable RecordFormat recordFormat, int boundaryInterval) {
     Preconditions.checkArgument(!Files.isDirectory(sourceFilePath), "sourceFilePath must represent a file");
     Preconditions.checkArgument(!Files.isDirectory(normalizedFilePath), "normalizedFilePath must represent a file");
+    Preconditions.checkArgument(boundaryInterval >= 0, "boundaryInterval must be positive");
 
-    final AtomicInteger numberOfLine = new AtomicInteger(0);
-    try (Stream<String> lines = Files.lines(sourceFilePath,
-            Optional.ofNullable(sourceFilePathCharset).orElse(DEFAULT_CHARSET));
-         BufferedWriter writer = Files.newBufferedWriter(normalizedFilePath, OUTPUT_FILE_CHARSET)) {
-      lines.forEach(line -> {
-        try {
-          writer.append(line);
-          writer.append(END_LINE);
-          numberOfLine.incrementAndGet();
-        } catch (IOException ioEx) {
-          LOG.error("Issue while writing to normalized file", ioEx);
+    Charset charset = Optional.ofNullable(sourceFilePathCharset).orElse(DEFAULT_CHARSET);
+    try {
+      if (OUTPUT_FILE_CHARSET.equals(charset) && isSampleNormalized(sourceFilePath)) {
+        FileNormalizationResult validationResult = readFile(sourceFilePath, charset, null, recordFormat,
+                boundaryInterval);
+        if (validationResult.isAlreadyNormalized()) {
+          linkOrCopy(sourceFilePath, normalizedFilePath);
+          return validationResult;
         }
-      });
-    } catch (UncheckedIOException | IOException ioEx) {
+        LOG.debug("{} requires normalization", sourceFilePath);
+      }
+
+      //the destination could be a link to another source file, never write through it
+      Files.deleteIfExists(normalizedFilePath);
+      try (Writer writer = new OutputStreamWriter(Files.newOutputStream(normalizedFilePath), OUTPUT_FILE_CHARSET)) {
+        return readFile(sourceFilePath, charset, writer, recordFormat, boundaryInterval);
+      }
+    } catch (IOException ioEx) {
       LOG.warn("Issue while reading " + sourceFilePath.toString(), ioEx);
-      numberOfLine.set(0);
       try {
         Files.deleteIfExists(normalizedFilePath);
       } catch (IOException e) {
         LOG.warn("Issue while deleting incomplete file " + normalizedFilePath.toString(), e);
       }
     }
-    return numberOfLine.get();
+    return FileNormalizationResult.failed();
+  }
+
+  /**
+   * Read the entire source file using a decoder that reports malformed input.
+   *
+   * @param sourceFilePath
+   * @param charset
+   * @param writer where to write the normalized content, null to only validate and count
+   * @param recordFormat
+   * @param boundaryInterval
+   *
+   * @return
+   *
+   * @throws IOException including if the file contains malformed input for the provided charset
+   */
+  private static FileNormalizationResult readFile(Path sourceFilePath, Charset charset, @Nullable Writer writer,
+                                                  @Nullable RecordFormat recordFormat, int boundaryInterval)
+          throws IOException {
+    CharsetDecoder decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    RecordBoundaryScanner scanner = recordFormat == null ? null : recordFormat.newScanner();
+    if (recordFormat != null && scanner == null) {
+      //the records can not be tracked, line based boundaries could cut a quoted value
+      LOG.debug("Record boundaries of {} can not be recorded for format {}/{}", sourceFilePath,
+              recordFormat.getDelimiterChar(), recordFormat.getQuoteChar());
+    }
+    try (Reader reader = new InputStreamReader(Files.newInputStream(sourceFilePath), decoder)) {
+      StreamingNormalizer normalizer = new StreamingNormalizer(writer, scanner,
+              recordFormat != null && scanner == null ? 0 : boundaryInterval);
+      char[] buffer = new char[BUFFER_SIZE];
+      int read;
+      while ((read = reader.read(buffer)) != -1) {
+        normalizer.write(buffer, read);
+      }
+      return normalizer.finish(OUTPUT_FILE_CHARSET.equals(charset));
+    }
+  }
+
+  /**
+   * Fast check on the first bytes of the file to avoid a validation pass on files that are obviously not normalized.
+   *
+   * @param sourceFilePath
+   *
+   * @return false if the sample contains a CR character
+   *
+   * @throws IOException
+   */
+  private static boolean isSampleNormalized(Path sourceFilePath) throws IOException {
+    byte[] sample = new byte[SAMPLE_SIZE];
+    int sampleSize = 0;
+    try (InputStream in = Files.newInputStream(sourceFilePath)) {
+      int read;
+      while (sampleSize < SAMPLE_SIZE && (read = in.read(sample, sampleSize, SAMPLE_SIZE - sampleSize)) != -1) {
+        sampleSize += read;
+      }
+    }
+    for (int i = 0; i < sampleSize; i++) {
+      if (sample[i] == CR) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Create the normalized file as a hard link to the source file. If links are not supported (e.g. different
+   * file stores), the source file is copied.
+   * The source file is not moved since it can still be referenced (e.g. metadata or original archive).
+   *
+   * @param sourceFilePath
+   * @param normalizedFilePath
+   *
+   * @throws IOException
+   */
+  private static void linkOrCopy(Path sourceFilePath, Path normalizedFilePath) throws IOException {
+    Files.deleteIfExists(normalizedFilePath);
+    try {
+      Files.createLink(normalizedFilePath, sourceFilePath);
+      LOG.debug("{} already normalized, linked to {}", sourceFilePath, normalizedFilePath);
+    } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+      LOG.debug("Can not link {}, copying it: {}", sourceFilePath, ex.getMessage());
+      Files.copy(sourceFilePath, normalizedFilePath, StandardCopyOption.REPLACE_EXISTING);
+    }
   }
 
   /**
@@ -90,24 +230,244 @@ public class FileNormalizer {
   public static Map<Path, Integer> normalizeTarget(Path sourceTargetPath, Path destinationFolderPath,
                                                    Map<Path, Charset> sourceTargetCharset)
           throws IOException {
+    return normalizeTarget(sourceTargetPath, destinationFolderPath, sourceTargetCharset, null, 0)
+            .entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().getNumOfLines()));
+  }
+
+  /**
+   * Write new files after applying transformations on the source target (file(s) or file(s) within folder(s)) from the
+   * specified folder.
+   * This function "walks" inside the folder recursively.
+   * See {@link #normalizeFile(Path, Path, Charset, RecordFormat, int)}
+   *
+   * @param sourceTargetPath
+   * @param destinationFolderPath
+   * @param sourceTargetCharset   path should be relative to sourceTargetPath
+   * @param sourceTargetFormat    path should be relative to sourceTargetPath, files without format will be
+   *                              considered to have one record per line
+   * @param boundaryInterval      minimum number of lines between 2 {@link RecordBoundary}, 0 to not record boundaries
+   *
+   * @return Map linking path to their {@link FileNormalizationResult}. Paths are relative to sourceTargetPath.
+   *
+   * @throws IOException
+   */
+  public static Map<Path, FileNormalizationResult> normalizeTarget(Path sourceTargetPath, Path destinationFolderPath,
+                                                                   @Nullable Map<Path, Charset> sourceTargetCharset,
+                                                                   @Nullable Map<Path, RecordFormat> sourceTargetFormat,
+                                                                   int boundaryInterval)
+          throws IOException {
+    return normalizeTarget(sourceTargetPath, destinationFolderPath, sourceTargetCharset, sourceTargetFormat,
+            boundaryInterval, 1);
+  }
+
+  /**
+   * Write new files after applying transformations on the source target (file(s) or file(s) within folder(s)) from the
+   * specified folder.
+   * This function "walks" inside the folder recursively.
+   * See {@link #normalizeFile(Path, Path, Charset, RecordFormat, int)}
+   *
+   * Files are normalized concurrently using at most numOfThreads threads. Files sharing the same name (in different
+   * folders) share the same destination file, they are normalized one after the other in the order of the walk.
+   *
+   * @param sourceTargetPath
+   * @param destinationFolderPath
+   * @param sourceTargetCharset   path should be relative to sourceTargetPath
+   * @param sourceTargetFormat    path should be relative to sourceTargetPath, files without format will be
+   *                              considered to have one record per line
+   * @param boundaryInterval      minimum number of lines between 2 {@link RecordBoundary}, 0 to not record boundaries
+   * @param numOfThreads          maximum number of files normalized at the same time
+   *
+   * @return Map linking path to their {@link FileNormalizationResult}. Paths are relative to sourceTargetPath.
+   *
+   * @throws IOException
+   */
+  public static Map<Path, FileNormalizationResult> normalizeTarget(Path sourceTargetPath, Path destinationFolderPath,
+                                                                   @Nullable Map<Path, Charset> sourceTargetCharset,
+                                                                   @Nullable Map<Path, RecordFormat> sourceTargetFormat,
+                                                                   int boundaryInterval, int numOfThreads)
+          throws IOException {
     Path sourceFolderPath = Files.isDirectory(sourceTargetPath) ? sourceTargetPath : sourceTargetPath.getParent();
     Preconditions.checkArgument(sourceFolderPath != destinationFolderPath, "sourceFolderPath can NOT be the same as destinationFolderPath");
     Preconditions.checkArgument(Files.isDirectory(destinationFolderPath), "destinationFolderPath must represent a folder");
+    Preconditions.checkArgument(numOfThreads > 0, "numOfThreads must be greater than 0");
 
-    Map<Path, Integer> linesPerFile = new HashMap<>();
+    //group source files by destination file
+    Map<Path, List<Path>> filesPerDestination = new LinkedHashMap<>();
     try (Stream<Path> paths = Files.isDirectory(sourceTargetPath) ? Files.walk(sourceFolderPath) :
             Arrays.asList(sourceTargetPath).stream()) {
-      paths.forEach(filePath -> {
-        if (Files.isRegularFile(filePath)) {
-          Path destinationFile = destinationFolderPath.resolve(filePath.getFileName());
-          Path relativePath = sourceFolderPath.relativize(filePath);
-          int numberOfLines = FileNormalizer.normalizeFile(filePath, destinationFile,
-                  Optional.ofNullable(sourceTargetCharset).map(charsetMap -> charsetMap.get(relativePath)).orElse(null));
-          linesPerFile.put(relativePath, numberOfLines);
+      paths.filter(Files::isRegularFile)
+              .forEach(filePath -> filesPerDestination.computeIfAbsent(
+                      destinationFolderPath.resolve(filePath.getFileName()), k -> new ArrayList<>()).add(filePath));
+    }
+
+    Function<Map.Entry<Path, List<Path>>, Map<Path, FileNormalizationResult>> normalizeTask = entry -> {
+      Map<Path, FileNormalizationResult> results = new HashMap<>();
+      for (Path filePath : entry.getValue()) {
+        Path relativePath = sourceFolderPath.relativize(filePath);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        FileNormalizationResult result = FileNormalizer.normalizeFile(filePath, entry.getKey(),
+                Optional.ofNullable(sourceTargetCharset).map(charsetMap -> charsetMap.get(relativePath)).orElse(null),
+                Optional.ofNullable(sourceTargetFormat).map(formatMap -> formatMap.get(relativePath)).orElse(null),
+                boundaryInterval);
+        LOG.info("Normalized {} in {} ms: {} lines, already normalized: {}", relativePath,
+                stopwatch.elapsed(TimeUnit.MILLISECONDS), result.getNumOfLines(), result.isAlreadyNormalized());
+        results.put(relativePath, result);
+      }
+      return results;
+    };
+
+    Map<Path, FileNormalizationResult> resultPerFile = new HashMap<>();
+    int poolSize = Math.min(numOfThreads, filesPerDestination.size());
+    if (poolSize <= 1) {
+      filesPerDestination.entrySet().forEach(entry -> resultPerFile.putAll(normalizeTask.apply(entry)));
+      return resultPerFile;
+    }
+
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    ExecutorService executor = Executors.newFixedThreadPool(poolSize,
+            new ThreadFactoryBuilder().setNameFormat("file-normalizer-%d").setDaemon(true).build());
+    try {
+      List<Future<Map<Path, FileNormalizationResult>>> futures = new ArrayList<>();
+      filesPerDestination.entrySet().forEach(entry -> futures.add(executor.submit(() -> normalizeTask.apply(entry))));
+      for (Future<Map<Path, FileNormalizationResult>> future : futures) {
+        resultPerFile.putAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while normalizing " + sourceTargetPath);
+    } catch (ExecutionException e) {
+      throw new IOException("Error while normalizing " + sourceTargetPath, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    LOG.info("Normalized {} files from {} in {} ms using {} threads", resultPerFile.size(), sourceTargetPath,
+            stopwatch.elapsed(TimeUnit.MILLISECONDS), poolSize);
+    return resultPerFile;
+  }
+
+  /**
+   * Writes the normalized content while keeping track of the lines, the records and the number of bytes written.
+   * Chars are buffered internally and written to the underlying {@link Writer} in large blocks.
+   * If no {@link Writer} is provided, the content is only counted.
+   */
+  private static class StreamingNormalizer {
+
+    private final Writer writer;
+    private final RecordBoundaryScanner scanner;
+    private final int boundaryInterval;
+
+    private final char[] outputBuffer = new char[BUFFER_SIZE];
+    private int outputBufferSize = 0;
+
+    private final List<RecordBoundary> recordBoundaries = new ArrayList<>();
+    private long numOfBytes = 0;
+    private int numOfLines = 0;
+    private int numOfRecords = 0;
+    private int linesSinceBoundary = 0;
+
+    private boolean containsCR = false;
+    private boolean previousCR = false;
+    private boolean endOfRecord = true;
+    private char lastChar = LF;
+
+    StreamingNormalizer(@Nullable Writer writer, @Nullable RecordBoundaryScanner scanner, int boundaryInterval) {
+      this.writer = writer;
+      this.scanner = scanner;
+      this.boundaryInterval = boundaryInterval;
+    }
+
+    /**
+     * Normalize and write the provided chars.
+     * CR and CRLF are replaced by {@link FileNormalizer#END_LINE}.
+     */
+    void write(char[] buffer, int length) throws IOException {
+      for (int i = 0; i < length; i++) {
+        char c = buffer[i];
+        if (c == CR) {
+          containsCR = true;
+          previousCR = true;
+          append(LF);
+        } else if (c == LF && previousCR) {
+          //second char of a CRLF, already written
+          previousCR = false;
+        } else {
+          previousCR = false;
+          append(c);
+        }
+      }
+    }
+
+    /**
+     * Make sure the last line ends with an end line character and flush the content.
+     *
+     * @param utf8Source was the source file read as UTF-8
+     *
+     * @return
+     */
+    FileNormalizationResult finish(boolean utf8Source) throws IOException {
+      boolean endLineAdded = false;
+      if (lastChar != LF) {
+        append(LF);
+        endLineAdded = true;
+      }
+      //unterminated quoted value, the remaining lines are considered as one record
+      if (!endOfRecord) {
+        numOfRecords++;
+      }
+      flush();
+      return new FileNormalizationResult(numOfLines, numOfRecords, recordBoundaries,
+              utf8Source && !containsCR && !endLineAdded);
+    }
+
+    private void append(char c) throws IOException {
+      if (outputBufferSize == outputBuffer.length) {
+        flush();
+      }
+      outputBuffer[outputBufferSize++] = c;
+      numOfBytes += utf8Length(c);
+      lastChar = c;
+
+      endOfRecord = scanner == null ? c == LF : scanner.accept(c);
+      if (c == LF) {
+        numOfLines++;
+        linesSinceBoundary++;
+      }
+      if (endOfRecord) {
+        numOfRecords++;
+        if (boundaryInterval > 0 && linesSinceBoundary >= boundaryInterval) {
+          recordBoundaries.add(new RecordBoundary(numOfBytes, numOfLines));
+          linesSinceBoundary = 0;
         }
-      });
+      }
+    }
+
+    private void flush() throws IOException {
+      if (writer != null) {
+        writer.write(outputBuffer, 0, outputBufferSize);
+      }
+      outputBufferSize = 0;
+    }
+
+    /**
+     * Number of bytes used by the provided char in UTF-8. A surrogate pair uses 4 bytes, they are attributed
+     * to the high surrogate.
+     */
+    private static int utf8Length(char c) {
+      if (c < 0x80) {
+        return 1;
+      }
+      if (c < 0x800) {
+        return 2;
+      }
+      if (Character.isHighSurrogate(c)) {
+        return 4;
+      }
+      if (Character.isLowSurrogate(c)) {
+        return 0;
+      }
+      return 3;
     }
-    return linesPerFile;
   }
 
 }
@@ -0,0 +1,12 @@
+package org.gbif.validation.util;
+
+
+import java.io.IOException;
+
+/**
+ * Same as {@link java.util.function.Supplier} but {@link #get()} throws {@link IOException}
+ */
+@FunctionalInterface
+public interface IOSupplier <T> {
+  T get() throws IOException;
+}
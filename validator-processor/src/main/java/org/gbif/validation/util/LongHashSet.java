@@ -0,0 +1,130 @@
+package org.gbif.validation.util;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Compact set of primitive long values using open addressing (linear probing) on a long[].
+ * Compared to a {@code Set<Long>}, no object is allocated per value which makes it suitable to store a large
+ * number of hashes.
+ *
+ * This class is NOT thread-safe.
+ */
+public class LongHashSet {
+
+  private static final long EMPTY = 0L;
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int MIN_CAPACITY = 16;
+  private static final int MAX_CAPACITY = 1 << 30;
+  private static final long PHI = 0x9E3779B97F4A7C15L;
+
+  private long[] table;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+  //EMPTY is used to mark free slots so it is tracked separately
+  private boolean containsEmpty;
+
+  /**
+   *
+   * @param expectedSize number of values expected, used to size the table to avoid resizing
+   */
+  public LongHashSet(int expectedSize) {
+    Preconditions.checkArgument(expectedSize >= 0, "expectedSize must be positive");
+    allocate(capacityFor(expectedSize));
+  }
+
+  /**
+   * Add a value to the set.
+   *
+   * @param value
+   *
+   * @return true if the value was not already in the set
+   */
+  public boolean add(long value) {
+    if (value == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      size++;
+      return true;
+    }
+
+    int idx = indexOf(value);
+    while (table[idx] != EMPTY) {
+      if (table[idx] == value) {
+        return false;
+      }
+      idx = (idx + 1) & mask;
+    }
+    table[idx] = value;
+    size++;
+    if (size > resizeThreshold) {
+      allocateAndRehash(table.length * 2);
+    }
+    return true;
+  }
+
+  /**
+   *
+   * @param value
+   * @return true if the value is in the set
+   */
+  public boolean contains(long value) {
+    if (value == EMPTY) {
+      return containsEmpty;
+    }
+
+    int idx = indexOf(value);
+    while (table[idx] != EMPTY) {
+      if (table[idx] == value) {
+        return true;
+      }
+      idx = (idx + 1) & mask;
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private int indexOf(long value) {
+    //spread the bits since the lower bits are used to get the index
+    long h = value * PHI;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    long capacity = MIN_CAPACITY;
+    while (capacity * LOAD_FACTOR < expectedSize && capacity < MAX_CAPACITY) {
+      capacity <<= 1;
+    }
+    return (int) capacity;
+  }
+
+  private void allocate(int capacity) {
+    table = new long[capacity];
+    mask = capacity - 1;
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private void allocateAndRehash(int capacity) {
+    Preconditions.checkState(capacity <= MAX_CAPACITY, "LongHashSet maximum capacity reached");
+    long[] previousTable = table;
+    allocate(capacity);
+    for (long value : previousTable) {
+      if (value != EMPTY) {
+        int idx = indexOf(value);
+        while (table[idx] != EMPTY) {
+          idx = (idx + 1) & mask;
+        }
+        table[idx] = value;
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.gbif.validation.util;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Minimal, quote-aware tokenizer used to find record boundaries in a normalized tabular file without parsing
+ * the values.
+ * The scanner is fed one byte (or char) at a time and reports when a {@link FileNormalizer#END_LINE} terminates a
+ * record. An end line character found inside a quoted value is part of the value and does not terminate the record.
+ *
+ * A value is considered quoted only if the quote character is the first character of the value. Inside a quoted
+ * value, 2 consecutive quote characters represent an escaped quote.
+ *
+ * Since the delimiter, the quote and the end line characters are expected to be ASCII, the scanner can work directly
+ * on UTF-8 bytes.
+ *
+ * This class is NOT thread-safe.
+ */
+public class RecordBoundaryScanner {
+
+  private static final int LF = FileNormalizer.END_LINE.charAt(0);
+  private static final int NONE = -1;
+
+  private final int delimiter;
+  private final int quote;
+
+  private boolean valueStart = true;
+  private boolean inQuotedValue = false;
+  private boolean quoteInQuotedValue = false;
+
+  /**
+   *
+   * @param delimiterChar character used to delimit each value, can be null if unknown
+   * @param quoteChar character used to enclose values, null if values are never quoted
+   */
+  public RecordBoundaryScanner(@Nullable Character delimiterChar, @Nullable Character quoteChar) {
+    Preconditions.checkArgument(delimiterChar == null || delimiterChar < 0x80, "delimiterChar must be an ASCII character");
+    Preconditions.checkArgument(quoteChar == null || quoteChar < 0x80, "quoteChar must be an ASCII character");
+    this.delimiter = delimiterChar == null ? NONE : delimiterChar;
+    this.quote = quoteChar == null ? NONE : quoteChar;
+  }
+
+  /**
+   * Feed the next byte (as unsigned value) or char of the file to the scanner.
+   *
+   * @param c next byte or char
+   *
+   * @return true if the provided character terminates a record
+   */
+  public boolean accept(int c) {
+    if (inQuotedValue) {
+      if (!quoteInQuotedValue) {
+        quoteInQuotedValue = (c == quote);
+        return false;
+      }
+      //the previous character was a quote
+      quoteInQuotedValue = false;
+      if (c == quote) {
+        //escaped quote, we are still in the quoted value
+        return false;
+      }
+      //the previous quote closed the value, process the current character normally
+      inQuotedValue = false;
+    }
+
+    if (c == LF) {
+      valueStart = true;
+      return true;
+    }
+    if (c == delimiter) {
+      valueStart = true;
+      return false;
+    }
+    if (valueStart && c == quote) {
+      inQuotedValue = true;
+    }
+    valueStart = false;
+    return false;
+  }
+
+  /**
+   * Is the scanner currently inside a quoted value (an end line character would NOT terminate the record).
+   *
+   * @return
+   */
+  public boolean isInQuotedValue() {
+    return inQuotedValue && !quoteInQuotedValue;
+  }
+
+  /**
+   * Reset the scanner to the beginning of a record.
+   */
+  public void reset() {
+    valueStart = true;
+    inQuotedValue = false;
+    quoteInQuotedValue = false;
+  }
+}
@@ -0,0 +1,52 @@
+package org.gbif.validation.util;
+
+import javax.annotation.Nullable;
+
+/**
+ * Characters required to find the record boundaries of a tabular file.
+ * See {@link RecordBoundaryScanner}.
+ */
+public class RecordFormat {
+
+  private final Character delimiterChar;
+  private final Character quoteChar;
+
+  /**
+   *
+   * @param delimiterChar character used to delimit each value, can be null if unknown
+   * @param quoteChar character used to enclose values, null if values are never quoted
+   */
+  public RecordFormat(@Nullable Character delimiterChar, @Nullable Character quoteChar) {
+    this.delimiterChar = delimiterChar;
+    this.quoteChar = quoteChar;
+  }
+
+  @Nullable
+  public Character getDelimiterChar() {
+    return delimiterChar;
+  }
+
+  @Nullable
+  public Character getQuoteChar() {
+    return quoteChar;
+  }
+
+  /**
+   * Get a new {@link RecordBoundaryScanner} for this format.
+   * {@link RecordBoundaryScanner} only supports ASCII delimiter and quote characters, formats using other characters
+   * (e.g. &#166; or &#167;, which can be declared in a meta.xml) can not be scanned.
+   *
+   * @return new {@link RecordBoundaryScanner} or null if the delimiter or the quote is not an ASCII character
+   */
+  @Nullable
+  public RecordBoundaryScanner newScanner() {
+    if (!isAscii(delimiterChar) || !isAscii(quoteChar)) {
+      return null;
+    }
+    return new RecordBoundaryScanner(delimiterChar, quoteChar);
+  }
+
+  private static boolean isAscii(@Nullable Character c) {
+    return c == null || c < 0x80;
+  }
+}
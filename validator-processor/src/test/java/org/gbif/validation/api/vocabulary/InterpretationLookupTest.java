@@ -0,0 +1,47 @@
+package org.gbif.validation.api.vocabulary;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link InterpretationLookup}.
+ */
+public class InterpretationLookupTest {
+
+  @Test
+  public void testSupportedBy() {
+    assertEquals(EnumSet.allOf(InterpretationLookup.class), InterpretationLookup.supportedBy(
+            Arrays.asList(DwcTerm.occurrenceID, DwcTerm.scientificName, DwcTerm.decimalLatitude,
+                    DwcTerm.decimalLongitude)));
+
+    //a single coordinate can not be interpreted
+    assertEquals(EnumSet.of(InterpretationLookup.SPECIES_MATCH), InterpretationLookup.supportedBy(
+            Arrays.asList(DwcTerm.occurrenceID, DwcTerm.family, DwcTerm.decimalLatitude)));
+
+    assertEquals(EnumSet.of(InterpretationLookup.COORDINATE), InterpretationLookup.supportedBy(
+            Arrays.asList(DwcTerm.occurrenceID, DwcTerm.verbatimCoordinates)));
+
+    assertTrue(InterpretationLookup.supportedBy(
+            Arrays.asList(DwcTerm.occurrenceID, DwcTerm.eventDate)).isEmpty());
+  }
+
+  @Test
+  public void testSupportedByColumnsAndDefaultValues() {
+    Map<Term, String> defaultValues = Collections.singletonMap(DwcTerm.kingdom, "Animalia");
+    assertEquals(EnumSet.of(InterpretationLookup.SPECIES_MATCH), InterpretationLookup.supportedBy(
+            Arrays.asList(DwcTerm.occurrenceID, null, DwcTerm.eventDate), defaultValues));
+
+    assertTrue(InterpretationLookup.supportedBy(
+            Arrays.asList(DwcTerm.occurrenceID, null, DwcTerm.eventDate), null).isEmpty());
+  }
+}
@@ -0,0 +1,134 @@
+package org.gbif.validation.collector;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.validation.api.RowTypeKey;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.api.TermIndex;
+import org.gbif.validation.api.model.EvaluationType;
+import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.api.result.ValidationDataOutput;
+import org.gbif.validation.api.result.ValidationResultDetails;
+import org.gbif.validation.api.result.ValidationResultElement;
+import org.gbif.validation.api.vocabulary.InterpretationLookup;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests related to {@link CollectorGroupAggregator}.
+ */
+public class CollectorGroupAggregatorTest {
+
+  private static final Term[] COLUMNS = new Term[]{DwcTerm.occurrenceID, DwcTerm.scientificName};
+
+  private static final TabularDataFile DATA_FILE = new TabularDataFile(Paths.get("occurrence.txt"), "occurrence.txt",
+          RowTypeKey.forCore(DwcTerm.Occurrence), COLUMNS, new TermIndex(0, DwcTerm.occurrenceID), null, null,
+          true, StandardCharsets.UTF_8, '\t', '"', 31, 30);
+
+  @Test
+  public void testMerge() {
+    CollectorGroupProvider provider = new CollectorGroupProvider(DwcTerm.Occurrence, Arrays.asList(COLUMNS));
+    CollectorGroupAggregator aggregator = new CollectorGroupAggregator();
+    assertNull(aggregator.getResult(DATA_FILE, "occurrence.txt"));
+
+    //merge the splits in reverse order to make sure the first lines are kept in the sample
+    aggregator.merge(collectLines(provider.newCollectorGroup(false), 16, 30));
+    aggregator.merge(collectLines(provider.newCollectorGroup(false), 1, 15));
+
+    ValidationResultElement result = aggregator.getResult(DATA_FILE, "occurrence.txt");
+    assertEquals(1, result.getIssues().size());
+    assertEquals(EvaluationType.COLUMN_MISMATCH, result.getIssues().get(0).getIssue());
+    assertEquals(30, result.getTermsFrequency().get(0).getValue().intValue());
+
+    //only the verbatim records of the sample are kept
+    ValidationDataOutput.VerbatimRecordSampleDataOutput verbatimRecordSample =
+            (ValidationDataOutput.VerbatimRecordSampleDataOutput) result.getDataOutput().get(0).getContent();
+    assertEquals(LongStream.rangeClosed(1, RecordEvaluationResultCollector.DEFAULT_MAX_NUMBER_OF_SAMPLE).boxed()
+            .collect(Collectors.toList()), verbatimRecordSample.getRecords().keySet().stream()
+            .collect(Collectors.toList()));
+    assertEquals(Arrays.asList("1", "Gulo gulo 1"), verbatimRecordSample.getRecords().get(1L));
+  }
+
+  @Test
+  public void testCombine() {
+    CollectorGroupProvider provider = new CollectorGroupProvider(DwcTerm.Occurrence, Arrays.asList(COLUMNS));
+    ValidationResultElement result = CollectorGroup.mergeAndGetResult(DATA_FILE, "occurrence.txt", Arrays.asList(
+            collectLines(provider.newCollectorGroup(false), 21, 30),
+            collectLines(provider.newCollectorGroup(false), 6, 20),
+            collectLines(provider.newCollectorGroup(false), 1, 5)));
+
+    assertEquals(30, result.getTermsFrequency().get(0).getValue().intValue());
+    ValidationDataOutput.VerbatimRecordSampleDataOutput verbatimRecordSample =
+            (ValidationDataOutput.VerbatimRecordSampleDataOutput) result.getDataOutput().get(0).getContent();
+    assertEquals(LongStream.rangeClosed(1, RecordEvaluationResultCollector.DEFAULT_MAX_NUMBER_OF_SAMPLE).boxed()
+            .collect(Collectors.toList()), verbatimRecordSample.getRecords().keySet().stream()
+            .collect(Collectors.toList()));
+  }
+
+  /**
+   * The lookups reported are the ones set on the merged groups, not the ones the columns could feed.
+   */
+  @Test
+  public void testInterpretationLookups() {
+    CollectorGroupProvider provider = new CollectorGroupProvider(DwcTerm.Occurrence, Arrays.asList(COLUMNS));
+    CollectorGroupAggregator aggregator = new CollectorGroupAggregator();
+    aggregator.merge(collectLines(provider.newCollectorGroup(false), 1, 5));
+    assertNull(aggregator.getResult(DATA_FILE, "occurrence.txt").getInterpretationLookups());
+
+    CollectorGroup interpreted = collectLines(provider.newCollectorGroup(false), 6, 10);
+    interpreted.setInterpretationLookups(EnumSet.of(InterpretationLookup.COORDINATE));
+    aggregator.merge(interpreted);
+    assertEquals(EnumSet.of(InterpretationLookup.COORDINATE),
+            aggregator.getResult(DATA_FILE, "occurrence.txt").getInterpretationLookups());
+
+    CollectorGroup noLookup = collectLines(provider.newCollectorGroup(false), 1, 5);
+    noLookup.setInterpretationLookups(EnumSet.noneOf(InterpretationLookup.class));
+    ValidationResultElement result = CollectorGroup.mergeAndGetResult(DATA_FILE, "occurrence.txt",
+            Arrays.asList(noLookup, collectLines(provider.newCollectorGroup(false), 6, 10)));
+    assertEquals(Collections.emptySet(), result.getInterpretationLookups());
+  }
+
+  @Test
+  public void testMergeSamples() {
+    List<ValidationResultDetails> merged = CollectorGroupAggregator.mergeSamples(
+            Arrays.asList(details(1L), details(4L), details(null)), Arrays.asList(details(2L), details(3L)), 4);
+    assertEquals(Arrays.asList(1L, 2L, 3L, 4L),
+            merged.stream().map(ValidationResultDetails::getLineNumber).collect(Collectors.toList()));
+
+    merged = CollectorGroupAggregator.mergeSamples(Collections.emptyList(), Arrays.asList(details(2L), details(null)), 4);
+    assertEquals(Arrays.asList(2L, null),
+            merged.stream().map(ValidationResultDetails::getLineNumber).collect(Collectors.toList()));
+  }
+
+  private static ValidationResultDetails details(Long lineNumber) {
+    return new ValidationResultDetails(lineNumber, null, null, null, null);
+  }
+
+  private static CollectorGroup collectLines(CollectorGroup collectorGroup, long from, long to) {
+    for (long line = from; line <= to; line++) {
+      Map<Term, String> verbatimRecord = new HashMap<>();
+      verbatimRecord.put(DwcTerm.occurrenceID, Long.toString(line));
+      verbatimRecord.put(DwcTerm.scientificName, "Gulo gulo " + line);
+      collectorGroup.collectMetrics(Arrays.asList(verbatimRecord.get(DwcTerm.occurrenceID),
+              verbatimRecord.get(DwcTerm.scientificName)));
+      collectorGroup.collectResult(RecordEvaluationResult.Builder.of(DwcTerm.Occurrence, line)
+              .withVerbatimData(verbatimRecord)
+              .addBaseDetail(EvaluationType.COLUMN_MISMATCH, "2", Long.toString(line)).build());
+    }
+    return collectorGroup;
+  }
+}
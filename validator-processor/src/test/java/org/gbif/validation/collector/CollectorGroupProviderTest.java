@@ -0,0 +1,121 @@
+package org.gbif.validation.collector;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.validation.api.RowTypeKey;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.api.TermIndex;
+import org.gbif.validation.api.model.EvaluationType;
+import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.api.result.ValidationDataOutput;
+import org.gbif.validation.api.result.ValidationIssue;
+import org.gbif.validation.api.result.ValidationResultElement;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests related to {@link CollectorGroupProvider}.
+ */
+public class CollectorGroupProviderTest {
+
+  private static final Term[] COLUMNS = new Term[]{DwcTerm.occurrenceID, DwcTerm.scientificName, DwcTerm.year};
+  private static final int NUM_OF_RECORDS = 24;
+
+  private static final TabularDataFile DATA_FILE = new TabularDataFile(Paths.get("occurrence.txt"), "occurrence.txt",
+          RowTypeKey.forCore(DwcTerm.Occurrence), COLUMNS, new TermIndex(0, DwcTerm.occurrenceID), null, null,
+          true, StandardCharsets.UTF_8, '\t', '"', NUM_OF_RECORDS + 1, NUM_OF_RECORDS);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * A group owned by a single thread and a concurrent group fed by multiple threads give the same result.
+   * Each issue is found on less records than the size of the sample so the sample does not depend on the order the
+   * records are collected.
+   */
+  @Test
+  public void testSingleThreadedAndConcurrentGroups() {
+    CollectorGroupProvider provider = new CollectorGroupProvider(DwcTerm.Occurrence, Arrays.asList(COLUMNS));
+
+    CollectorGroup singleThreaded = provider.newCollectorGroup(false);
+    LongStream.rangeClosed(1, NUM_OF_RECORDS).forEach(line -> collect(singleThreaded, line));
+
+    CollectorGroup concurrent = provider.newCollectorGroup(true);
+    LongStream.rangeClosed(1, NUM_OF_RECORDS).parallel().forEach(line -> collect(concurrent, line));
+
+    ValidationResultElement expected = CollectorGroup.mergeAndGetResult(DATA_FILE, "occurrence.txt",
+            Collections.singletonList(singleThreaded));
+    ValidationResultElement result = CollectorGroup.mergeAndGetResult(DATA_FILE, "occurrence.txt",
+            Collections.singletonList(concurrent));
+
+    assertEquals(2, expected.getIssues().size());
+    assertEquals(toComparableIssues(expected), toComparableIssues(result));
+    assertEquals(toMap(expected.getTermsFrequency()), toMap(result.getTermsFrequency()));
+    assertEquals(expected.getInterpretedValueCounts(), result.getInterpretedValueCounts());
+    assertEquals(getSampledLineNumbers(expected), getSampledLineNumbers(result));
+  }
+
+  private static void collect(CollectorGroup collectorGroup, long line) {
+    List<String> record = Arrays.asList(Long.toString(line), "Gulo gulo " + line,
+            line % 2 == 0 ? "2000" : "");
+    Map<Term, String> verbatimRecord = new HashMap<>();
+    for (int i = 0; i < COLUMNS.length; i++) {
+      verbatimRecord.put(COLUMNS[i], record.get(i));
+    }
+    Map<Term, Object> interpretedData = new HashMap<>();
+    if (line % 2 == 0) {
+      interpretedData.put(DwcTerm.year, 2000);
+    }
+
+    RecordEvaluationResult.Builder builder = RecordEvaluationResult.Builder.of(DwcTerm.Occurrence, line)
+            .withVerbatimData(verbatimRecord)
+            .withInterpretedData(interpretedData);
+    if (line % 3 == 0) {
+      builder.addBaseDetail(EvaluationType.COLUMN_MISMATCH, "3", Long.toString(line));
+    }
+    if (line % 4 == 0) {
+      builder.addBaseDetail(EvaluationType.RECORD_NOT_UNIQUELY_IDENTIFIED, "1", Long.toString(line));
+    }
+    collectorGroup.collectMetrics(record);
+    collectorGroup.collectResult(builder.build());
+  }
+
+  /**
+   * Get the issues as JSON (as stored by the job storage) by type, the order of the sample is ignored.
+   */
+  private static Map<EvaluationType, String> toComparableIssues(ValidationResultElement result) {
+    Map<EvaluationType, String> issues = new HashMap<>();
+    for (ValidationIssue issue : result.getIssues()) {
+      JsonNode node = MAPPER.valueToTree(issue);
+      List<String> sample = new ArrayList<>();
+      node.path("sample").forEach(details -> sample.add(details.toString()));
+      sample.sort(null);
+      issues.put(issue.getIssue(), node.path("count").toString() + sample);
+    }
+    return issues;
+  }
+
+  private static Map<Term, Integer> toMap(List<Map.Entry<Term, Integer>> entries) {
+    return entries.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  private static List<Long> getSampledLineNumbers(ValidationResultElement result) {
+    ValidationDataOutput.VerbatimRecordSampleDataOutput verbatimRecordSample =
+            (ValidationDataOutput.VerbatimRecordSampleDataOutput) result.getDataOutput().get(0).getContent();
+    return verbatimRecordSample.getRecords().keySet().stream().sorted().collect(Collectors.toList());
+  }
+}
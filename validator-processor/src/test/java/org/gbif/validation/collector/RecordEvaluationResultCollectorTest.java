@@ -12,6 +12,7 @@ import java.util.Map;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests related to {@link RecordEvaluationResultCollector}.
@@ -53,6 +54,29 @@ public class RecordEvaluationResultCollectorTest {
     testCollectorSamplingContent(new RecordEvaluationResultCollector(2, true), 1L, 3L);
   }
 
+  @Test
+  public void testCollectorManyIdenticalResults() {
+    testCollectorManyIdenticalResults(new RecordEvaluationResultCollector(3, false));
+    testCollectorManyIdenticalResults(new RecordEvaluationResultCollector(3, true));
+  }
+
+  private static void testCollectorManyIdenticalResults(RecordEvaluationResultCollector collector) {
+    for (long i = 1; i <= 1000; i++) {
+      collector.collect(buildRecordEvaluationResult(i, "2", "3"));
+    }
+    //a distinct value is still preferred over the non-distinct ones
+    collector.collect(buildRecordEvaluationResult(1001L, "3", "4"));
+    assertEquals(3, collector.getSamples().get(EvaluationType.COLUMN_MISMATCH).size());
+    assertTrue(collector.getSamples().get(EvaluationType.COLUMN_MISMATCH).stream()
+            .anyMatch(d -> d.getLineNumber() == 1001L));
+
+    //sample is now full
+    collector.collect(buildRecordEvaluationResult(1002L, "4", "5"));
+    collector.collect(buildRecordEvaluationResult(1003L, "5", "6"));
+    assertEquals(1003L, collector.getAggregatedCounts().get(EvaluationType.COLUMN_MISMATCH).longValue());
+    assertEquals(3, collector.getSamples().get(EvaluationType.COLUMN_MISMATCH).size());
+  }
+
   public static RecordEvaluationResult buildRecordEvaluationResult(long id, String expected, String found) {
     RecordEvaluationResult.Builder bldr = RecordEvaluationResult.Builder.of(DwcTerm.Occurrence, id);
     bldr.addBaseDetail(EvaluationType.COLUMN_MISMATCH, expected, found);
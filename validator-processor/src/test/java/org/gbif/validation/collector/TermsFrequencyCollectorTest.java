@@ -23,6 +23,21 @@ public class TermsFrequencyCollectorTest {
     testTermsFrequencyCollector(new TermsFrequencyCollector(columnHeaders, true));
   }
 
+  @Test
+  public void testColumnsMapping() {
+    List<Term> columnHeaders = Arrays.asList(new Term[]{DwcTerm.occurrenceID, null, DwcTerm.scientificName,
+            DwcTerm.scientificName});
+    TermsFrequencyCollector tfc = new TermsFrequencyCollector(columnHeaders, false);
+    tfc.collect(Arrays.asList("1", "x", "Gulo gulo", "Gulo gulo"));
+    //shorter record
+    tfc.collect(Arrays.asList("2", "x", "Gulo gulo"));
+
+    assertEquals(2, tfc.getTermFrequency().size());
+    assertEquals(2, tfc.getTermFrequency().get(DwcTerm.occurrenceID).intValue());
+    //both columns are counted under the same term
+    assertEquals(3, tfc.getTermFrequency().get(DwcTerm.scientificName).intValue());
+  }
+
   /**
    * Test a single TermsFrequencyCollector instance.
    * @param tfc
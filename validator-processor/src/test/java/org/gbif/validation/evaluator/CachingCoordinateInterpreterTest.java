@@ -0,0 +1,129 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.Country;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+import org.gbif.occurrence.processor.interpreting.result.CoordinateResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.jersey.api.client.Client;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link CachingCoordinateInterpreter}.
+ * The sharing of the reverse geocode lookups by nearby coordinates is tested by {@link CachingGeocodeClientHandlerTest}.
+ */
+public class CachingCoordinateInterpreterTest {
+
+  /**
+   * {@link CachingCoordinateInterpreter} answering the cache misses without calling the API.
+   */
+  private static class StubCoordinateInterpreter extends CachingCoordinateInterpreter {
+    private final AtomicInteger numOfInterpretations = new AtomicInteger();
+    private volatile boolean geocodeAvailable = true;
+    private volatile long interpretationDelayMs;
+
+    StubCoordinateInterpreter(LookupCache<OccurrenceParseResult<CoordinateResult>> cache) {
+      super(Client.create().resource("http://localhost/v1/"), cache,
+              new RemoteCallGuard("test", 1, 10, 60000, 0, 3, 60000));
+    }
+
+    @Override
+    OccurrenceParseResult<CoordinateResult> interpretCoordinateUncached(String latitude, String longitude,
+                                                                        String datum, Country country) {
+      numOfInterpretations.incrementAndGet();
+      try {
+        Thread.sleep(interpretationDelayMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (!geocodeAvailable) {
+        OccurrenceParseResult<CoordinateResult> result = new OccurrenceParseResult<>(ParseResult.STATUS.ERROR, null,
+                null, null);
+        result.addIssue(OccurrenceIssue.INTERPRETATION_ERROR);
+        return result;
+      }
+      return new OccurrenceParseResult<>(ParseResult.STATUS.SUCCESS, ParseResult.CONFIDENCE.DEFINITE,
+              new CoordinateResult(Double.valueOf(latitude.trim()), Double.valueOf(longitude.trim()), country), null);
+    }
+  }
+
+  @Test
+  public void testExactKey() {
+    StubCoordinateInterpreter interpreter = new StubCoordinateInterpreter(newCache());
+
+    OccurrenceParseResult<CoordinateResult> result = interpreter.interpretCoordinate("10.01", "20.02", null,
+            Country.DENMARK);
+    assertTrue(result.isSuccessful());
+    assertSame(result, interpreter.interpretCoordinate(" 10.01", "20.02 ", " ", Country.DENMARK));
+    assertEquals(1, interpreter.numOfInterpretations.get());
+
+    //nearby coordinates, other datum or country are interpreted on their own
+    assertNotSame(result, interpreter.interpretCoordinate("10.02", "20.02", null, Country.DENMARK));
+    assertNotSame(result, interpreter.interpretCoordinate("10.01", "20.02", "WGS84", Country.DENMARK));
+    assertNotSame(result, interpreter.interpretCoordinate("10.01", "20.02", null, null));
+    assertEquals(4, interpreter.numOfInterpretations.get());
+
+    assertEquals(1, interpreter.getJobMetrics().getHitCount());
+    assertEquals(4, interpreter.getJobMetrics().getMissCount());
+  }
+
+  @Test
+  public void testFailedInterpretationNotCached() {
+    StubCoordinateInterpreter interpreter = new StubCoordinateInterpreter(newCache());
+    interpreter.geocodeAvailable = false;
+
+    assertFalse(interpreter.interpretCoordinate("10.01", "20.02", null, null).isSuccessful());
+    assertEquals(1, interpreter.numOfInterpretations.get());
+
+    interpreter.geocodeAvailable = true;
+    assertTrue(interpreter.interpretCoordinate("10.01", "20.02", null, null).isSuccessful());
+    assertTrue(interpreter.interpretCoordinate("10.01", "20.02", null, null).isSuccessful());
+    assertEquals(2, interpreter.numOfInterpretations.get());
+  }
+
+  @Test
+  public void testConcurrentSharing() throws Exception {
+    LookupCache<OccurrenceParseResult<CoordinateResult>> cache = newCache();
+    //2 jobs sharing the same cache
+    StubCoordinateInterpreter interpreter1 = new StubCoordinateInterpreter(cache);
+    StubCoordinateInterpreter interpreter2 = new StubCoordinateInterpreter(cache);
+    interpreter1.interpretationDelayMs = 200;
+    interpreter2.interpretationDelayMs = 200;
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<OccurrenceParseResult<CoordinateResult>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        StubCoordinateInterpreter interpreter = i % 2 == 0 ? interpreter1 : interpreter2;
+        results.add(executor.submit(() -> interpreter.interpretCoordinate("10.01", "20.02", null, Country.DENMARK)));
+      }
+      OccurrenceParseResult<CoordinateResult> first = results.get(0).get();
+      for (Future<OccurrenceParseResult<CoordinateResult>> result : results) {
+        assertSame(first, result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    //only one call for all the concurrent lookups
+    assertEquals(1, interpreter1.numOfInterpretations.get() + interpreter2.numOfInterpretations.get());
+  }
+
+  private static LookupCache<OccurrenceParseResult<CoordinateResult>> newCache() {
+    return new LookupCache<>(CachingCoordinateInterpreter.CACHE_NAME, 100, 60);
+  }
+}
@@ -0,0 +1,88 @@
+package org.gbif.validation.evaluator;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.TerminatingClientHandler;
+import com.sun.jersey.core.header.InBoundHeaders;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests related to {@link CachingGeocodeClientHandler}.
+ */
+public class CachingGeocodeClientHandlerTest {
+
+  @Test
+  public void testSameCell() {
+    GeocodeStub stub = new GeocodeStub();
+    Client client = newClient(stub, 1);
+
+    assertEquals("lat=10.01&lng=20.02", reverseGeocode(client, "10.01", "20.02").getEntity(String.class));
+    //same cell at 1 decimal, the response of the first request is shared
+    assertEquals("lat=10.01&lng=20.02", reverseGeocode(client, "10.04", " 20.0 ").getEntity(String.class));
+    assertEquals(1, stub.requests.size());
+
+    //other cell
+    assertEquals("lat=10.06&lng=20.02", reverseGeocode(client, "10.06", "20.02").getEntity(String.class));
+    assertEquals(2, stub.requests.size());
+  }
+
+  @Test
+  public void testNotCached() {
+    GeocodeStub stub = new GeocodeStub();
+    Client client = newClient(stub, 2);
+
+    //failed responses are returned as they are but not cached
+    stub.status = 500;
+    assertEquals(500, reverseGeocode(client, "10.01", "20.02").getStatus());
+    stub.status = 200;
+    assertEquals(200, reverseGeocode(client, "10.01", "20.02").getStatus());
+    assertEquals(2, stub.requests.size());
+
+    //values that can not be parsed are forwarded
+    assertEquals("lat=north&lng=20.02", reverseGeocode(client, "north", "20.02").getEntity(String.class));
+    assertEquals("lat=north&lng=20.02", reverseGeocode(client, "north", "20.02").getEntity(String.class));
+    assertEquals(4, stub.requests.size());
+
+    //other paths are forwarded
+    client.resource("http://localhost/").path("species/match").get(ClientResponse.class);
+    assertEquals(5, stub.requests.size());
+  }
+
+  private static Client newClient(GeocodeStub stub, int precision) {
+    return new Client(new CachingGeocodeClientHandler(new Client(stub), new LookupCache<>("test", 100, 60),
+            precision));
+  }
+
+  private static ClientResponse reverseGeocode(Client client, String latitude, String longitude) {
+    return client.resource("http://localhost/").path(LocalGeocodeClientHandler.REVERSE_GEOCODE_PATH)
+            .queryParam("lat", latitude)
+            .queryParam("lng", longitude)
+            .get(ClientResponse.class);
+  }
+
+  /**
+   * Answers all the requests with their query.
+   */
+  private static class GeocodeStub extends TerminatingClientHandler {
+    private final List<URI> requests = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+
+    @Override
+    public ClientResponse handle(ClientRequest request) {
+      requests.add(request.getURI());
+      String query = request.getURI().getQuery();
+      return new ClientResponse(status, new InBoundHeaders(),
+              new ByteArrayInputStream((query == null ? "" : query).getBytes(StandardCharsets.UTF_8)),
+              getMessageBodyWorkers());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.jersey.api.client.Client;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link CachingTaxonomyInterpreter}.
+ */
+public class CachingTaxonomyInterpreterTest {
+
+  /**
+   * {@link CachingTaxonomyInterpreter} answering the cache misses without calling the API.
+   */
+  private static class StubTaxonomyInterpreter extends CachingTaxonomyInterpreter {
+    private final AtomicInteger numOfMatches = new AtomicInteger();
+    private volatile boolean matchFound = true;
+    private volatile long matchDelayMs;
+
+    StubTaxonomyInterpreter(LookupCache<OccurrenceParseResult<NameUsageMatch>> cache) {
+      super(Client.create().resource("http://localhost/v1/"), cache,
+              new RemoteCallGuard("test", 1, 10, 60000, 0, 3, 60000));
+    }
+
+    @Override
+    OccurrenceParseResult<NameUsageMatch> matchUncached(String kingdom, String phylum, String clazz, String order,
+                                                        String family, String genus, String scientificName,
+                                                        String authorship, String genericName,
+                                                        String specificEpithet, String infraspecificEpithet,
+                                                        Rank rank) {
+      numOfMatches.incrementAndGet();
+      try {
+        Thread.sleep(matchDelayMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (!matchFound) {
+        OccurrenceParseResult<NameUsageMatch> result = new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null,
+                null, null);
+        result.addIssue(OccurrenceIssue.TAXON_MATCH_NONE);
+        return result;
+      }
+      NameUsageMatch match = new NameUsageMatch();
+      match.setScientificName(scientificName);
+      return new OccurrenceParseResult<>(ParseResult.STATUS.SUCCESS, ParseResult.CONFIDENCE.DEFINITE, match, null);
+    }
+  }
+
+  private static OccurrenceParseResult<NameUsageMatch> match(CachingTaxonomyInterpreter interpreter, String family,
+                                                             String scientificName, Rank rank) {
+    return interpreter.match("Animalia", null, null, null, family, null, scientificName, null, null, null, null,
+            rank);
+  }
+
+  @Test
+  public void testKeyNormalization() {
+    StubTaxonomyInterpreter interpreter = new StubTaxonomyInterpreter(newCache());
+
+    OccurrenceParseResult<NameUsageMatch> result = match(interpreter, "Felidae", "Puma concolor", Rank.SPECIES);
+    assertTrue(result.isSuccessful());
+    //same classification once trimmed and whitespace normalized
+    assertSame(result, match(interpreter, " Felidae", "Puma \t concolor ", Rank.SPECIES));
+    assertSame(result, match(interpreter, "Felidae", "Puma  concolor", Rank.SPECIES));
+    assertEquals(1, interpreter.numOfMatches.get());
+
+    //blank values are the same as null
+    assertSame(match(interpreter, null, "Puma concolor", Rank.SPECIES),
+            match(interpreter, " ", "Puma concolor", Rank.SPECIES));
+    assertEquals(2, interpreter.numOfMatches.get());
+
+    //the rank is part of the key
+    match(interpreter, "Felidae", "Puma concolor", null);
+    assertEquals(3, interpreter.numOfMatches.get());
+
+    assertEquals(3, interpreter.getJobMetrics().getHitCount());
+    assertEquals(3, interpreter.getJobMetrics().getMissCount());
+  }
+
+  @Test
+  public void testFailedMatchNotCached() {
+    StubTaxonomyInterpreter interpreter = new StubTaxonomyInterpreter(newCache());
+    interpreter.matchFound = false;
+
+    assertFalse(match(interpreter, "Felidae", "Puma concolor", Rank.SPECIES).isSuccessful());
+    assertFalse(match(interpreter, "Felidae", "Puma concolor", Rank.SPECIES).isSuccessful());
+    assertEquals(2, interpreter.numOfMatches.get());
+
+    interpreter.matchFound = true;
+    assertTrue(match(interpreter, "Felidae", "Puma concolor", Rank.SPECIES).isSuccessful());
+    assertTrue(match(interpreter, "Felidae", "Puma concolor", Rank.SPECIES).isSuccessful());
+    assertEquals(3, interpreter.numOfMatches.get());
+  }
+
+  @Test
+  public void testConcurrentSharing() throws Exception {
+    LookupCache<OccurrenceParseResult<NameUsageMatch>> cache = newCache();
+    //2 jobs sharing the same cache
+    StubTaxonomyInterpreter interpreter1 = new StubTaxonomyInterpreter(cache);
+    StubTaxonomyInterpreter interpreter2 = new StubTaxonomyInterpreter(cache);
+    interpreter1.matchDelayMs = 200;
+    interpreter2.matchDelayMs = 200;
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<OccurrenceParseResult<NameUsageMatch>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        StubTaxonomyInterpreter interpreter = i % 2 == 0 ? interpreter1 : interpreter2;
+        results.add(executor.submit(() -> match(interpreter, "Felidae", "Puma concolor", Rank.SPECIES)));
+      }
+      OccurrenceParseResult<NameUsageMatch> first = results.get(0).get();
+      for (Future<OccurrenceParseResult<NameUsageMatch>> result : results) {
+        assertSame(first, result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    //only one call for all the concurrent lookups
+    assertEquals(1, interpreter1.numOfMatches.get() + interpreter2.numOfMatches.get());
+    assertEquals(8, interpreter1.getJobMetrics().getHitCount() + interpreter1.getJobMetrics().getMissCount() +
+            interpreter2.getJobMetrics().getHitCount() + interpreter2.getJobMetrics().getMissCount());
+  }
+
+  private static LookupCache<OccurrenceParseResult<NameUsageMatch>> newCache() {
+    return new LookupCache<>(CachingTaxonomyInterpreter.CACHE_NAME, 100, 60);
+  }
+}
@@ -0,0 +1,139 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.GbifTerm;
+import org.gbif.validation.TestUtils;
+import org.gbif.validation.api.DataFile;
+import org.gbif.validation.api.DwcDataFile;
+import org.gbif.validation.api.RecordSource;
+import org.gbif.validation.api.RowTypeKey;
+import org.gbif.validation.api.model.EvaluationType;
+import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.source.DataFileFactory;
+import org.gbif.validation.source.UnsupportedDataFileException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link CoreIdentifierIndex}.
+ */
+public class CoreIdentifierIndexTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testIndexWithEmptyId() throws IOException, UnsupportedDataFileException {
+    DataFile df = TestUtils.getDwcaDataFile("dwc-data-integrity/dwca-null-core-id", "dwca-null-core-id");
+    Path testFolder = folder.newFolder().toPath();
+    DwcDataFile dwcDf = DataFileFactory.prepareDataFile(df, testFolder);
+
+    CoreIdentifierIndex index = new CoreIdentifierIndex(dwcDf.getCore(), testFolder);
+    assertEquals(3, index.getNumOfRecords());
+
+    try (CoreIdentifierIndex.IdLookup idLookup = index.newIdLookup()) {
+      assertTrue(idLookup.contains("i1"));
+      assertTrue(idLookup.contains(""));
+      assertTrue(idLookup.contains("i3"));
+      assertFalse(idLookup.contains("i2"));
+      assertFalse(idLookup.contains("I1"));
+    }
+
+    List<String[]> emptyIds = index.getEmptyIds();
+    assertEquals(1, emptyIds.size());
+    assertEquals("3", emptyIds.get(0)[0]);
+    //raw text of the line, as reported by the command based evaluation
+    assertEquals(Files.readAllLines(dwcDf.getCore().getFilePath(), dwcDf.getCore().getCharacterEncoding()).get(2),
+            emptyIds.get(0)[1]);
+
+    List<List<String>> tuples = new ArrayList<>();
+    try (RecordSource recordSource = index.newRecordSource()) {
+      List<String> record;
+      while ((record = recordSource.read()) != null) {
+        tuples.add(record);
+      }
+    }
+    assertEquals(Arrays.asList(Arrays.asList("i1", "o-1"), Arrays.asList("", "o-2"), Arrays.asList("i3", "o-3")),
+            tuples);
+
+    //served from the index, same results as reading the core
+    List<RecordEvaluationResult> results = new ArrayList<>();
+    new ReferentialIntegrityEvaluator(GbifTerm.Identifier, testFolder, index).evaluate(dwcDf, results::add);
+    assertEquals(new Long(3), results.get(0).getLineNumber());
+    assertEquals(new Long(2), results.get(1).getLineNumber());
+  }
+
+  /**
+   * The same index serves the uniqueness of the id and occurrenceID and the referential integrity.
+   */
+  @Test
+  public void testSharedIndex() throws IOException, UnsupportedDataFileException {
+    DataFile df = TestUtils.getDwcaDataFile("dwc-data-integrity/dwca", "dwc-data-integrity-dwca");
+    Path testFolder = folder.newFolder().toPath();
+    DwcDataFile dwcDf = DataFileFactory.prepareDataFile(df, testFolder);
+
+    CoreIdentifierIndex index = new CoreIdentifierIndex(dwcDf.getCore(), testFolder);
+
+    List<RecordEvaluationResult> results = new ArrayList<>();
+    new UniquenessEvaluator(RowTypeKey.forCore(DwcTerm.Occurrence), false, testFolder, index)
+            .evaluate(dwcDf, results::add);
+    assertEquals(1, results.size());
+    assertEquals(EvaluationType.RECORD_NOT_UNIQUELY_IDENTIFIED, results.get(0).getDetails().get(0).getEvaluationType());
+    assertEquals("i19", results.get(0).getRecordId());
+
+    results.clear();
+    new DataUniquenessEvaluator(false, testFolder, index).evaluate(dwcDf, results::add);
+    assertEquals(1, results.size());
+    assertEquals(EvaluationType.OCCURRENCE_NOT_UNIQUELY_IDENTIFIED,
+            results.get(0).getDetails().get(0).getEvaluationType());
+    assertEquals("i19", results.get(0).getRecordId());
+    assertEquals("o-19", results.get(0).getDetails().get(0).getRelatedData().get(DwcTerm.occurrenceID));
+
+    results.clear();
+    new ReferentialIntegrityEvaluator(DwcTerm.Identification, testFolder, index).evaluate(dwcDf, results::add);
+    assertEquals(EvaluationType.RECORD_REFERENTIAL_INTEGRITY_VIOLATION,
+            results.get(0).getDetails().get(0).getEvaluationType());
+    assertEquals("ZZ", results.get(0).getRecordId());
+  }
+
+  /**
+   * The ids are sorted once, the sorted run can be read multiple times and is deleted when the index is closed.
+   */
+  @Test
+  public void testSortedIds() throws IOException, UnsupportedDataFileException {
+    DataFile df = TestUtils.getDwcaDataFile("dwc-data-integrity/dwca-null-core-id", "dwca-null-core-id-sorted");
+    Path testFolder = folder.newFolder().toPath();
+    DwcDataFile dwcDf = DataFileFactory.prepareDataFile(df, testFolder);
+
+    CoreIdentifierIndex index = new CoreIdentifierIndex(dwcDf.getCore(), testFolder);
+    for (int i = 0; i < 2; i++) {
+      List<String> ids = new ArrayList<>();
+      try (ExternalTupleSorter.SortedTuples sortedIds = index.newSortedIds()) {
+        ExternalTupleSorter.Tuple tuple;
+        while ((tuple = sortedIds.next()) != null) {
+          ids.add(tuple.getValue());
+        }
+      }
+      assertEquals(Arrays.asList("", "i1", "i3"), ids);
+    }
+
+    String baseName = dwcDf.getCore().getFilePath().getFileName().toString();
+    assertTrue(Files.exists(testFolder.resolve(baseName + "_sorted_ids")));
+    index.close();
+    assertFalse(Files.exists(testFolder.resolve(baseName + "_sorted_ids")));
+    assertFalse(Files.exists(testFolder.resolve(baseName + "_id_tuples")));
+  }
+}
@@ -0,0 +1,101 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.utils.file.FileUtils;
+import org.gbif.validation.api.RowTypeKey;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.api.TermIndex;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests related to {@link DuplicateFinder}.
+ */
+public class DuplicateFinderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static final List<String> EXPECTED_DUPLICATES = Arrays.asList("3:a", "6:a", "5:b");
+  //the hash strategy reports the duplicates in the order of the file
+  private static final List<String> EXPECTED_DUPLICATES_FILE_ORDER = Arrays.asList("3:a", "5:b", "6:a");
+
+  @Test
+  public void testFindDuplicatesUsingHashes() throws IOException {
+    List<String> duplicates = new ArrayList<>();
+    assertEquals(DuplicateFinder.Strategy.HASH,
+            findDuplicates(new DuplicateFinder(folder.newFolder().toPath()), duplicates));
+    assertEquals(EXPECTED_DUPLICATES_FILE_ORDER, duplicates);
+  }
+
+  /**
+   * Hash strategy disabled, the sort is used directly.
+   */
+  @Test
+  public void testFindDuplicatesInMemory() throws IOException {
+    List<String> duplicates = new ArrayList<>();
+    assertEquals(DuplicateFinder.Strategy.SORT,
+            findDuplicates(new DuplicateFinder(folder.newFolder().toPath(), DuplicateFinder.DEFAULT_RUN_SIZE, 1, 0),
+                    duplicates));
+    assertEquals(EXPECTED_DUPLICATES, duplicates);
+  }
+
+  /**
+   * More distinct values than maxHashEntries, the hash strategy falls back to sort.
+   */
+  @Test
+  public void testFallbackToSort() throws IOException {
+    List<String> duplicates = new ArrayList<>();
+    assertEquals(DuplicateFinder.Strategy.SORT,
+            findDuplicates(new DuplicateFinder(folder.newFolder().toPath(), DuplicateFinder.DEFAULT_RUN_SIZE, 1, 3),
+                    duplicates));
+    assertEquals(EXPECTED_DUPLICATES, duplicates);
+  }
+
+  /**
+   * More duplicated values than maxCandidates, the hash strategy falls back to sort.
+   */
+  @Test
+  public void testCandidatesFallbackToSort() throws IOException {
+    List<String> duplicates = new ArrayList<>();
+    assertEquals(DuplicateFinder.Strategy.SORT,
+            findDuplicates(new DuplicateFinder(folder.newFolder().toPath(), DuplicateFinder.DEFAULT_RUN_SIZE, 1,
+                    DuplicateFinder.DEFAULT_MAX_HASH_ENTRIES, 1), duplicates));
+    assertEquals(EXPECTED_DUPLICATES, duplicates);
+  }
+
+  /**
+   * Small runs to make sure the merge is used.
+   */
+  @Test
+  public void testFindDuplicatesUsingRuns() throws IOException {
+    Path workingFolder = folder.newFolder().toPath();
+    List<String> duplicates = new ArrayList<>();
+    findDuplicates(new DuplicateFinder(workingFolder, 2, 2, 0), duplicates);
+    assertEquals(EXPECTED_DUPLICATES, duplicates);
+    //runs should be removed
+    assertEquals(0, workingFolder.toFile().list().length);
+  }
+
+  private static DuplicateFinder.Strategy findDuplicates(DuplicateFinder duplicateFinder, List<String> duplicates)
+          throws IOException {
+    TabularDataFile dataFile = new TabularDataFile(
+            FileUtils.getClasspathFile("uniqueness/duplicate_ids.csv").toPath(), "duplicate_ids.csv",
+            RowTypeKey.forCore(DwcTerm.Occurrence), new Term[]{DwcTerm.occurrenceID, DwcTerm.catalogNumber},
+            new TermIndex(0, DwcTerm.occurrenceID), null, null, true, StandardCharsets.UTF_8, ',', '"', 8, 7);
+
+    return duplicateFinder.findDuplicates(dataFile, 1, 0, (id, value) -> duplicates.add(id + ":" + value));
+  }
+}
@@ -0,0 +1,64 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.Country;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.google.common.collect.Sets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link LocalCountryIndex}.
+ */
+public class LocalCountryIndexTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path writePolygons() throws IOException {
+    Path polygonFile = folder.newFile("countries.tsv").toPath();
+    Files.write(polygonFile, Arrays.asList(
+            "DK\tMULTIPOLYGON (((8 54, 13 54, 13 58, 8 58, 8 54)), ((14 55, 15 55, 15 56, 14 56, 14 55)))",
+            "SE\t\"POLYGON ((13 55, 24 55, 24 69, 13 69, 13 55))\"",
+            ""),
+            StandardCharsets.UTF_8);
+    return polygonFile;
+  }
+
+  @Test
+  public void testLookup() throws IOException {
+    LocalCountryIndex index = new LocalCountryIndex(writePolygons(), 0);
+    assertEquals(3, index.size());
+
+    assertEquals(Sets.newHashSet(Country.DENMARK), index.lookup(55.7, 12.5));
+    //Bornholm like island
+    assertEquals(Sets.newHashSet(Country.DENMARK), index.lookup(55.5, 14.5));
+    assertEquals(Sets.newHashSet(Country.SWEDEN), index.lookup(60, 18));
+    //on the border
+    assertEquals(Sets.newHashSet(Country.DENMARK, Country.SWEDEN), index.lookup(56, 13));
+    //sea
+    assertTrue(index.lookup(0, 0).isEmpty());
+  }
+
+  @Test
+  public void testSimplification() throws IOException {
+    LocalCountryIndex index = new LocalCountryIndex(writePolygons(), 0.1);
+    assertEquals(Sets.newHashSet(Country.DENMARK), index.lookup(55.7, 12.5));
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvalidCountry() throws IOException {
+    Path polygonFile = folder.newFile("invalid.tsv").toPath();
+    Files.write(polygonFile, Arrays.asList("12\tPOLYGON ((0 0, 1 0, 1 1, 0 1, 0 0))"), StandardCharsets.UTF_8);
+    new LocalCountryIndex(polygonFile, 0);
+  }
+}
@@ -0,0 +1,99 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.vocabulary.Country;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.occurrence.processor.interpreting.CoordinateInterpreter;
+import org.gbif.occurrence.processor.interpreting.result.CoordinateResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link LocalGeocodeClientHandler}, including its usage by the {@link CoordinateInterpreter}.
+ */
+public class LocalGeocodeClientHandlerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private WebResource apiWs;
+
+  @Before
+  public void setUp() throws IOException {
+    Path polygonFile = folder.newFile("countries.tsv").toPath();
+    Files.write(polygonFile, Arrays.asList(
+            "DK\tPOLYGON ((8 54, 13 54, 13 58, 8 58, 8 54))",
+            "SE\tPOLYGON ((13 55, 24 55, 24 69, 13 69, 13 55))"),
+            StandardCharsets.UTF_8);
+    Client client = EvaluatorFactory.createLocalGeocodeClient(new LocalCountryIndex(polygonFile, 0));
+    apiWs = client.resource("http://localhost/v1/");
+  }
+
+  @Test
+  public void testReverseGeocode() throws IOException {
+    ClientResponse response = apiWs.path(LocalGeocodeClientHandler.REVERSE_GEOCODE_PATH)
+            .queryParam("lat", "55.7")
+            .queryParam("lng", "12.5")
+            .get(ClientResponse.class);
+    assertEquals(200, response.getStatus());
+
+    JsonNode locations = new ObjectMapper().readTree(response.getEntity(String.class));
+    assertEquals(1, locations.size());
+    assertEquals("DK", locations.get(0).get("isoCountryCode2Digit").getTextValue());
+    assertEquals(Country.DENMARK.getTitle(), locations.get(0).get("title").getTextValue());
+
+    assertEquals(400, apiWs.path(LocalGeocodeClientHandler.REVERSE_GEOCODE_PATH)
+            .queryParam("lat", "north").queryParam("lng", "12.5").get(ClientResponse.class).getStatus());
+    assertEquals(404, apiWs.path("species/match").get(ClientResponse.class).getStatus());
+  }
+
+  @Test
+  public void testCoordinateInterpreter() {
+    CoordinateInterpreter interpreter = new CoordinateInterpreter(apiWs);
+
+    OccurrenceParseResult<CoordinateResult> result = interpreter.interpretCoordinate("55.7", "12.5", null,
+            Country.DENMARK);
+    assertTrue(result.isSuccessful());
+    assertEquals(Country.DENMARK, result.getPayload().getCountry());
+    assertFalse(result.getIssues().contains(OccurrenceIssue.COUNTRY_COORDINATE_MISMATCH));
+
+    //country derived from the coordinates
+    result = interpreter.interpretCoordinate("60", "18", null, null);
+    assertTrue(result.isSuccessful());
+    assertEquals(Country.SWEDEN, result.getPayload().getCountry());
+    assertTrue(result.getIssues().contains(OccurrenceIssue.COUNTRY_DERIVED_FROM_COORDINATES));
+
+    result = interpreter.interpretCoordinate("60", "18", null, Country.DENMARK);
+    assertTrue(result.getIssues().contains(OccurrenceIssue.COUNTRY_COORDINATE_MISMATCH));
+  }
+
+  @Test
+  public void testCachingCoordinateInterpreter() {
+    //no guard for the local reverse geocode
+    CachingCoordinateInterpreter interpreter = new CachingCoordinateInterpreter(apiWs,
+            new LookupCache<>(CachingCoordinateInterpreter.LOCAL_CACHE_NAME, 10, 60), null);
+
+    OccurrenceParseResult<CoordinateResult> result = interpreter.interpretCoordinate("60", "18", null, null);
+    assertEquals(Country.SWEDEN, result.getPayload().getCountry());
+    assertEquals(result, interpreter.interpretCoordinate("60", "18", null, null));
+    assertEquals(1, interpreter.getJobMetrics().getHitCount());
+  }
+}
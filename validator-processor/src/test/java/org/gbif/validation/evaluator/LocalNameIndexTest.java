@@ -0,0 +1,101 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.api.vocabulary.TaxonomicStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests related to {@link LocalNameIndex}.
+ */
+public class LocalNameIndexTest {
+
+  @ClassRule
+  public static TemporaryFolder folder = new TemporaryFolder();
+
+  private static Path indexDirectory;
+
+  @BeforeClass
+  public static void buildIndex() throws IOException {
+    Path export = folder.newFile("backbone.tsv").toPath();
+    Files.write(export, Arrays.asList(
+            "usageKey\tscientificName\tcanonicalName\trank\tstatus\tkingdom\tkingdomKey\tfamily\tfamilyKey\tgenus\tgenusKey",
+            "1\tAnimalia\tAnimalia\tKINGDOM\tACCEPTED\tAnimalia\t1\t\t\t\t",
+            "6\tPlantae\tPlantae\tKINGDOM\tACCEPTED\tPlantae\t6\t\t\t\t",
+            "9703\tFelidae\tFelidae\tFAMILY\tACCEPTED\tAnimalia\t1\tFelidae\t9703\t\t",
+            "2435098\tPuma Jardine, 1834\tPuma\tGENUS\tACCEPTED\tAnimalia\t1\tFelidae\t9703\tPuma\t2435098",
+            "2435099\tPuma concolor (Linnaeus, 1771)\tPuma concolor\tSPECIES\tACCEPTED\tAnimalia\t1\tFelidae\t9703\tPuma\t2435098",
+            "3000000\tOenanthe Linnaeus\tOenanthe\tGENUS\tACCEPTED\tPlantae\t6\t\t\tOenanthe\t3000000",
+            "3000001\tOenanthe Vieillot, 1816\tOenanthe\tGENUS\tACCEPTED\tAnimalia\t1\t\t\tOenanthe\t3000001"),
+            StandardCharsets.UTF_8);
+    indexDirectory = folder.newFolder("index").toPath();
+    assertEquals(7, LocalNameIndex.build(export, indexDirectory));
+  }
+
+  @Test
+  public void testExactMatch() throws IOException {
+    try (LocalNameIndex index = new LocalNameIndex(indexDirectory)) {
+      NameUsageMatch match = index.match("puma  Concolor", null, Collections.emptyMap());
+      assertEquals(NameUsageMatch.MatchType.EXACT, match.getMatchType());
+      assertEquals(2435099, match.getUsageKey().intValue());
+      assertEquals(Rank.SPECIES, match.getRank());
+      assertEquals(TaxonomicStatus.ACCEPTED, match.getStatus());
+      assertEquals("Felidae", match.getFamily());
+      assertEquals(2435098, match.getGenusKey().intValue());
+
+      //with authorship
+      assertEquals(2435099, index.match("Puma concolor (Linnaeus, 1771)", Rank.SPECIES, Collections.emptyMap())
+              .getUsageKey().intValue());
+    }
+  }
+
+  @Test
+  public void testHomonym() throws IOException {
+    Map<Rank, String> classification = new EnumMap<>(Rank.class);
+    classification.put(Rank.KINGDOM, "Plantae");
+    try (LocalNameIndex index = new LocalNameIndex(indexDirectory)) {
+      assertEquals(3000000, index.match("Oenanthe", Rank.GENUS, classification).getUsageKey().intValue());
+      classification.put(Rank.KINGDOM, "Animalia");
+      assertEquals(3000001, index.match("Oenanthe", Rank.GENUS, classification).getUsageKey().intValue());
+    }
+  }
+
+  @Test
+  public void testHigherRankMatch() throws IOException {
+    Map<Rank, String> classification = new EnumMap<>(Rank.class);
+    classification.put(Rank.KINGDOM, "Animalia");
+    classification.put(Rank.GENUS, "Puma");
+    try (LocalNameIndex index = new LocalNameIndex(indexDirectory)) {
+      NameUsageMatch match = index.match("Puma yagouaroundi", Rank.SPECIES, classification);
+      assertEquals(NameUsageMatch.MatchType.HIGHERRANK, match.getMatchType());
+      assertEquals(2435098, match.getUsageKey().intValue());
+    }
+  }
+
+  @Test
+  public void testNoMatch() throws IOException {
+    try (LocalNameIndex index = new LocalNameIndex(indexDirectory)) {
+      NameUsageMatch match = index.match("Unknown name", null, Collections.emptyMap());
+      assertEquals(NameUsageMatch.MatchType.NONE, match.getMatchType());
+      assertNull(match.getUsageKey());
+
+      assertEquals(NameUsageMatch.MatchType.NONE, index.match(null, null, Collections.emptyMap()).getMatchType());
+    }
+  }
+}
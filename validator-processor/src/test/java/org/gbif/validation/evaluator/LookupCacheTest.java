@@ -0,0 +1,138 @@
+package org.gbif.validation.evaluator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link LookupCache}.
+ */
+public class LookupCacheTest {
+
+  private static final LookupCache.Codec<String> STRING_CODEC = new LookupCache.Codec<String>() {
+    @Override
+    public String encode(String value) {
+      return value;
+    }
+
+    @Override
+    public String decode(String value) {
+      return value;
+    }
+  };
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testGet() {
+    LookupCache<String> cache = new LookupCache<>("test", 10, 60);
+    AtomicInteger numOfCalls = new AtomicInteger();
+    List<String> key = Arrays.asList("Puma", null, "concolor");
+
+    assertEquals("v1", cache.get(key, () -> "v" + numOfCalls.incrementAndGet(), v -> true));
+    assertEquals("v1", cache.get(Arrays.asList("Puma", null, "concolor"),
+            () -> "v" + numOfCalls.incrementAndGet(), v -> true));
+    assertEquals(1, numOfCalls.get());
+
+    LookupCacheMetrics metrics = cache.getMetrics();
+    assertEquals(1, metrics.getSize());
+    assertEquals(1, metrics.getHitCount());
+    assertEquals(1, metrics.getMissCount());
+  }
+
+  @Test
+  public void testJobLookupCache() {
+    LookupCache<String> cache = new LookupCache<>("test", 10, 60);
+    JobLookupCache<String> job1 = new JobLookupCache<>(cache);
+    JobLookupCache<String> job2 = new JobLookupCache<>(cache);
+    List<String> key = Collections.singletonList("a");
+
+    job1.get(key, () -> "v", v -> true);
+    job1.get(key, () -> "v", v -> true);
+    //already loaded by the other job
+    job2.get(key, () -> "v", v -> true);
+
+    assertEquals(1, job1.getMetrics().getHitCount());
+    assertEquals(1, job1.getMetrics().getMissCount());
+    assertEquals(1, job2.getMetrics().getHitCount());
+    assertEquals(0, job2.getMetrics().getMissCount());
+    assertEquals(2, cache.getMetrics().getHitCount());
+  }
+
+  @Test
+  public void testNotCacheable() {
+    LookupCache<String> cache = new LookupCache<>("test", 10, 60);
+    AtomicInteger numOfCalls = new AtomicInteger();
+    List<String> key = Collections.singletonList("a");
+
+    assertEquals("v1", cache.get(key, () -> "v" + numOfCalls.incrementAndGet(), v -> false));
+    assertEquals("v2", cache.get(key, () -> "v" + numOfCalls.incrementAndGet(), v -> false));
+    assertEquals(0, cache.getMetrics().getSize());
+  }
+
+  @Test
+  public void testPersist() throws IOException {
+    Path snapshotFolder = folder.newFolder().toPath();
+    LookupCache<String> cache = new LookupCache<>("test", 10, 60, snapshotFolder, STRING_CODEC);
+    assertTrue(cache.getSnapshotFile().isPresent());
+    cache.get(Arrays.asList("a", null), () -> "value a", v -> true);
+    cache.get(Collections.singletonList("b"), () -> "value b", v -> true);
+    cache.persist();
+
+    LookupCache<String> restoredCache = new LookupCache<>("test", 10, 60, snapshotFolder, STRING_CODEC);
+    assertEquals(2, restoredCache.getMetrics().getSize());
+    assertEquals("value a", restoredCache.get(Arrays.asList("a", null), () -> "reloaded", v -> true));
+    assertEquals(1, restoredCache.getMetrics().getHitCount());
+  }
+
+  /**
+   * Values the codec fails to encode, even with an unchecked exception, are skipped.
+   */
+  @Test
+  public void testPersistUnencodableValue() throws IOException {
+    LookupCache.Codec<String> failingCodec = new LookupCache.Codec<String>() {
+      @Override
+      public String encode(String value) throws IOException {
+        if (value.startsWith("invalid")) {
+          throw new IllegalArgumentException("test");
+        }
+        return value;
+      }
+
+      @Override
+      public String decode(String value) {
+        return value;
+      }
+    };
+    Path snapshotFolder = folder.newFolder().toPath();
+    LookupCache<String> cache = new LookupCache<>("test", 10, 60, snapshotFolder, failingCodec);
+    cache.get(Collections.singletonList("a"), () -> "value a", v -> true);
+    cache.get(Collections.singletonList("b"), () -> "invalid b", v -> true);
+    cache.persist();
+
+    LookupCache<String> restoredCache = new LookupCache<>("test", 10, 60, snapshotFolder, failingCodec);
+    assertEquals(1, restoredCache.getMetrics().getSize());
+    assertEquals("value a", restoredCache.get(Collections.singletonList("a"), () -> "reloaded", v -> true));
+  }
+
+  @Test
+  public void testNoPersistence() throws IOException {
+    LookupCache<String> cache = new LookupCache<>("test", 10, 60);
+    assertFalse(cache.getSnapshotFile().isPresent());
+    cache.get(Collections.singletonList("a"), () -> "value a", v -> true);
+    //no-op
+    cache.persist();
+  }
+}
@@ -11,6 +11,7 @@ import org.gbif.validation.source.DataFileFactory;
 import org.gbif.validation.source.UnsupportedDataFileException;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -83,4 +84,33 @@ public class ReferentialIntegrityEvaluatorTest {
       fail(e.getMessage());
     }
   }
+
+  /**
+   * Force the sort-merge join: results are reported in the order of the ids.
+   */
+  @Test
+  public void testSortMergeJoin() throws IOException, UnsupportedDataFileException {
+    DataFile df = org.gbif.validation.TestUtils.getDwcaDataFile("dwc-data-integrity/dwca", "dwc-data-integrity-dwca");
+    Path testFolder = folder.newFolder().toPath();
+    DwcDataFile dwcDf = DataFileFactory.prepareDataFile(df, testFolder);
+    CoreIdentifierIndex index = new CoreIdentifierIndex(dwcDf.getCore(), testFolder);
+
+    List<RecordEvaluationResult> results = new ArrayList<>();
+    new ReferentialIntegrityEvaluator(DwcTerm.Identification, testFolder, index, 0).evaluate(dwcDf, results::add);
+    assertEquals(EvaluationType.RECORD_REFERENTIAL_INTEGRITY_VIOLATION,
+            results.get(0).getDetails().get(0).getEvaluationType());
+    assertEquals("ZZ", results.get(0).getRecordId());
+
+    df = org.gbif.validation.TestUtils.getDwcaDataFile("dwc-data-integrity/dwca-null-core-id", "dwca-null-core-id2");
+    testFolder = folder.newFolder().toPath();
+    dwcDf = DataFileFactory.prepareDataFile(df, testFolder);
+    index = new CoreIdentifierIndex(dwcDf.getCore(), testFolder);
+
+    results.clear();
+    new ReferentialIntegrityEvaluator(GbifTerm.Identifier, testFolder, index, 0).evaluate(dwcDf, results::add);
+    assertEquals(2, results.size());
+    //empty ids of the extension are reported after merging, before the ones of the core
+    assertEquals(new Long(2), results.get(0).getLineNumber());
+    assertEquals(new Long(3), results.get(1).getLineNumber());
+  }
 }
@@ -0,0 +1,162 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.occurrence.Occurrence;
+import org.gbif.api.model.occurrence.VerbatimOccurrence;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.occurrence.processor.interpreting.OccurrenceInterpreter;
+import org.gbif.occurrence.processor.interpreting.result.OccurrenceInterpretationResult;
+import org.gbif.validation.api.TermIndex;
+import org.gbif.validation.api.model.EvaluationType;
+import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.api.model.RecordEvaluationResultDetails;
+import org.gbif.validation.evaluator.record.OccurrenceInterpretationEvaluator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests related to {@link RemoteCallGuard}.
+ */
+public class RemoteCallGuardTest {
+
+  @Test
+  public void testCall() {
+    RemoteCallGuard guard = new RemoteCallGuard("test", 1, 10, 1000, 0, 5, 60000);
+    assertEquals("result", guard.call(() -> "result", () -> "fallback"));
+    assertEquals("fallback", guard.call(() -> null, () -> "fallback"));
+
+    RemoteCallMetrics metrics = guard.getMetrics();
+    assertEquals(2, metrics.getCallCount());
+    assertEquals(0, metrics.getFailureCount());
+    assertEquals(0, metrics.getRejectionCount());
+    assertEquals(10, metrics.getLimit());
+    assertFalse(metrics.isCircuitOpen());
+  }
+
+  @Test
+  public void testLimitDecrease() {
+    RemoteCallGuard guard = new RemoteCallGuard("test", 1, 10, 1000, 0, 5, 60000);
+    assertEquals("fallback", guard.call(() -> {
+      throw new IOException("test");
+    }, () -> "fallback"));
+    assertEquals("failed", guard.call(() -> "failed", "failed"::equals, () -> "fallback"));
+
+    RemoteCallMetrics metrics = guard.getMetrics();
+    assertEquals(2, metrics.getFailureCount());
+    assertEquals(8, metrics.getLimit());
+  }
+
+  @Test
+  public void testCircuitBreaker() throws InterruptedException {
+    RemoteCallGuard guard = new RemoteCallGuard("test", 1, 10, 1000, 0, 3, 50);
+    AtomicInteger numOfCalls = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      guard.call(() -> {
+        numOfCalls.incrementAndGet();
+        throw new IOException("test");
+      }, () -> "fallback");
+    }
+    assertTrue(guard.getMetrics().isCircuitOpen());
+
+    //rejected without calling the endpoint
+    assertEquals("fallback", guard.call(() -> "v" + numOfCalls.incrementAndGet(), () -> "fallback"));
+    assertEquals(3, numOfCalls.get());
+    assertEquals(1, guard.getMetrics().getRejectionCount());
+
+    //trial call closes the circuit
+    Thread.sleep(100);
+    assertEquals("v4", guard.call(() -> "v" + numOfCalls.incrementAndGet(), () -> "fallback"));
+    assertFalse(guard.getMetrics().isCircuitOpen());
+  }
+
+  @Test
+  public void testRejectionWhenNoSlot() throws InterruptedException {
+    RemoteCallGuard guard = new RemoteCallGuard("test", 1, 1, 1000, 0, 5, 60000);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread thread = new Thread(() -> guard.call(() -> {
+      started.countDown();
+      release.await();
+      return "slow";
+    }, () -> "fallback"));
+    thread.start();
+    started.await();
+
+    assertEquals(1, guard.getMetrics().getInFlight());
+    assertEquals("fallback", guard.call(() -> "fast", () -> "fallback"));
+    assertEquals(1, guard.getMetrics().getRejectionCount());
+
+    release.countDown();
+    thread.join();
+    assertEquals(0, guard.getMetrics().getInFlight());
+  }
+
+  /**
+   * An interpretation skipped by the guard is not memoized by the {@link OccurrenceInterpretationEvaluator}: once the
+   * endpoint answers again, records with the same values are interpreted again.
+   */
+  @Test
+  public void testSkippedInterpretationNotMemoized() {
+    RemoteCallGuard guard = new RemoteCallGuard("test", 1, 10, 1000, 0, 5, 60000);
+    AtomicInteger numOfCalls = new AtomicInteger();
+    OccurrenceInterpreter interpreter = mock(OccurrenceInterpreter.class);
+    when(interpreter.interpret(any(), any())).thenAnswer(i -> {
+      VerbatimOccurrence verbatim = i.getArgument(0);
+      Occurrence occurrence = new Occurrence(verbatim);
+      //the endpoint fails on the first call only
+      OccurrenceParseResult<String> lookup = guard.call(() -> {
+                if (numOfCalls.incrementAndGet() == 1) {
+                  throw new IOException("test");
+                }
+                return new OccurrenceParseResult<>(ParseResult.STATUS.SUCCESS, ParseResult.CONFIDENCE.DEFINITE,
+                        "match", null);
+              },
+              RemoteInterpretationResults::isRemoteError, RemoteInterpretationResults::skipped);
+      lookup.getIssues().forEach(occurrence::addIssue);
+      return new OccurrenceInterpretationResult(new Occurrence(verbatim), occurrence);
+    });
+
+    OccurrenceInterpretationEvaluator evaluator = new OccurrenceInterpretationEvaluator(interpreter,
+            new Term[]{DwcTerm.occurrenceID, DwcTerm.scientificName}, null, new TermIndex(0, DwcTerm.occurrenceID));
+
+    assertEquals(Arrays.asList(EvaluationType.INTERPRETATION_ERROR),
+            toEvaluationTypes(evaluator.evaluate(1L, Arrays.asList("1", "Puma concolor"))));
+    assertEquals(1, guard.getMetrics().getFailureCount());
+
+    assertTrue(toEvaluationTypes(evaluator.evaluate(2L, Arrays.asList("2", "Puma concolor"))).isEmpty());
+    assertTrue(toEvaluationTypes(evaluator.evaluate(3L, Arrays.asList("3", "Puma concolor"))).isEmpty());
+
+    //the successful interpretation of the second record is reused by the third one
+    verify(interpreter, times(2)).interpret(any(), any());
+    assertEquals(2, numOfCalls.get());
+    assertEquals(1, evaluator.getMemoizationStats().get().hitCount());
+  }
+
+  private static List<EvaluationType> toEvaluationTypes(RecordEvaluationResult result) {
+    if (result.getDetails() == null) {
+      return Collections.emptyList();
+    }
+    return result.getDetails().stream()
+            .map(RecordEvaluationResultDetails::getEvaluationType)
+            .collect(Collectors.toList());
+  }
+}
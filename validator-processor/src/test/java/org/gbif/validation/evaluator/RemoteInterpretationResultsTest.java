@@ -0,0 +1,110 @@
+package org.gbif.validation.evaluator;
+
+import org.gbif.api.model.checklistbank.NameUsageMatch;
+import org.gbif.api.vocabulary.OccurrenceIssue;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
+import org.gbif.occurrence.processor.interpreting.result.CoordinateResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.core.Response;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.TerminatingClientHandler;
+import com.sun.jersey.api.client.WebResource;
+import com.sun.jersey.core.header.InBoundHeaders;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link RemoteInterpretationResults} and its usage by the caching interpreters.
+ */
+public class RemoteInterpretationResultsTest {
+
+  private static final int FAILURE_THRESHOLD = 3;
+
+  /**
+   * API answering 503 (Service Unavailable) to all requests.
+   */
+  private static WebResource unavailableApi(AtomicInteger numOfRequests) {
+    Client client = new Client(new TerminatingClientHandler() {
+      @Override
+      public ClientResponse handle(ClientRequest request) throws ClientHandlerException {
+        numOfRequests.incrementAndGet();
+        return new ClientResponse(Response.Status.SERVICE_UNAVAILABLE.getStatusCode(), new InBoundHeaders(),
+                new ByteArrayInputStream(new byte[0]), getMessageBodyWorkers());
+      }
+    });
+    return client.resource("http://localhost/v1/");
+  }
+
+  private static RemoteCallGuard newGuard() {
+    return new RemoteCallGuard("test", 1, 10, 60000, 0, FAILURE_THRESHOLD, 60000);
+  }
+
+  @Test
+  public void testIsRemoteError() {
+    assertTrue(RemoteInterpretationResults.isRemoteError(null));
+    assertTrue(RemoteInterpretationResults.isRemoteError(RemoteInterpretationResults.skipped()));
+    assertTrue(RemoteInterpretationResults.isRemoteError(
+            new OccurrenceParseResult<>(ParseResult.STATUS.ERROR, null, null, null)));
+
+    //no match is not an error of the remote call
+    OccurrenceParseResult<NameUsageMatch> noMatch = new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null, null,
+            null);
+    noMatch.addIssue(OccurrenceIssue.TAXON_MATCH_NONE);
+    assertFalse(RemoteInterpretationResults.isRemoteError(noMatch));
+  }
+
+  @Test
+  public void testUnavailableSpeciesMatch() {
+    AtomicInteger numOfRequests = new AtomicInteger();
+    RemoteCallGuard guard = newGuard();
+    CachingTaxonomyInterpreter interpreter = new CachingTaxonomyInterpreter(unavailableApi(numOfRequests),
+            new LookupCache<>(CachingTaxonomyInterpreter.CACHE_NAME, 10, 60), guard);
+
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      OccurrenceParseResult<NameUsageMatch> result = interpreter.match("Animalia", null, null, null, "Felidae",
+              "Puma", "Puma concolor " + i, null, null, null, null, Rank.SPECIES);
+      assertFalse(result.isSuccessful());
+    }
+    assertEquals(FAILURE_THRESHOLD, guard.getMetrics().getFailureCount());
+    assertTrue(guard.getMetrics().isCircuitOpen());
+
+    //the API is not called anymore
+    int requestsBeforeOpen = numOfRequests.get();
+    OccurrenceParseResult<NameUsageMatch> result = interpreter.match("Animalia", null, null, null, "Felidae",
+            "Puma", "Puma concolor", null, null, null, null, Rank.SPECIES);
+    assertTrue(result.getIssues().contains(OccurrenceIssue.INTERPRETATION_ERROR));
+    assertEquals(requestsBeforeOpen, numOfRequests.get());
+    assertEquals(1, guard.getMetrics().getRejectionCount());
+  }
+
+  @Test
+  public void testUnavailableGeocode() {
+    AtomicInteger numOfRequests = new AtomicInteger();
+    RemoteCallGuard guard = newGuard();
+    CachingCoordinateInterpreter interpreter = new CachingCoordinateInterpreter(unavailableApi(numOfRequests),
+            new LookupCache<>(CachingCoordinateInterpreter.CACHE_NAME, 10, 60), guard);
+
+    for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+      OccurrenceParseResult<CoordinateResult> result = interpreter.interpretCoordinate("10." + i, "20", null, null);
+      assertTrue(RemoteInterpretationResults.isRemoteError(result));
+    }
+    assertEquals(FAILURE_THRESHOLD, guard.getMetrics().getFailureCount());
+    assertTrue(guard.getMetrics().isCircuitOpen());
+
+    int requestsBeforeOpen = numOfRequests.get();
+    assertTrue(interpreter.interpretCoordinate("11", "20", null, null).getIssues()
+            .contains(OccurrenceIssue.INTERPRETATION_ERROR));
+    assertEquals(requestsBeforeOpen, numOfRequests.get());
+  }
+}
@@ -1,28 +1,47 @@
 package org.gbif.validation.evaluator.record;
 
+import org.gbif.api.model.checklistbank.NameUsageMatch;
 import org.gbif.api.model.occurrence.Occurrence;
 import org.gbif.api.model.occurrence.VerbatimOccurrence;
 import org.gbif.api.vocabulary.BasisOfRecord;
+import org.gbif.api.vocabulary.Country;
+import org.gbif.api.vocabulary.Rank;
+import org.gbif.common.parsers.core.OccurrenceParseResult;
+import org.gbif.common.parsers.core.ParseResult;
 import org.gbif.dwc.terms.DcTerm;
 import org.gbif.dwc.terms.DwcTerm;
 import org.gbif.dwc.terms.Term;
+import org.gbif.occurrence.processor.interpreting.CoordinateInterpreter;
+import org.gbif.occurrence.processor.interpreting.LocationInterpreter;
 import org.gbif.occurrence.processor.interpreting.OccurrenceInterpreter;
+import org.gbif.occurrence.processor.interpreting.TaxonomyInterpreter;
+import org.gbif.occurrence.processor.interpreting.result.CoordinateResult;
 import org.gbif.occurrence.processor.interpreting.result.OccurrenceInterpretationResult;
 import org.gbif.validation.api.TermIndex;
+import org.gbif.validation.api.model.EvaluationType;
 import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.api.model.RecordEvaluationResultDetails;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.WebResource;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -100,6 +119,108 @@ public class OccurrenceInterpretationEvaluatorTest {
     assertEquals(BasisOfRecord.FOSSIL_SPECIMEN.name(), occ.getVerbatimField(DwcTerm.basisOfRecord));
   }
 
+  @Test
+  public void testMemoizedInterpretation(){
+    Term[] columnMapping = new Term[]{DwcTerm.occurrenceID, DwcTerm.eventDate, DcTerm.modified};
+    OccurrenceInterpreter occurrenceInterpreter = createOccurrenceInterpreter();
+    OccurrenceInterpretationEvaluator evaluator = new OccurrenceInterpretationEvaluator(occurrenceInterpreter,
+            columnMapping, DEFAULT_VALUES, OCC_ID_TERM_INDEX);
+
+    RecordEvaluationResult result = evaluator.evaluate(1L, Arrays.asList("1", "2000-01-01", "2000-01-02"));
+    assertEquals("1", result.getRecordId());
+
+    //only the record identifier differs, the interpretation is reused
+    result = evaluator.evaluate(2L, Arrays.asList("2", "2000-01-01", "2000-01-02"));
+    assertEquals("2", result.getRecordId());
+    assertEquals(Long.valueOf(2), result.getLineNumber());
+    assertEquals("2", result.getVerbatimData().get(DwcTerm.occurrenceID));
+    verify(occurrenceInterpreter, times(1)).interpret(any(), any());
+
+    evaluator.evaluate(3L, Arrays.asList("3", "2000-01-01", "2000-01-03"));
+    verify(occurrenceInterpreter, times(2)).interpret(any(), any());
+  }
+
+  @Test
+  public void testInterpretationKey(){
+    OccurrenceInterpretationEvaluator evaluator = createInterpreter(COLUMN_MAPPING, OCC_ID_TERM_INDEX);
+    assertEquals(evaluator.toInterpretationKey(Arrays.asList("1", "2000-01-01", "2000-01-02")),
+            evaluator.toInterpretationKey(Arrays.asList("2", "2000-01-01", "2000-01-02")));
+    assertNotEquals(evaluator.toInterpretationKey(Arrays.asList("1", "2000-01-01", "")),
+            evaluator.toInterpretationKey(Arrays.asList("1", "2000-01-01")));
+    assertNotEquals(evaluator.toInterpretationKey(Arrays.asList("1", "2000-01-01", "2000-01-02")),
+            evaluator.toInterpretationKey(Arrays.asList("1", "2000-01-012000", "-01-02")));
+  }
+
+  @Test
+  public void testNonInterpretedTerms(){
+    Term[] columnMapping = new Term[]{DwcTerm.occurrenceID, DwcTerm.eventDate, DwcTerm.catalogNumber,
+            DwcTerm.recordedBy};
+    OccurrenceInterpreter occurrenceInterpreter = createOccurrenceInterpreter();
+    OccurrenceInterpretationEvaluator evaluator = new OccurrenceInterpretationEvaluator(occurrenceInterpreter,
+            columnMapping, DEFAULT_VALUES, OCC_ID_TERM_INDEX);
+
+    evaluator.evaluate(1L, Arrays.asList("1", "2000-01-01", "cat-1", "Tim"));
+    RecordEvaluationResult result = evaluator.evaluate(2L, Arrays.asList("2", "2000-01-01", "cat-2", "Tom"));
+    verify(occurrenceInterpreter, times(1)).interpret(any(), any());
+    assertEquals("cat-2", result.getVerbatimData().get(DwcTerm.catalogNumber));
+    assertEquals(1, evaluator.getMemoizationStats().get().hitCount());
+
+    evaluator.evaluate(3L, Arrays.asList("3", "2000-01-02", "cat-2", "Tom"));
+    verify(occurrenceInterpreter, times(2)).interpret(any(), any());
+  }
+
+  /**
+   * Run the real {@link OccurrenceInterpreter} (remote lookups skipped) on records differing only in the
+   * {@link OccurrenceInterpretationEvaluator#NON_INTERPRETED_TERMS}: the interpretations shall be identical.
+   */
+  @Test
+  public void testNonInterpretedTermsWithOccurrenceInterpreter(){
+    List<Term> columns = new ArrayList<>(Arrays.asList(DwcTerm.eventDate, DwcTerm.basisOfRecord,
+            DwcTerm.countryCode, DwcTerm.individualCount, DwcTerm.typeStatus));
+    int numOfInterpretedTerms = columns.size();
+    columns.addAll(OccurrenceInterpretationEvaluator.NON_INTERPRETED_TERMS);
+    Term[] columnMapping = columns.toArray(new Term[columns.size()]);
+    TermIndex recordIdentifier = new TermIndex(columns.indexOf(DwcTerm.occurrenceID), DwcTerm.occurrenceID);
+
+    List<String> record1 = new ArrayList<>(Arrays.asList("2000-13-45", "fossil", "XX", "-3", "holotype-ish"));
+    List<String> record2 = new ArrayList<>(record1);
+    for (int i = numOfInterpretedTerms; i < columnMapping.length; i++) {
+      record1.add("1");
+      record2.add("2017-02-30 not a number, 45.5 N");
+    }
+
+    OccurrenceInterpretationEvaluator evaluator = new OccurrenceInterpretationEvaluator(
+            createRealOccurrenceInterpreter(), columnMapping, DEFAULT_VALUES, recordIdentifier, 0);
+    RecordEvaluationResult result1 = evaluator.evaluate(1L, record1);
+    RecordEvaluationResult result2 = evaluator.evaluate(2L, record2);
+
+    assertFalse(result1.getDetails().isEmpty());
+    assertEquals(toEvaluationTypes(result1), toEvaluationTypes(result2));
+    assertEquals(result1.getInterpretedData(), result2.getInterpretedData());
+
+    //same outcome when the interpretation of the first record is reused
+    OccurrenceInterpretationEvaluator memoizingEvaluator = new OccurrenceInterpretationEvaluator(
+            createRealOccurrenceInterpreter(), columnMapping, DEFAULT_VALUES, recordIdentifier);
+    memoizingEvaluator.evaluate(1L, record1);
+    RecordEvaluationResult memoizedResult2 = memoizingEvaluator.evaluate(2L, record2);
+    assertEquals(1, memoizingEvaluator.getMemoizationStats().get().hitCount());
+    assertEquals(toEvaluationTypes(result2), toEvaluationTypes(memoizedResult2));
+    assertEquals(result2.getInterpretedData(), memoizedResult2.getInterpretedData());
+    assertEquals(result2.getVerbatimData(), memoizedResult2.getVerbatimData());
+  }
+
+  @Test
+  public void testMemoizationDisabled(){
+    OccurrenceInterpreter occurrenceInterpreter = createOccurrenceInterpreter();
+    OccurrenceInterpretationEvaluator evaluator = new OccurrenceInterpretationEvaluator(occurrenceInterpreter,
+            COLUMN_MAPPING, DEFAULT_VALUES, OCC_ID_TERM_INDEX, 0);
+
+    evaluator.evaluate(1L, Arrays.asList("1", "2000-01-01", "2000-01-02"));
+    evaluator.evaluate(2L, Arrays.asList("2", "2000-01-01", "2000-01-02"));
+    verify(occurrenceInterpreter, times(2)).interpret(any(), any());
+    assertFalse(evaluator.getMemoizationStats().isPresent());
+  }
+
   /**
    * The mock OccurrenceInterpreter will take a an occurrence and return it in OccurrenceInterpretationResult.
    * @param columnMapping
@@ -107,13 +228,49 @@ public class OccurrenceInterpretationEvaluatorTest {
    * @return
    */
   private OccurrenceInterpretationEvaluator createInterpreter(Term[] columnMapping, TermIndex recordIdentifier) {
+    return new OccurrenceInterpretationEvaluator(createOccurrenceInterpreter(),
+            columnMapping, DEFAULT_VALUES, recordIdentifier);
+  }
+
+  private static List<EvaluationType> toEvaluationTypes(RecordEvaluationResult result) {
+    return result.getDetails().stream()
+            .map(RecordEvaluationResultDetails::getEvaluationType)
+            .sorted()
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * {@link OccurrenceInterpreter} with the species match and the coordinate lookups skipped, as done by the
+   * EvaluatorFactory when the lookups are not supported by the columns.
+   */
+  private static OccurrenceInterpreter createRealOccurrenceInterpreter() {
+    WebResource webResource = Client.create().resource("http://localhost");
+    TaxonomyInterpreter taxonomyInterpreter = new TaxonomyInterpreter(webResource) {
+      @Override
+      public OccurrenceParseResult<NameUsageMatch> match(String kingdom, String phylum, String clazz,
+                                                         String order, String family, String genus,
+                                                         String scientificName, String authorship,
+                                                         String genericName, String specificEpithet,
+                                                         String infraspecificEpithet, Rank rank) {
+        return new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null, null, null);
+      }
+    };
+    CoordinateInterpreter coordinateInterpreter = new CoordinateInterpreter(webResource) {
+      @Override
+      public OccurrenceParseResult<CoordinateResult> interpretCoordinate(String latitude, String longitude,
+                                                                         String datum, Country country) {
+        return new OccurrenceParseResult<>(ParseResult.STATUS.FAIL, null, null, null);
+      }
+    };
+    return new OccurrenceInterpreter(taxonomyInterpreter, new LocationInterpreter(coordinateInterpreter));
+  }
+
+  private static OccurrenceInterpreter createOccurrenceInterpreter() {
     OccurrenceInterpreter occurrenceInterpreter = Mockito.mock(OccurrenceInterpreter.class);
     when(occurrenceInterpreter.interpret(any(), any()))
             .thenAnswer( i -> new OccurrenceInterpretationResult(new Occurrence(i.getArgument(0)),
                     new Occurrence(i.getArgument(0))));
-
-    return new OccurrenceInterpretationEvaluator(occurrenceInterpreter,
-            columnMapping, DEFAULT_VALUES, recordIdentifier);
+    return occurrenceInterpreter;
   }
 
 }
@@ -0,0 +1,183 @@
+package org.gbif.validation.processor;
+
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.validation.api.RecordEvaluator;
+import org.gbif.validation.api.RowTypeKey;
+import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.api.TermIndex;
+import org.gbif.validation.api.model.EvaluationType;
+import org.gbif.validation.api.model.RecordEvaluationResult;
+import org.gbif.validation.collector.CollectorGroup;
+import org.gbif.validation.collector.CollectorGroupProvider;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import akka.actor.ActorSystem;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests related to the record evaluation of {@link DataFileRecordsActor}.
+ */
+public class DataFileRecordsActorTest {
+
+  private static final Term[] COLUMNS = new Term[]{DwcTerm.occurrenceID, DwcTerm.scientificName};
+  private static final int NUM_OF_RECORDS = 20;
+  private static final int MAX_IN_FLIGHT = 8;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private ActorSystem system;
+  private LoggingAdapter log;
+  private ExecutorService executor;
+  private TabularDataFile dataFile;
+
+  @Before
+  public void setUp() throws IOException {
+    system = ActorSystem.create("DataFileRecordsActorTestSystem");
+    log = Logging.getLogger(system, this);
+    executor = Executors.newFixedThreadPool(2);
+
+    List<String> lines = new ArrayList<>();
+    lines.add("occurrenceID\tscientificName");
+    for (int i = 1; i <= NUM_OF_RECORDS; i++) {
+      lines.add(i + "\tGulo gulo " + i);
+    }
+    Path file = folder.newFile("occurrence.txt").toPath();
+    Files.write(file, lines, StandardCharsets.UTF_8);
+    dataFile = new TabularDataFile(file, "occurrence.txt", RowTypeKey.forCore(DwcTerm.Occurrence), COLUMNS,
+            new TermIndex(0, DwcTerm.occurrenceID), null, null, true, StandardCharsets.UTF_8, '\t', '"',
+            NUM_OF_RECORDS + 1, NUM_OF_RECORDS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    system.shutdown();
+  }
+
+  /**
+   * Results are collected in the order of the records even if the first evaluation is the slowest.
+   */
+  @Test
+  public void testOrderedCollection() {
+    CollectorGroup collectors = newCollectorGroup();
+    DataWorkResult result = DataFileRecordsActor.processDataFile(dataFile, (lineNumber, record) -> {
+      //first record after the header
+      if (lineNumber == 2) {
+        sleep(200);
+      }
+      return toResult(lineNumber, record);
+    }, collectors, executor, MAX_IN_FLIGHT, log);
+
+    assertEquals(DataWorkResult.Result.SUCCESS, result.getResult());
+    assertEquals(LongStream.rangeClosed(2, NUM_OF_RECORDS + 1).boxed().collect(Collectors.toList()),
+            getCollectedLineNumbers(collectors));
+  }
+
+  /**
+   * The failure of an evaluation is reported on the line of the record, not on the last line read.
+   */
+  @Test
+  public void testEvaluationError() {
+    CollectorGroup collectors = newCollectorGroup();
+    DataWorkResult result = DataFileRecordsActor.processDataFile(dataFile, (lineNumber, record) -> {
+      if (lineNumber == 5) {
+        sleep(200);
+        throw new IllegalStateException("test");
+      }
+      return toResult(lineNumber, record);
+    }, collectors, executor, MAX_IN_FLIGHT, log);
+
+    assertEquals(DataWorkResult.Result.FAILED, result.getResult());
+    ArgumentCaptor<RecordEvaluationResult> captor = ArgumentCaptor.forClass(RecordEvaluationResult.class);
+    verify(collectors, atLeastOnce()).collectResult(captor.capture());
+    assertEquals(Arrays.asList(2L, 3L, 4L, 5L), captor.getAllValues().stream()
+            .map(RecordEvaluationResult::getLineNumber).collect(Collectors.toList()));
+    RecordEvaluationResult error = captor.getAllValues().get(3);
+    assertEquals(EvaluationType.UNREADABLE_SECTION_ERROR, error.getDetails().get(0).getEvaluationType());
+  }
+
+  /**
+   * Once interrupted, the pending evaluations are cancelled and nothing else is collected.
+   */
+  @Test
+  public void testInterrupted() throws Exception {
+    CollectorGroup collectors = newCollectorGroup();
+    CountDownLatch started = new CountDownLatch(1);
+    AtomicReference<DataWorkResult> result = new AtomicReference<>();
+    Thread worker = new Thread(() -> result.set(DataFileRecordsActor.processDataFile(dataFile,
+            (lineNumber, record) -> {
+              started.countDown();
+              sleep(60000);
+              return toResult(lineNumber, record);
+            }, collectors, executor, MAX_IN_FLIGHT, log)));
+    worker.start();
+
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    //wait for the worker to block on the oldest evaluation
+    long deadline = System.currentTimeMillis() + 10000;
+    while (worker.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    worker.interrupt();
+    worker.join(10000);
+
+    assertEquals(DataWorkResult.Result.FAILED, result.get().getResult());
+    verify(collectors, never()).collectResult(any());
+    //the cancelled evaluations released the threads of the executor
+    assertEquals("done", executor.submit(() -> "done").get(10, TimeUnit.SECONDS));
+  }
+
+  private static CollectorGroup newCollectorGroup() {
+    return spy(new CollectorGroupProvider(DwcTerm.Occurrence, Arrays.asList(COLUMNS)).newCollectorGroup(false));
+  }
+
+  private static List<Long> getCollectedLineNumbers(CollectorGroup collectors) {
+    ArgumentCaptor<RecordEvaluationResult> captor = ArgumentCaptor.forClass(RecordEvaluationResult.class);
+    verify(collectors, atLeastOnce()).collectResult(captor.capture());
+    return captor.getAllValues().stream().map(RecordEvaluationResult::getLineNumber).collect(Collectors.toList());
+  }
+
+  private static RecordEvaluationResult toResult(Long lineNumber, List<String> record) {
+    return RecordEvaluationResult.Builder.of(DwcTerm.Occurrence, lineNumber)
+            .addBaseDetail(EvaluationType.COLUMN_MISMATCH, "2", record.get(0)).build();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,14 +1,26 @@
 package org.gbif.validation.processor;
 
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.dwc.terms.Term;
+import org.gbif.utils.file.FileUtils;
 import org.gbif.validation.TestUtils;
 import org.gbif.validation.api.DataFile;
 import org.gbif.validation.api.DwcDataFile;
+import org.gbif.validation.api.RecordBoundary;
+import org.gbif.validation.api.RecordSource;
+import org.gbif.validation.api.RowTypeKey;
 import org.gbif.validation.api.TabularDataFile;
+import org.gbif.validation.api.TermIndex;
 import org.gbif.validation.api.vocabulary.FileFormat;
 import org.gbif.validation.source.DataFileFactory;
+import org.gbif.validation.source.RecordSourceFactory;
 import org.gbif.validation.source.UnsupportedDataFileException;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Rule;
@@ -16,6 +28,8 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertTrue;
 import static junit.framework.TestCase.fail;
 
 /**
@@ -30,6 +44,7 @@ public class DataFileSplitterTest {
   private static final int EXPECTED_NUMBER_OF_SPLIT = 3;
   private static final int EXPECTED_NUMBER_OF_LINES = 5;
   private static final String TEST_FILE_LOCATION = "splitter/original_file.csv";
+  private static final String QUOTED_TEST_FILE_LOCATION = "splitter/quoted_multiline_file.csv";
 
   @Test
   public void testFileSplit() throws IOException, UnsupportedDataFileException {
@@ -37,8 +52,7 @@ public class DataFileSplitterTest {
     DwcDataFile dwcDataFile = DataFileFactory.prepareDataFile(dataFile, folder.newFolder().toPath());
 
     try {
-      List<TabularDataFile> dataFileSplits = DataFileSplitter.splitDataFile(dwcDataFile.getCore(),
-              SPLIT_SIZE, folder.newFolder().toPath());
+      List<TabularDataFile> dataFileSplits = DataFileSplitter.splitDataFile(dwcDataFile.getCore(), SPLIT_SIZE);
       assertEquals(EXPECTED_NUMBER_OF_SPLIT, dataFileSplits.size());
 
       //check the offset and numberOfLines
@@ -58,4 +72,73 @@ public class DataFileSplitterTest {
     }
 
   }
+
+  /**
+   * Records with quoted values containing end line characters should never be split over 2 files.
+   */
+  @Test
+  public void testQuotedMultilineFileSplit() throws IOException {
+    Path testFile = FileUtils.getClasspathFile(QUOTED_TEST_FILE_LOCATION).toPath();
+    TabularDataFile dataFile = new TabularDataFile(testFile, "quoted_multiline_file.csv",
+            RowTypeKey.forCore(DwcTerm.Occurrence), new Term[]{DwcTerm.occurrenceID, DwcTerm.occurrenceRemarks},
+            new TermIndex(0, DwcTerm.occurrenceID), null, null, true, StandardCharsets.UTF_8, ',', '"', 8, 7);
+
+    List<TabularDataFile> dataFileSplits = DataFileSplitter.splitDataFile(dataFile, SPLIT_SIZE);
+    assertEquals(3, dataFileSplits.size());
+
+    //header + first record on 2 lines
+    assertEquals(0, dataFileSplits.get(0).getFileLineOffset().get().intValue());
+    assertEquals(3, dataFileSplits.get(0).getNumOfLines().intValue());
+    assertEquals(2, dataFileSplits.get(0).getNumOfLinesWithData().intValue());
+    assertTrue(dataFileSplits.get(0).isHasHeaders());
+
+    //second record and third record on 3 lines
+    assertEquals(3, dataFileSplits.get(1).getFileLineOffset().get().intValue());
+    assertEquals(4, dataFileSplits.get(1).getNumOfLines().intValue());
+    try (RecordSource recordSource = RecordSourceFactory.fromTabularDataFile(dataFileSplits.get(1))) {
+      assertEquals(Arrays.asList("2", "c"), recordSource.read());
+      assertEquals(Arrays.asList("3", "d\ne \"f\"\ng"), recordSource.read());
+      assertNull(recordSource.read());
+    }
+
+    assertEquals(7, dataFileSplits.get(2).getFileLineOffset().get().intValue());
+    assertEquals(1, dataFileSplits.get(2).getNumOfLines().intValue());
+  }
+
+  /**
+   * Splits computed from the record boundaries should be the same as the ones computed by reading the file.
+   */
+  @Test
+  public void testSplitOnRecordBoundaries() throws IOException {
+    Path testFile = FileUtils.getClasspathFile(QUOTED_TEST_FILE_LOCATION).toPath();
+    TabularDataFile dataFile = new TabularDataFile(testFile, "quoted_multiline_file.csv",
+            RowTypeKey.forCore(DwcTerm.Occurrence), new Term[]{DwcTerm.occurrenceID, DwcTerm.occurrenceRemarks},
+            new TermIndex(0, DwcTerm.occurrenceID), null, null, true, StandardCharsets.UTF_8, ',', '"', 8, 7);
+    TabularDataFile dataFileWithBoundaries = new TabularDataFile(testFile, "quoted_multiline_file.csv",
+            RowTypeKey.forCore(DwcTerm.Occurrence), new Term[]{DwcTerm.occurrenceID, DwcTerm.occurrenceRemarks},
+            new TermIndex(0, DwcTerm.occurrenceID), null, null, true, StandardCharsets.UTF_8, ',', '"', 8, 7,
+            null, null, Arrays.asList(new RecordBoundary(39, 3), new RecordBoundary(59, 7)));
+
+    assertEquals(DataFileSplitter.splitDataFile(dataFile, SPLIT_SIZE),
+            DataFileSplitter.splitDataFile(dataFileWithBoundaries, SPLIT_SIZE));
+  }
+
+  /**
+   * Splits are byte windows on the original file, they should be contiguous and cover the entire file.
+   */
+  @Test
+  public void testSplitByteWindows() throws IOException, UnsupportedDataFileException {
+    DataFile dataFile = TestUtils.getDataFile(TEST_FILE_LOCATION, "original_file.csv", FileFormat.TABULAR);
+    DwcDataFile dwcDataFile = DataFileFactory.prepareDataFile(dataFile, folder.newFolder().toPath());
+    TabularDataFile core = dwcDataFile.getCore();
+
+    List<TabularDataFile> dataFileSplits = DataFileSplitter.splitDataFile(core, SPLIT_SIZE);
+    long expectedStartByte = 0;
+    for (TabularDataFile split : dataFileSplits) {
+      assertEquals(core.getFilePath(), split.getFilePath());
+      assertEquals(expectedStartByte, split.getStartByte().get().longValue());
+      expectedStartByte = split.getEndByte().get();
+    }
+    assertEquals(Files.size(core.getFilePath()), expectedStartByte);
+  }
 }
@@ -1,13 +1,16 @@
 package org.gbif.validation.util;
 
 import org.gbif.utils.file.FileUtils;
+import org.gbif.validation.api.RecordBoundary;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,6 +34,7 @@ public class FileNormalizerTest {
   private static final File LATIN_CRLF_TEST_FILE = FileUtils.getClasspathFile("normalizer/latin1_crlf.txt");
   private static final File UTF8_CR_TEST_FILE = FileUtils.getClasspathFile("normalizer/utf8_cr.txt");
   private static final File UTF8_LF_TEST_FILE = FileUtils.getClasspathFile("normalizer/utf8_lf.txt");
+  private static final File QUOTED_MULTILINE_TEST_FILE = FileUtils.getClasspathFile("splitter/quoted_multiline_file.csv");
 
   @Test
   public void testLatinCRLF() throws IOException {
@@ -58,6 +62,75 @@ public class FileNormalizerTest {
     assertEquals(2, normalizedContent.get(Paths.get("subsubfolder/utf8_lf.txt")).intValue());
   }
 
+  /**
+   * Records, record boundaries and the normalized flag are computed in the same pass.
+   */
+  @Test
+  public void testNormalizationResult() throws IOException {
+    File normalizedFile = folder.newFile();
+    FileNormalizationResult result = FileNormalizer.normalizeFile(QUOTED_MULTILINE_TEST_FILE.toPath(),
+            normalizedFile.toPath(), StandardCharsets.UTF_8, new RecordFormat(',', '"'), 2);
+
+    assertEquals(8, result.getNumOfLines());
+    assertEquals(5, result.getNumOfRecords());
+    assertTrue(result.isAlreadyNormalized());
+    //boundaries can only be on a record boundary
+    assertEquals(Arrays.asList(new RecordBoundary(39, 3), new RecordBoundary(59, 7)), result.getRecordBoundaries());
+
+    result = FileNormalizer.normalizeFile(LATIN_CRLF_TEST_FILE.toPath(), normalizedFile.toPath(),
+            StandardCharsets.ISO_8859_1, null, 0);
+    assertEquals(3, result.getNumOfLines());
+    assertEquals(3, result.getNumOfRecords());
+    assertFalse(result.isAlreadyNormalized());
+    assertTrue(result.getRecordBoundaries().isEmpty());
+  }
+
+  /**
+   * Delimiters like ¦ can be declared in a meta.xml, record boundaries can not be recorded for them but the file
+   * should still be normalized.
+   */
+  @Test
+  public void testNonAsciiDelimiter() throws IOException {
+    Path sourceFile = folder.newFile().toPath();
+    Files.write(sourceFile, "id\u00A6name\n1\u00A6\"multi\nline\"\n2\u00A6Puma concolor\n".getBytes(StandardCharsets.UTF_8));
+    File normalizedFile = folder.newFile();
+    FileNormalizationResult result = FileNormalizer.normalizeFile(sourceFile, normalizedFile.toPath(),
+            StandardCharsets.UTF_8, new RecordFormat('\u00A6', '"'), 1);
+
+    assertEquals(4, result.getNumOfLines());
+    assertTrue(result.isAlreadyNormalized());
+    assertTrue(result.getRecordBoundaries().isEmpty());
+    assertTrue(Arrays.equals(Files.readAllBytes(sourceFile), Files.readAllBytes(normalizedFile.toPath())));
+  }
+
+  /**
+   * A file already normalized should not be rewritten but its content should be available in the normalized file.
+   */
+  @Test
+  public void testAlreadyNormalizedFile() throws IOException {
+    File normalizedFile = folder.newFile();
+    FileNormalizationResult result = FileNormalizer.normalizeFile(QUOTED_MULTILINE_TEST_FILE.toPath(),
+            normalizedFile.toPath(), null, null, 0);
+
+    assertTrue(result.isAlreadyNormalized());
+    assertEquals(8, result.getNumOfLines());
+    assertTrue(Arrays.equals(Files.readAllBytes(QUOTED_MULTILINE_TEST_FILE.toPath()),
+            Files.readAllBytes(normalizedFile.toPath())));
+  }
+
+  /**
+   * Files normalized concurrently should give the same results.
+   */
+  @Test
+  public void normalizeTargetConcurrently() throws IOException {
+    File normalizedFolder = folder.newFolder();
+    Map<Path, FileNormalizationResult> normalizedContent = FileNormalizer.normalizeTarget(TEST_FOLDER.toPath(),
+            normalizedFolder.toPath(), null, null, 0, 4);
+    assertEquals(2, normalizedContent.size());
+    assertEquals(3, normalizedContent.get(Paths.get("utf8_lf.txt")).getNumOfLines());
+    assertEquals(2, normalizedContent.get(Paths.get("subsubfolder/utf8_lf.txt")).getNumOfLines());
+  }
+
   private void testNormalizer(Path testFile, Charset charset) throws IOException {
     File normalizedFile = folder.newFile();
     long numberOfLine = FileNormalizer.normalizeFile(testFile, normalizedFile.toPath(), charset);
@@ -0,0 +1,50 @@
+package org.gbif.validation.util;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests related to {@link LongHashSet}.
+ */
+public class LongHashSetTest {
+
+  @Test
+  public void testAddAndContains() {
+    LongHashSet set = new LongHashSet(0);
+    assertTrue(set.isEmpty());
+
+    //0 is used internally to mark free slots
+    assertTrue(set.add(0L));
+    assertFalse(set.add(0L));
+    assertTrue(set.add(-1L));
+    assertTrue(set.add(Long.MAX_VALUE));
+    assertFalse(set.add(Long.MAX_VALUE));
+
+    assertEquals(3, set.size());
+    assertTrue(set.contains(0L));
+    assertTrue(set.contains(-1L));
+    assertFalse(set.contains(1L));
+  }
+
+  @Test
+  public void testResize() {
+    LongHashSet set = new LongHashSet(4);
+    Set<Long> expected = new HashSet<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      long value = random.nextInt(5000);
+      assertEquals(expected.add(value), set.add(value));
+    }
+    assertEquals(expected.size(), set.size());
+    for (long value : expected) {
+      assertTrue(set.contains(value));
+    }
+  }
+}
@@ -26,13 +26,19 @@ import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletContextEvent;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Module;
 import com.google.inject.TypeLiteral;
 import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,16 +61,25 @@ public class ValidationWsListener extends GbifServletListener {
     private static final String PROPERTIES_PREFIX = "validation.";
 
     private static final String NORMALIZER_CONF = "clb-normalizer.yaml";
+    private static final String LOOKUP_CACHE_FOLDER = "lookup-cache";
 
     private static final int DEFAULT_SPLIT_SIZE = 10000;
+    private static final int DEFAULT_NORMALIZER_THREADS = 4;
 
     private static final int HTTP_CLIENT_TO = 60000;
     private static final int HTTP_CLIENT_THREADS = 20;
     private static final int HTTP_CLIENT_THREADS_PER_ROUTE = 20;
 
+    private static final long LOOKUP_METRICS_LOG_INTERVAL_MINUTES = 15;
+
     private static final TypeLiteral<JobServer<ValidationResult>> JOB_SERVER_TYPE_LITERAL =
       new TypeLiteral<JobServer<ValidationResult>>(){};
 
+    //created by configureService, released by close
+    private JobServer<ValidationResult> jobServer;
+    private ActorPropsSupplier actorPropsSupplier;
+    private ScheduledExecutorService lookupMetricsLogger;
+
     ValidationModule(Properties properties) {
       super(PROPERTIES_PREFIX,properties);
     }
@@ -76,6 +91,10 @@ public class ValidationWsListener extends GbifServletListener {
       configuration.setWorkingDir(properties.getProperty(ConfKeys.WORKING_DIR_CONF_KEY));
       configuration.setFileSplitSize(NumberUtils.toInt(properties.getProperty(ConfKeys.FILE_SPLIT_SIZE),
               DEFAULT_SPLIT_SIZE));
+      configuration.setNormalizerThreads(NumberUtils.toInt(properties.getProperty(ConfKeys.NORMALIZER_THREADS),
+              DEFAULT_NORMALIZER_THREADS));
+      configuration.setEvaluationThreads(NumberUtils.toInt(properties.getProperty(ConfKeys.EVALUATION_THREADS),
+              ActorPropsSupplier.DEFAULT_EVALUATION_THREADS));
       configuration.setApiDataValidationPath(properties.getProperty(ConfKeys.VALIDATION_API_PATH_CONF_KEY));
       configuration.setJobResultStorageDir(properties.getProperty(ConfKeys.RESULT_STORAGE_DIR_CONF_KEY));
       configuration.setMaxFileTransferSizeInBytes(NumberUtils.toLong(
@@ -93,6 +112,22 @@ public class ValidationWsListener extends GbifServletListener {
                 BooleanUtils.toBoolean(properties.getProperty(ConfKeys.PRESERVE_TEMPORARY_FILES)), false));
       configuration.setGangliaHost(properties.getProperty(ConfKeys.GANGLIA_HOST));
       configuration.setGangliaPort(NumberParser.parseInteger(properties.getProperty(ConfKeys.GANGLIA_PORT)));
+      configuration.setGeocodeCachePrecision(
+              NumberParser.parseInteger(properties.getProperty(ConfKeys.GEOCODE_CACHE_PRECISION)));
+      configuration.setGeocodeCacheTtlMinutes(
+              NumberParser.parseInteger(properties.getProperty(ConfKeys.GEOCODE_CACHE_TTL_MINUTES)));
+      configuration.setLookupCacheMaxSize(
+              NumberParser.parseInteger(properties.getProperty(ConfKeys.LOOKUP_CACHE_MAX_SIZE)));
+      configuration.setLookupCacheTtlMinutes(
+              NumberParser.parseInteger(properties.getProperty(ConfKeys.LOOKUP_CACHE_TTL_MINUTES)));
+      configuration.setPersistLookupCaches(
+              BooleanUtils.toBoolean(properties.getProperty(ConfKeys.PERSIST_LOOKUP_CACHES)));
+      configuration.setNameIndexDirectory(
+              StringUtils.trimToNull(properties.getProperty(ConfKeys.NAME_INDEX_DIRECTORY)));
+      configuration.setCountryPolygonFile(
+              StringUtils.trimToNull(properties.getProperty(ConfKeys.COUNTRY_POLYGON_FILE)));
+      configuration.setCountryPolygonSimplificationTolerance(
+              NumberParser.parseDouble(properties.getProperty(ConfKeys.COUNTRY_POLYGON_SIMPLIFICATION_TOLERANCE)));
 
       return configuration;
     }
@@ -112,10 +147,49 @@ public class ValidationWsListener extends GbifServletListener {
     /**
      * Creates an instance of a JobServer using  the provided configuration.
      */
-    private static JobServer<ValidationResult> getJobServerInstance(ValidationWsConfiguration configuration,
-                                                                    UploadedFileManager uploadedFileManager) {
-      return new JobServer<>(new FileJobStorage(Paths.get(configuration.getJobResultStorageDir())),
-                             buildActorPropsMapping(configuration), uploadedFileManager::cleanByKey);
+    private JobServer<ValidationResult> getJobServerInstance(ValidationWsConfiguration configuration,
+                                                             UploadedFileManager uploadedFileManager) {
+      actorPropsSupplier = buildActorPropsMapping(configuration);
+      jobServer = new JobServer<>(new FileJobStorage(Paths.get(configuration.getJobResultStorageDir())),
+                                  actorPropsSupplier, uploadedFileManager::cleanByKey);
+      startLookupMetricsLog(actorPropsSupplier.getEvaluatorFactory());
+      return jobServer;
+    }
+
+    /**
+     * Periodically logs the usage of the lookup caches and remote lookups shared by all the jobs.
+     */
+    private void startLookupMetricsLog(EvaluatorFactory evaluatorFactory) {
+      lookupMetricsLogger = Executors.newSingleThreadScheduledExecutor(
+              new ThreadFactoryBuilder().setNameFormat("lookup-metrics-log").setDaemon(true).build());
+      lookupMetricsLogger.scheduleAtFixedRate(() -> {
+        //an exception would cancel the next executions
+        try {
+          evaluatorFactory.getLookupCacheMetrics().forEach(metrics -> LOG.info("Lookup cache usage: {}", metrics));
+          evaluatorFactory.getRemoteCallMetrics().forEach(metrics -> LOG.info("Remote lookup usage: {}", metrics));
+        } catch (RuntimeException rEx) {
+          LOG.warn("Can't log the lookup metrics", rEx);
+        }
+      }, LOOKUP_METRICS_LOG_INTERVAL_MINUTES, LOOKUP_METRICS_LOG_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the {@link JobServer} then releases the resources shared by the jobs (e.g. persists the lookup caches).
+     */
+    private void close() {
+      if (lookupMetricsLogger != null) {
+        lookupMetricsLogger.shutdownNow();
+      }
+      if (jobServer != null) {
+        jobServer.stop();
+      }
+      if (actorPropsSupplier != null) {
+        try {
+          actorPropsSupplier.close();
+        } catch (IOException ioEx) {
+          LOG.error("Can't release the resources of the jobs", ioEx);
+        }
+      }
     }
 
     @Override
@@ -160,10 +234,22 @@ public class ValidationWsListener extends GbifServletListener {
               .setPreserveTemporaryFiles(configuration.isPreserveTemporaryFiles())
               .setGangliaHost(configuration.getGangliaHost().orElse(null))
               .setGangliaPort(configuration.getGangliaPort().orElse(null))
+              .setGeocodeCachePrecision(configuration.getGeocodeCachePrecision().orElse(null))
+              .setGeocodeCacheTtlMinutes(configuration.getGeocodeCacheTtlMinutes().orElse(null))
+              .setLookupCacheMaxSize(configuration.getLookupCacheMaxSize().orElse(null))
+              .setLookupCacheTtlMinutes(configuration.getLookupCacheTtlMinutes().orElse(null))
+              .setLookupCacheDirectory(configuration.isPersistLookupCaches() ?
+                      Paths.get(configuration.getWorkingDir(), LOOKUP_CACHE_FOLDER) : null)
+              .setNameIndexDirectory(configuration.getNameIndexDirectory().map(Paths::get).orElse(null))
+              .setCountryPolygonFile(configuration.getCountryPolygonFile().map(Paths::get).orElse(null))
+              .setCountryPolygonSimplificationTolerance(
+                      configuration.getCountryPolygonSimplificationTolerance().orElse(null))
               .build();
 
       return new ActorPropsSupplier(new EvaluatorFactory(config),
               configuration.getFileSplitSize(),
+              configuration.getNormalizerThreads(),
+              configuration.getEvaluationThreads(),
               configuration.getWorkingDir(),
               config.isPreservedTemporaryFiles());
     }
@@ -182,6 +268,8 @@ public class ValidationWsListener extends GbifServletListener {
     }
   }
 
+  private ValidationModule validationModule;
+
   public ValidationWsListener() throws IOException {
     super(PropertiesUtil.readFromFile(ConfUtils.getAppConfFile(APP_CONF_FILE)), "org.gbif.validation.ws", false);
   }
@@ -189,10 +277,19 @@ public class ValidationWsListener extends GbifServletListener {
   @Override
   protected List<Module> getModules(Properties properties) {
     List<Module> modules = Lists.newArrayList();
-    modules.add(new ValidationModule(properties));
+    validationModule = new ValidationModule(properties);
+    modules.add(validationModule);
     return modules;
   }
 
+  @Override
+  public void contextDestroyed(ServletContextEvent servletContextEvent) {
+    super.contextDestroyed(servletContextEvent);
+    if (validationModule != null) {
+      validationModule.close();
+    }
+  }
+
   /**
    * Installs predefined mixins.
    */
@@ -10,6 +10,8 @@ public final class ConfKeys {
   public static final String VALIDATION_API_PATH_CONF_KEY = "apiDataValidationPath";
   public static final String WORKING_DIR_CONF_KEY = "workingDir";
   public static final String FILE_SPLIT_SIZE = "fileSplitSize";
+  public static final String NORMALIZER_THREADS = "normalizerThreads";
+  public static final String EVALUATION_THREADS = "evaluationThreads";
   public static final String RESULT_STORAGE_DIR_CONF_KEY = "jobResultStorageDir";
 
   public static final String PRESERVE_TEMPORARY_FILES = "preserveTemporaryFiles";
@@ -19,6 +21,18 @@ public final class ConfKeys {
   public static final String GANGLIA_HOST = "gangliaHost";
   public static final String GANGLIA_PORT = "gangliaPort";
 
+  public static final String GEOCODE_CACHE_PRECISION = "geocodeCachePrecision";
+  public static final String GEOCODE_CACHE_TTL_MINUTES = "geocodeCacheTtlMinutes";
+
+  public static final String LOOKUP_CACHE_MAX_SIZE = "lookupCacheMaxSize";
+  public static final String LOOKUP_CACHE_TTL_MINUTES = "lookupCacheTtlMinutes";
+  public static final String PERSIST_LOOKUP_CACHES = "persistLookupCaches";
+
+  public static final String NAME_INDEX_DIRECTORY = "nameIndexDirectory";
+
+  public static final String COUNTRY_POLYGON_FILE = "countryPolygonFile";
+  public static final String COUNTRY_POLYGON_SIMPLIFICATION_TOLERANCE = "countryPolygonSimplificationTolerance";
+
   /**
    * Private constructor.
    */
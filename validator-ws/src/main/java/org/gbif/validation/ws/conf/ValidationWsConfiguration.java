@@ -24,11 +24,43 @@ public class ValidationWsConfiguration {
   private String gangliaHost;
   private Integer gangliaPort;
 
+  private Integer geocodeCachePrecision;
+  private Integer geocodeCacheTtlMinutes;
+
+  private Integer lookupCacheMaxSize;
+  private Integer lookupCacheTtlMinutes;
+
+  /**
+   * Should the lookup caches be persisted in the working directory.
+   */
+  private boolean persistLookupCaches;
+
+  /**
+   * Directory of a local name index replacing the species match API.
+   */
+  private String nameIndexDirectory;
+
+  /**
+   * File of country polygons replacing the reverse geocode API.
+   */
+  private String countryPolygonFile;
+  private Double countryPolygonSimplificationTolerance;
+
   /**
    * Maximum number of lines a file can contains until we split it.
    */
   private Integer fileSplitSize;
 
+  /**
+   * Maximum number of files (core and extensions) normalized at the same time.
+   */
+  private Integer normalizerThreads;
+
+  /**
+   * Number of threads evaluating records, shared by all the jobs.
+   */
+  private Integer evaluationThreads;
+
   /**
    * Directory used to copy data files to be validated.
    */
@@ -76,6 +108,22 @@ public class ValidationWsConfiguration {
     this.fileSplitSize = fileSplitSize;
   }
 
+  public Integer getNormalizerThreads() {
+    return normalizerThreads;
+  }
+
+  public void setNormalizerThreads(Integer normalizerThreads) {
+    this.normalizerThreads = normalizerThreads;
+  }
+
+  public Integer getEvaluationThreads() {
+    return evaluationThreads;
+  }
+
+  public void setEvaluationThreads(Integer evaluationThreads) {
+    this.evaluationThreads = evaluationThreads;
+  }
+
   public String getWorkingDir() {
     return workingDir;
   }
@@ -128,4 +176,73 @@ public class ValidationWsConfiguration {
   public void setGangliaPort(Integer gangliaPort) {
     this.gangliaPort = gangliaPort;
   }
+
+  /**
+   * Number of decimals of the latitude and longitude used to cache the coordinate interpretation.
+   *
+   * @return
+   */
+  public Optional<Integer> getGeocodeCachePrecision() {
+    return Optional.ofNullable(geocodeCachePrecision);
+  }
+
+  public void setGeocodeCachePrecision(Integer geocodeCachePrecision) {
+    this.geocodeCachePrecision = geocodeCachePrecision;
+  }
+
+  public Optional<Integer> getGeocodeCacheTtlMinutes() {
+    return Optional.ofNullable(geocodeCacheTtlMinutes);
+  }
+
+  public void setGeocodeCacheTtlMinutes(Integer geocodeCacheTtlMinutes) {
+    this.geocodeCacheTtlMinutes = geocodeCacheTtlMinutes;
+  }
+
+  public Optional<Integer> getLookupCacheMaxSize() {
+    return Optional.ofNullable(lookupCacheMaxSize);
+  }
+
+  public void setLookupCacheMaxSize(Integer lookupCacheMaxSize) {
+    this.lookupCacheMaxSize = lookupCacheMaxSize;
+  }
+
+  public Optional<Integer> getLookupCacheTtlMinutes() {
+    return Optional.ofNullable(lookupCacheTtlMinutes);
+  }
+
+  public void setLookupCacheTtlMinutes(Integer lookupCacheTtlMinutes) {
+    this.lookupCacheTtlMinutes = lookupCacheTtlMinutes;
+  }
+
+  public boolean isPersistLookupCaches() {
+    return persistLookupCaches;
+  }
+
+  public void setPersistLookupCaches(boolean persistLookupCaches) {
+    this.persistLookupCaches = persistLookupCaches;
+  }
+
+  public Optional<String> getNameIndexDirectory() {
+    return Optional.ofNullable(nameIndexDirectory);
+  }
+
+  public void setNameIndexDirectory(String nameIndexDirectory) {
+    this.nameIndexDirectory = nameIndexDirectory;
+  }
+
+  public Optional<String> getCountryPolygonFile() {
+    return Optional.ofNullable(countryPolygonFile);
+  }
+
+  public void setCountryPolygonFile(String countryPolygonFile) {
+    this.countryPolygonFile = countryPolygonFile;
+  }
+
+  public Optional<Double> getCountryPolygonSimplificationTolerance() {
+    return Optional.ofNullable(countryPolygonSimplificationTolerance);
+  }
+
+  public void setCountryPolygonSimplificationTolerance(Double countryPolygonSimplificationTolerance) {
+    this.countryPolygonSimplificationTolerance = countryPolygonSimplificationTolerance;
+  }
 }